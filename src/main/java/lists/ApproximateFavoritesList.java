@@ -0,0 +1,125 @@
+package lists;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains the approximate favorites of an unbounded stream of accesses in
+ * O(m) memory, by keeping at most m items with the Space-Saving algorithm.
+ *
+ * <p>An access to a tracked element increments its count, as in the exact
+ * list. An access to an untracked element, when m elements are tracked,
+ * replaces the element of a last item, whose count c is the smallest, and
+ * increments that count; the new element thus starts with count c+1 and
+ * error c. The count of a tracked element is never less than its number of
+ * accesses, and exceeds it by at most its error, which is itself at most n/m
+ * after n accesses. Any element accessed more than n/m times is tracked, and
+ * an untracked element has been accessed at most as often as the smallest
+ * count. The count buckets of the exact list serve as the Stream-Summary of
+ * the algorithm, so that an access still runs in O(1) expected time.
+ *
+ * <p>An optional {@link CountMinSketch}, to which every access is added, gives
+ * a second upper bound on the number of accesses of any element, tracked or
+ * not; its memory is fixed at construction.
+ *
+ * <p>Removing an element forgets its count, after which the bounds above hold
+ * only for the accesses made since.
+ */
+public class ApproximateFavoritesList<E> extends FavoritesList<E> {
+  /** Largest number of tracked elements. */
+  private final int capacity;
+
+  /** Sketch to which every access is added (or null). */
+  private final CountMinSketch<E> sketch;
+
+  /** Error of each tracked element whose error is not zero. */
+  private Map<E, Integer> errors = new HashMap<>();
+
+  /**
+   * Constructs an initially empty list tracking at most capacity elements.
+   *
+   * @param capacity    the largest number of tracked elements
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public ApproximateFavoritesList(int capacity) throws IllegalArgumentException {
+    this(capacity, null);
+  }
+
+  /**
+   * Constructs an initially empty list tracking at most capacity elements,
+   * which adds every access to the given sketch.
+   *
+   * @param capacity    the largest number of tracked elements
+   * @param sketch      an empty sketch (or null for none)
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public ApproximateFavoritesList(int capacity, CountMinSketch<E> sketch) throws IllegalArgumentException {
+    if (capacity <= 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    this.capacity = capacity;
+    this.sketch = sketch;
+  }
+
+  // public methods
+  /** Returns the largest number of tracked elements. */
+  public int capacity() { return capacity; }
+
+  /**
+   * Accesses element e, thereby increasing its count. If e is untracked and
+   * the list is full, e takes over the item of smallest count.
+   */
+  @Override
+  public void access(E e) {
+    if (sketch != null)
+      sketch.add(e);
+    if (size() == capacity && findPosition(e) == null) {
+      Position<Item<E>> p = list.last();          // an item of smallest count
+      errors.remove(value(p));
+      replace(p, e);
+      errors.put(e, count(p));
+    }
+    super.access(e);
+  }
+
+  /** Removes element equal to e from the list of favorites (if found). */
+  @Override
+  public void remove(E e) {
+    errors.remove(e);
+    super.remove(e);
+  }
+
+  /**
+   * Returns the largest amount by which the count of element e may exceed its
+   * number of accesses (0 if it is not tracked).
+   */
+  public int errorOf(E e) {
+    Integer error = errors.get(e);
+    return (error == null) ? 0 : error;
+  }
+
+  /**
+   * Returns a lower bound on the number of accesses of element e, which is
+   * its count less its error (0 if it is not tracked).
+   */
+  public int lowerBound(E e) {
+    return countOf(e) - errorOf(e);
+  }
+
+  /**
+   * Returns an upper bound on the number of accesses of element e: its count
+   * if it is tracked, or else the smallest count if the list is full and 0
+   * otherwise, further bounded by the estimate of the sketch if there is one.
+   */
+  public int upperBound(E e) {
+    Position<Item<E>> p = findPosition(e);
+    int bound;
+    if (p != null)
+      bound = count(p);
+    else
+      bound = (size() == capacity) ? count(list.last()) : 0;
+    return (sketch == null) ? bound : Math.min(bound, sketch.estimate(e));
+  }
+
+  public static void main(String[] args) {
+    test(new ApproximateFavoritesList<Character>(5, new CountMinSketch<>(16, 4)));
+  }
+}
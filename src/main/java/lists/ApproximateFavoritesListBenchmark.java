@@ -0,0 +1,66 @@
+package lists;
+
+import java.util.Random;
+
+/**
+ * Compares {@link ApproximateFavoritesList} of a few capacities with the exact
+ * {@link FavoritesList} on a high-cardinality stream, in which half of the
+ * accesses are Zipf-distributed over {@link FavoritesListBenchmark#KEYS} keys
+ * and the other half are to keys seen about once. Reports the throughput, the
+ * number of items kept, and how many of the exact top {@link #TOP} the
+ * approximate top {@link #TOP} recalls.
+ */
+public class ApproximateFavoritesListBenchmark {
+
+  /** Number of accesses. */
+  static final int ACCESSES = 4_000_000;
+
+  /** Number of favorites compared. */
+  static final int TOP = 50;
+
+  /** Returns the stream of accesses. */
+  static Integer[] stream() {
+    Integer[] zipf = FavoritesListBenchmark.zipf(ACCESSES / 2);
+    Random random = new Random(254);
+    Integer[] keys = new Integer[ACCESSES];
+    for (int j = 0; j < ACCESSES; j++)
+      keys[j] = (j % 2 == 0) ? zipf[j / 2] : FavoritesListBenchmark.KEYS + random.nextInt(1 << 30);
+    return keys;
+  }
+
+  /** Returns the number of elements of a that are also in b. */
+  static int overlap(Iterable<Integer> a, Iterable<Integer> b) {
+    java.util.Set<Integer> set = new java.util.HashSet<>();
+    b.forEach(set::add);
+    int n = 0;
+    for (Integer e : a)
+      if (set.contains(e)) n++;
+    return n;
+  }
+
+  public static void main(String[] args) {
+    Integer[] keys = stream();
+    System.out.printf("%,d accesses, half Zipf over %,d keys, half near-unique%n%n",
+                      ACCESSES, FavoritesListBenchmark.KEYS);
+    System.out.printf("%-22s %18s %12s %10s%n", "List", "k access/s", "Items", "Recall");
+    FavoritesList<Integer> exact = new FavoritesList<>();
+    long start = System.nanoTime();
+    for (Integer key : keys)
+      exact.access(key);
+    double rate = ACCESSES / ((System.nanoTime() - start) / 1e6);
+    Iterable<Integer> top = exact.getFavorites(TOP);
+    System.out.printf("%-22s %,18.1f %,12d %10s%n", "Exact", rate, exact.size(), TOP + "/" + TOP);
+    for (int m : new int[]{ 1_000, 10_000 }) {
+      for (boolean sketched : new boolean[]{ false, true }) {
+        ApproximateFavoritesList<Integer> approximate =
+            new ApproximateFavoritesList<>(m, sketched ? new CountMinSketch<>(4 * m, 4) : null);
+        start = System.nanoTime();
+        for (Integer key : keys)
+          approximate.access(key);
+        rate = ACCESSES / ((System.nanoTime() - start) / 1e6);
+        System.out.printf("%-22s %,18.1f %,12d %10s%n", "m=" + m + (sketched ? " + sketch" : ""),
+                          rate, approximate.size(), overlap(approximate.getFavorites(TOP), top) + "/" + TOP);
+      }
+    }
+  }
+}
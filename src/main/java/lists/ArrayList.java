@@ -22,8 +22,21 @@
  */
 package lists;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Realization of a list by means of a dynamic array. This is a simplified version
@@ -38,20 +51,50 @@ public class ArrayList<E> implements List<E> {
   /** Default array capacity. */
   public static final int CAPACITY=16;     // default array capacity
 
+  /** Smallest number of elements handed to a single fork-join task. */
+  static final int GRAIN = 1 << 13;        // below this, forking costs more than it saves
+
+  /** Shared array used by lists whose storage has not been allocated yet. */
+  private static final Object[] EMPTY = {};
+
   /** Generic array used for storage of list elements. */
   private E[] data;                        // generic array used for storage
 
+  /** Policy deciding how the array grows and shrinks. */
+  private final CapacityPolicy policy;     // growth and shrink policy
+
   /** Current number of elements in the list. */
   private int size = 0;                    // current number of elements
 
+  /** Element to indices table kept in indexed mode (null otherwise). */
+  private ElementIndex index = null;       // side table for element lookups
+
+  /** Whether elements have shifted since the index was last brought up to date. */
+  private boolean indexStale = false;      // rebuild index before next lookup?
+
   // constructors
-  /** Creates an array list with default initial capacity. */
-  public ArrayList() { this(CAPACITY); }   // constructs list with default capacity
+  /**
+   * Creates an array list with default initial capacity, which is allocated
+   * on the first insertion.
+   */
+  public ArrayList() { this(CapacityPolicy.doubling(CAPACITY)); }
 
   /** Creates an array list with given initial capacity. */
   @SuppressWarnings({"unchecked"})
   public ArrayList(int capacity) {         // constructs list with given capacity
     data = (E[]) new Object[capacity];     // safe cast; compiler may give warning
+    policy = CapacityPolicy.doubling(capacity);
+  }
+
+  /**
+   * Creates an array list whose array is allocated on the first insertion, and
+   * then grows and shrinks as decided by the given policy.
+   * @param policy   the growth and shrink policy
+   */
+  @SuppressWarnings({"unchecked"})
+  public ArrayList(CapacityPolicy policy) {
+    data = (E[]) EMPTY;                    // allocated lazily
+    this.policy = policy;
   }
 
   // public methods
@@ -89,6 +132,10 @@ public class ArrayList<E> implements List<E> {
     checkIndex(i, size);
     E temp = data[i];
     data[i] = e;
+    if (index != null && !indexStale) {    // no element moves, so update in place
+      index.remove(temp, i);
+      index.add(e, i);
+    }
     return temp;
   }
 
@@ -102,11 +149,127 @@ public class ArrayList<E> implements List<E> {
   public void add(int i, E e) throws IndexOutOfBoundsException {
     checkIndex(i, size + 1);
     if (size == data.length)               // not enough capacity
-      resize(2 * data.length);             // so double the current capacity
-    for (int k=size-1; k >= i; k--)        // start by shifting rightmost
-      data[k+1] = data[k];
+      grow(size + 1);                      // so ask the policy for more
+    System.arraycopy(data, i, data, i+1, size-i);   // shift the tail in one block move
     data[i] = e;                           // ready to place the new element
     size++;
+    if (index != null)
+      indexInserted(i, 1);
+  }
+
+  /**
+   * Inserts all of the given elements at the specified index of the list, in
+   * array order, shifting the subsequent elements in a single block move.
+   * Inserting n elements runs in O(size + n) time.
+   * @param  i          the index at which the first new element should be stored
+   * @param  elements   the new elements to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  public void addAll(int i, E[] elements) throws IndexOutOfBoundsException {
+    addAll(i, elements, elements.length);
+  }
+
+  /**
+   * Inserts all of the elements reported by the given iterable at the
+   * specified index of the list, in iteration order, shifting the subsequent
+   * elements in a single block move. Inserting n elements runs in
+   * O(size + n) time.
+   * @param  i          the index at which the first new element should be stored
+   * @param  elements   the new elements to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  public void addAll(int i, Iterable<? extends E> elements) throws IndexOutOfBoundsException {
+    checkIndex(i, size + 1);
+    Object[] buffer;
+    int n;
+    if (elements instanceof Collection) {                     // size known up front
+      buffer = ((Collection<?>) elements).toArray();
+      n = buffer.length;
+    } else if (elements instanceof ArrayList) {               // copy (possibly own) storage
+      ArrayList<?> other = (ArrayList<?>) elements;
+      n = other.size;
+      buffer = new Object[n];
+      System.arraycopy(other.data, 0, buffer, 0, n);
+    } else {                                                  // gather into a growing buffer
+      buffer = new Object[CAPACITY];
+      n = 0;
+      for (E e : elements) {
+        if (n == buffer.length)
+          buffer = Arrays.copyOf(buffer, 2 * n);
+        buffer[n++] = e;
+      }
+    }
+    addAll(i, buffer, n);
+  }
+
+  /**
+   * Removes the elements with indices in the range [from, to), shifting the
+   * subsequent elements closer to the front in a single block move.
+   * @param  from   the index of the first element to be removed
+   * @param  to     the index just past the last element to be removed
+   * @throws IndexOutOfBoundsException if from is negative, to is greater than size(), or from &gt; to
+   */
+  public void removeRange(int from, int to) throws IndexOutOfBoundsException {
+    checkRange(from, to, size);
+    if (index != null && !indexStale) {
+      if (to == size)                      // a suffix: nothing will shift
+        for (int k=from; k < to; k++)
+          index.remove(data[k], k);
+      else
+        indexStale = true;
+    }
+    System.arraycopy(data, to, data, from, size-to);   // shift elements to fill the gap
+    Arrays.fill(data, size-(to-from), size, null);   // help garbage collection
+    size -= to - from;
+    shrink();
+  }
+
+  /**
+   * Replaces the elements starting at the given index with the given elements,
+   * in array order, using a single block copy.
+   * @param  from       the index of the first element to replace
+   * @param  elements   the new elements to be stored
+   * @throws IndexOutOfBoundsException if from is negative or from + elements.length is greater than size()
+   */
+  public void setAll(int from, E[] elements) throws IndexOutOfBoundsException {
+    checkRange(from, from + elements.length, size);
+    if (index != null && !indexStale)      // no element moves, so update in place
+      for (int k=0; k < elements.length; k++) {
+        index.remove(data[from+k], from+k);
+        index.add(elements[k], from+k);
+      }
+    System.arraycopy(elements, 0, data, from, elements.length);
+  }
+
+  /**
+   * Increases the capacity of the list, if necessary, so that it can hold at
+   * least the given number of elements without further resizing. The new
+   * capacity is the one chosen by the capacity policy.
+   * @param  minCapacity   the desired minimum capacity
+   * @throws IllegalStateException if the policy does not let the list grow that large
+   */
+  public void ensureCapacity(int minCapacity) throws IllegalStateException {
+    if (minCapacity > data.length) {
+      int capacity = policy.grow(data.length, minCapacity);
+      if (capacity < minCapacity) throw new IllegalStateException("List is full");
+      resize(capacity);
+    }
+  }
+
+  /**
+   * Returns the length of the underlying array, which is 0 while no array
+   * has been allocated.
+   * @return the current capacity of the list
+   */
+  public int capacity() { return data.length; }
+
+  /**
+   * Reduces the capacity of the list to its current size, releasing the array
+   * altogether if the list is empty.
+   */
+  public void trimToSize() {
+    if (data.length > size)
+      resize(size);
   }
 
   /**
@@ -119,10 +282,16 @@ public class ArrayList<E> implements List<E> {
   public E remove(int i) throws IndexOutOfBoundsException {
     checkIndex(i, size);
     E temp = data[i];
-    for (int k=i; k < size-1; k++)         // shift elements to fill hole
-      data[k] = data[k+1];
+    System.arraycopy(data, i+1, data, i, size-i-1);   // shift elements to fill hole
     data[size-1] = null;                   // help garbage collection
     size--;
+    shrink();
+    if (index != null && !indexStale) {
+      if (i == size)                       // the last element: nothing has shifted
+        index.remove(temp, i);
+      else
+        indexStale = true;
+    }
     return temp;
   }
 
@@ -133,15 +302,97 @@ public class ArrayList<E> implements List<E> {
       throw new IndexOutOfBoundsException("Illegal index: " + i);
   }
 
+  /** Checks whether [from, to) is a valid range of indices within [0, n). */
+  protected void checkRange(int from, int to, int n) throws IndexOutOfBoundsException {
+    if (from < 0 || to > n || from > to)
+      throw new IndexOutOfBoundsException("Illegal range: [" + from + ", " + to + ")");
+  }
+
   /** Resizes internal array to have given capacity >= size. */
   @SuppressWarnings({"unchecked"})
   protected void resize(int capacity) {
-    E[] temp = (E[]) new Object[capacity];     // safe cast; compiler may give warning
-    for (int k=0; k < size; k++)
-      temp[k] = data[k];
+    E[] temp = (E[]) ((capacity == 0) ? EMPTY : new Object[capacity]);   // safe cast
+    System.arraycopy(data, 0, temp, 0, size);
     data = temp;                               // start using the new array
   }
 
+  /** Grows the array as decided by the policy, so that it holds at least n elements. */
+  private void grow(int n) throws IllegalStateException {
+    int capacity = policy.grow(data.length, n);
+    if (capacity < n) throw new IllegalStateException("List is full");
+    resize(capacity);
+  }
+
+  /** Shrinks the array after a removal, if the policy so decides. */
+  private void shrink() {
+    int capacity = policy.shrink(data.length, size);
+    if (capacity < data.length)
+      resize(capacity);
+  }
+
+  /** Inserts the first n entries of the given array at index i with one block move. */
+  @SuppressWarnings({"unchecked"})
+  private void addAll(int i, Object[] elements, int n) throws IndexOutOfBoundsException {
+    checkIndex(i, size + 1);
+    if (size + n > data.length)            // not enough capacity
+      grow(size + n);
+    System.arraycopy(data, i, data, i+n, size-i);   // open a gap of n cells
+    System.arraycopy(elements, 0, data, i, n);      // and fill it
+    size += n;
+    if (index != null)
+      indexInserted(i, n);
+  }
+
+  // support for the optional element index
+  /**
+   * Turns indexed mode on or off. In indexed mode the list keeps a hash table
+   * from each element to the indices at which it is stored, which makes
+   * {@link #contains}, {@link #indexOf} and {@link #lastIndexOf} run in O(1)
+   * expected time. Appending, removing the last element, and replacing
+   * elements update the table incrementally. Operations that shift elements
+   * only mark it stale, and it is rebuilt in one O(n) pass by the next lookup.
+   * @param  indexed   true to keep an element index, false to drop it
+   */
+  public void setIndexed(boolean indexed) {
+    if (!indexed) {
+      index = null;
+      indexStale = false;
+    } else if (index == null) {
+      index = new ElementIndex();
+      rebuildIndex();
+    }
+  }
+
+  /**
+   * Tests whether the list is in indexed mode.
+   * @return true if the list keeps an element index, false otherwise
+   */
+  public boolean isIndexed() { return index != null; }
+
+  /**
+   * Rebuilds the element index from scratch in O(n) time. Lookups do this
+   * automatically after elements have shifted, but calling it directly after
+   * a batch of shifting updates moves that cost out of the next lookup.
+   * This has no effect unless the list is in indexed mode.
+   */
+  public void rebuildIndex() {
+    if (index == null) return;
+    index.clear(size);
+    for (int k=0; k < size; k++)           // indices arrive in increasing order,
+      index.add(data[k], k);               // so each one is appended to its set
+    indexStale = false;
+  }
+
+  /** Updates the index after n elements were inserted at index i. */
+  private void indexInserted(int i, int n) {
+    if (indexStale) return;
+    if (i + n < size)                      // later elements have shifted
+      indexStale = true;
+    else
+      for (int k=i; k < size; k++)
+        index.add(data[k], k);
+  }
+
   //---------------- nested ArrayIterator class ----------------
   /**
    * A (nonstatic) inner class. Note well that each instance contains an implicit
@@ -192,6 +443,267 @@ public class ArrayList<E> implements List<E> {
     return new ArrayIterator();     // create a new instance of the inner class
   }
 
+  //---------------- nested ArraySpliterator class ----------------
+  /**
+   * A spliterator over a range of the backing array. It is late-binding: the
+   * array and the end of the range are read from the list when the spliterator
+   * is first traversed or split, not when it is created. Splitting halves the
+   * index range, so the sizes of both halves are known exactly.
+   */
+  private class ArraySpliterator implements Spliterator<E> {
+    private Object[] a;                  // array being traversed, once bound
+    private int j;                       // index of the next element to report
+    private int fence;                   // one past the last index, or -1 until bound
+
+    /** Constructs a spliterator over the index range [origin, fence). */
+    ArraySpliterator(Object[] a, int origin, int fence) {
+      this.a = a;
+      this.j = origin;
+      this.fence = fence;
+    }
+
+    /** Binds the spliterator to the current array and size, if not done already. */
+    private int fence() {
+      if (fence < 0) {
+        a = data;
+        fence = size;                    // size is field of outer instance
+      }
+      return fence;
+    }
+
+    public Spliterator<E> trySplit() {
+      int hi = fence();
+      int mid = (j + hi) >>> 1;
+      if (j >= mid) return null;         // too small to split
+      Spliterator<E> prefix = new ArraySpliterator(a, j, mid);
+      j = mid;
+      return prefix;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public boolean tryAdvance(Consumer<? super E> action) {
+      if (j >= fence()) return false;
+      action.accept((E) a[j++]);
+      return true;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public void forEachRemaining(Consumer<? super E> action) {
+      int hi = fence();
+      Object[] arr = a;
+      for (int k = j; k < hi; k++)
+        action.accept((E) arr[k]);
+      j = hi;
+    }
+
+    public long estimateSize() { return fence() - j; }
+
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+  } //------------ end of nested ArraySpliterator class ------------
+
+  /**
+   * Returns a spliterator of the elements stored in the list. It reports
+   * ORDERED, SIZED and SUBSIZED, and splits the array by index range.
+   * @return spliterator of the list's elements
+   */
+  @Override
+  public Spliterator<E> spliterator() {
+    return new ArraySpliterator(null, 0, -1);   // bound on first use
+  }
+
+  /**
+   * Returns a sequential stream of the elements stored in the list.
+   * @return stream of the list's elements
+   */
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns a parallel stream of the elements stored in the list.
+   * @return parallel stream of the list's elements
+   */
+  public Stream<E> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  // bulk operations
+  /**
+   * Performs the given action on each element of the list, in index order.
+   * @param  action   the action to be performed
+   */
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    for (int k=0; k < size; k++)
+      action.accept(data[k]);
+  }
+
+  /**
+   * Replaces each element of the list with the result of applying the given
+   * operator to it.
+   * @param  operator   the operator to apply to each element
+   */
+  public void replaceAll(UnaryOperator<E> operator) {
+    for (int k=0; k < size; k++)
+      data[k] = operator.apply(data[k]);
+    if (index != null) indexStale = true;
+  }
+
+  /**
+   * Replaces each element of the list with the result of applying the given
+   * operator to it, splitting the array among the tasks of the common
+   * fork-join pool. The operator may be applied to the elements in any order.
+   * @param  operator   the operator to apply to each element
+   */
+  public void parallelReplaceAll(UnaryOperator<E> operator) {
+    ForkJoinPool.commonPool().invoke(new ReplaceTask<>(data, 0, size, grain(), operator));
+    if (index != null) indexStale = true;
+  }
+
+  /**
+   * Performs the given action on each element of the list, splitting the array
+   * among the tasks of the common fork-join pool. The action may be performed
+   * on the elements in any order, and from several threads at once.
+   * @param  action   the action to be performed
+   */
+  public void parallelForEach(Consumer<? super E> action) {
+    ForkJoinPool.commonPool().invoke(new ForEachTask<>(data, 0, size, grain(), action));
+  }
+
+  /**
+   * Combines the elements of the list with the given associative operator,
+   * splitting the array among the tasks of the common fork-join pool. The
+   * elements keep their order, so the operator need not be commutative.
+   * @param  identity   the identity value of the operator
+   * @param  operator   an associative operator combining two values
+   * @return the result of the reduction, or identity if the list is empty
+   */
+  public E parallelReduce(E identity, BinaryOperator<E> operator) {
+    return ForkJoinPool.commonPool().invoke(new ReduceTask<>(data, 0, size, grain(), identity, operator));
+  }
+
+  /**
+   * Sorts the list according to the order induced by the given comparator.
+   * The sort is stable.
+   * @param  comp   the comparator that determines the order
+   */
+  public void sort(Comparator<? super E> comp) {
+    Arrays.sort(data, 0, size, comp);
+    if (index != null) indexStale = true;
+  }
+
+  /**
+   * Sorts the list according to the order induced by the given comparator,
+   * with a merge sort whose sorts and merges run as tasks of the given pool.
+   * Lists of at most threshold elements are sorted sequentially. The sort is
+   * stable.
+   * @param  comp        the comparator that determines the order
+   * @param  pool        the pool running the tasks
+   * @param  threshold   the size below which the list is sorted sequentially
+   * @see ParallelSort
+   */
+  public void parallelSort(Comparator<? super E> comp, ForkJoinPool pool, int threshold) {
+    ParallelSort.sortArray(data, size, comp, pool, threshold);
+    if (index != null) indexStale = true;
+  }
+
+  /** Returns the leaf size giving each worker of the common pool a few tasks. */
+  private int grain() {
+    return Math.max(GRAIN, size / (4 * ForkJoinPool.getCommonPoolParallelism()));
+  }
+
+  //---------------- nested fork-join task classes ----------------
+  /** Applies an operator to the elements of a[lo..hi) in place. */
+  @SuppressWarnings({"serial"})              // tasks are never serialized
+  private static class ReplaceTask<E> extends RecursiveAction {
+    private final Object[] a;
+    private final int lo, hi, grain;
+    private final UnaryOperator<E> operator;
+
+    ReplaceTask(Object[] a, int lo, int hi, int grain, UnaryOperator<E> operator) {
+      this.a = a;
+      this.lo = lo;
+      this.hi = hi;
+      this.grain = grain;
+      this.operator = operator;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    protected void compute() {
+      if (hi - lo <= grain) {
+        for (int k = lo; k < hi; k++)
+          a[k] = operator.apply((E) a[k]);
+      } else {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new ReplaceTask<>(a, lo, mid, grain, operator),
+                  new ReplaceTask<>(a, mid, hi, grain, operator));
+      }
+    }
+  }
+
+  /** Performs an action on the elements of a[lo..hi). */
+  @SuppressWarnings({"serial"})
+  private static class ForEachTask<E> extends RecursiveAction {
+    private final Object[] a;
+    private final int lo, hi, grain;
+    private final Consumer<? super E> action;
+
+    ForEachTask(Object[] a, int lo, int hi, int grain, Consumer<? super E> action) {
+      this.a = a;
+      this.lo = lo;
+      this.hi = hi;
+      this.grain = grain;
+      this.action = action;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    protected void compute() {
+      if (hi - lo <= grain) {
+        for (int k = lo; k < hi; k++)
+          action.accept((E) a[k]);
+      } else {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new ForEachTask<>(a, lo, mid, grain, action),
+                  new ForEachTask<>(a, mid, hi, grain, action));
+      }
+    }
+  }
+
+  /** Combines the elements of a[lo..hi), in order, with an associative operator. */
+  @SuppressWarnings({"serial"})
+  private static class ReduceTask<E> extends RecursiveTask<E> {
+    private final Object[] a;
+    private final int lo, hi, grain;
+    private final E identity;
+    private final BinaryOperator<E> operator;
+
+    ReduceTask(Object[] a, int lo, int hi, int grain, E identity, BinaryOperator<E> operator) {
+      this.a = a;
+      this.lo = lo;
+      this.hi = hi;
+      this.grain = grain;
+      this.identity = identity;
+      this.operator = operator;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    protected E compute() {
+      if (hi - lo <= grain) {
+        E result = identity;
+        for (int k = lo; k < hi; k++)
+          result = operator.apply(result, (E) a[k]);
+        return result;
+      }
+      int mid = (lo + hi) >>> 1;
+      ReduceTask<E> left = new ReduceTask<>(a, lo, mid, grain, identity, operator);
+      left.fork();                       // let another worker steal the left half
+      E right = new ReduceTask<>(a, mid, hi, grain, identity, operator).compute();
+      return operator.apply(left.join(), right);
+    }
+  } //------------ end of nested fork-join task classes ------------
+
   /**
    * Produces a string representation of the contents of the indexed list.
    * This exists for debugging purposes only.
@@ -210,12 +722,41 @@ public class ArrayList<E> implements List<E> {
   //checks if an element is contained in the list
   public boolean contains(Object o) 
   {
-	  //
-	  for (int k=0; k < size; k++)
-		  if (data[k].equals(o))
-		   return true;
-		 return false;
-	  
+	  return indexOf(o) >= 0;
+  }
+
+  /**
+   * Returns the index of the first element equal to o (possibly null).
+   * This runs in O(1) expected time in indexed mode, and O(n) time otherwise.
+   * @param  o   the element to search for
+   * @return the smallest index of an element equal to o, or -1 if there is none
+   */
+  public int indexOf(Object o) {
+    if (index != null) {
+      if (indexStale) rebuildIndex();
+      return index.first(o);
+    }
+    for (int k=0; k < size; k++)
+      if (Objects.equals(data[k], o))
+        return k;
+    return -1;
+  }
+
+  /**
+   * Returns the index of the last element equal to o (possibly null).
+   * This runs in O(1) expected time in indexed mode, and O(n) time otherwise.
+   * @param  o   the element to search for
+   * @return the largest index of an element equal to o, or -1 if there is none
+   */
+  public int lastIndexOf(Object o) {
+    if (index != null) {
+      if (indexStale) rebuildIndex();
+      return index.last(o);
+    }
+    for (int k=size-1; k >= 0; k--)
+      if (Objects.equals(data[k], o))
+        return k;
+    return -1;
   }
   public static void main(String args[])
   {
@@ -0,0 +1,91 @@
+package lists;
+
+/**
+ * A strategy deciding how the backing array of an array-based container, such
+ * as {@link ArrayList}, stacks.ArrayStack or queues.ArrayQueue, grows when it
+ * is full and shrinks when it becomes sparsely occupied.
+ *
+ * <p>Containers allocate their array lazily: an empty container that has never
+ * held an element uses a shared zero-length array, and the first insertion asks
+ * the policy to grow it from capacity 0.
+ */
+public interface CapacityPolicy {
+
+  /**
+   * Returns the capacity to use when an array of the given capacity must hold
+   * at least minCapacity elements. A result smaller than minCapacity means that
+   * the container may not grow, and the insertion, or ensureCapacity, is
+   * refused with an IllegalStateException.
+   *
+   * @param capacity      current length of the array (0 if not yet allocated)
+   * @param minCapacity   number of elements the array must be able to hold
+   * @return the new capacity
+   */
+  int grow(int capacity, int minCapacity);
+
+  /**
+   * Returns the capacity to use after a removal has left size elements in an
+   * array of the given capacity. Returning the current capacity keeps the
+   * array as it is.
+   *
+   * @param capacity   current length of the array
+   * @param size       number of elements now stored
+   * @return the new capacity, which is at least size and at most capacity
+   */
+  int shrink(int capacity, int size);
+
+  /**
+   * Returns a policy that allocates exactly the given capacity on the first
+   * insertion and then never grows or shrinks, so that an insertion into a
+   * full container is refused.
+   *
+   * @param capacity   the fixed capacity
+   * @return the fixed capacity policy
+   */
+  static CapacityPolicy fixed(int capacity) {
+    return new CapacityPolicy() {
+      public int grow(int current, int needed) { return Math.max(current, capacity); }
+      public int shrink(int current, int size) { return current; }
+    };
+  }
+
+  /**
+   * Returns a policy that starts with the given capacity and doubles it
+   * whenever the array is full, but never gives memory back.
+   *
+   * @param initialCapacity   the capacity allocated on the first insertion
+   * @return the doubling policy
+   */
+  static CapacityPolicy doubling(int initialCapacity) {
+    return new CapacityPolicy() {
+      public int grow(int current, int needed) {
+        int capacity = (current == 0) ? Math.max(1, initialCapacity) : 2 * current;
+        return Math.max(capacity, needed);
+      }
+      public int shrink(int current, int size) { return current; }
+    };
+  }
+
+  /**
+   * Returns a policy that doubles the capacity whenever the array is full, and
+   * halves it whenever a removal leaves it at most a quarter full, but never
+   * below the given minimum. After either change the array is about half full,
+   * so the number of elements must double or halve again before the next
+   * resize, and alternating insertions and removals cannot make it thrash.
+   *
+   * @param minCapacity   the smallest capacity to allocate or shrink to
+   * @return the elastic policy
+   */
+  static CapacityPolicy elastic(int minCapacity) {
+    return new CapacityPolicy() {
+      public int grow(int current, int needed) {
+        return Math.max(Math.max(minCapacity, 2 * current), needed);
+      }
+      public int shrink(int current, int size) {
+        if (current / 2 < minCapacity || size > current / 4)
+          return current;
+        return current / 2;
+      }
+    };
+  }
+}
@@ -0,0 +1,502 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a positional list stored as a doubly linked list in
+ * parallel arrays. Slot s of the arrays holds an element, the slots of its
+ * predecessor and successor, and a generation number. Slot 0 is a sentinel
+ * that plays the roles of both header and trailer, so the links are circular.
+ * Unused slots form a free list through their next links, and the arrays only
+ * grow when that list is empty, so an insertion allocates nothing once the
+ * arrays are large enough. Each element thus costs 16 bytes (with compressed
+ * references), instead of a 24-byte node of {@link LinkedPositionalList}.
+ *
+ * <p>A handle names a slot together with the generation the slot had when the
+ * element was inserted. Removing an element advances the generation of its
+ * slot, so a stale handle no longer matches even after the slot is reused.
+ * Handles are available in two forms: as a long, through the methods taking
+ * and returning long, which allocate nothing; and as a Position, which wraps
+ * the long in a small object that is created on demand and compared by value.
+ */
+public class CompactPositionalList<E> implements PositionalList<E> {
+  //---------------- nested Handle class ----------------
+  /** A Position naming a slot and its generation. */
+  private final class Handle implements Position<E> {
+    private final long handle;         // generation in the high half, slot in the low half
+
+    Handle(long handle) { this.handle = handle; }
+
+    /**
+     * Returns the element stored at this position.
+     * @return the stored element
+     * @throws IllegalStateException if the element has been removed
+     */
+    public E getElement() throws IllegalStateException {
+      if (!isValid(handle))
+        throw new IllegalStateException("Position no longer valid");
+      return element(slot(handle));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CompactPositionalList<?>.Handle h && h.handle == handle && h.list() == list();
+    }
+
+    @Override
+    public int hashCode() { return Long.hashCode(handle); }
+
+    /** Returns the list owning this handle. */
+    private CompactPositionalList<E> list() { return CompactPositionalList.this; }
+  } //----------- end of nested Handle class -----------
+
+  // instance variables of the CompactPositionalList
+  /** Default initial capacity. */
+  public static final int CAPACITY = 16;        // default array capacity
+
+  /** Slot of the sentinel. */
+  private static final int SENTINEL = 0;
+
+  /** Marks the prev link of a free slot. */
+  private static final int FREE = -1;
+
+  /** Elements stored in each slot. */
+  private Object[] elements;
+
+  /** Slot of the predecessor of each slot, or FREE for unused slots. */
+  private int[] prev;
+
+  /** Slot of the successor of each slot, or of the next free slot. */
+  private int[] next;
+
+  /** Generation of each slot, advanced whenever its element is removed. */
+  private int[] generation;
+
+  /** First slot of the free list (0 if it is empty) */
+  private int free = 0;
+
+  /** Number of elements in the list */
+  private int size = 0;                         // number of elements in the list
+
+  /** Constructs a new empty list with the default initial capacity. */
+  public CompactPositionalList() { this(CAPACITY); }
+
+  /**
+   * Constructs a new empty list with room for the given number of elements.
+   * @param capacity   the initial capacity
+   */
+  public CompactPositionalList(int capacity) {
+    elements = new Object[capacity + 1];
+    prev = new int[capacity + 1];
+    next = new int[capacity + 1];
+    generation = new int[capacity + 1];
+    prev[SENTINEL] = next[SENTINEL] = SENTINEL;
+    release(1, capacity + 1);
+  }
+
+  // handle encoding
+  /** Returns the slot named by a handle. */
+  private static int slot(long handle) { return (int) handle; }
+
+  /** Returns the handle of the element in slot s. */
+  private long handle(int s) { return ((long) generation[s] << 32) | s; }
+
+  /** Tests whether a handle names an element currently in the list. */
+  private boolean isValid(long handle) {
+    int s = slot(handle);
+    return s > SENTINEL && s < prev.length && prev[s] != FREE
+        && generation[s] == (int) (handle >>> 32);
+  }
+
+  /** Returns the element in slot s. */
+  @SuppressWarnings({"unchecked"})
+  private E element(int s) { return (E) elements[s]; }
+
+  // private utilities
+  /**
+   * Verifies that a handle names an element currently in the list.
+   *
+   * @param handle   a handle (that should belong to this list)
+   * @return the slot of the element
+   * @throws IllegalArgumentException if the handle is stale or invalid
+   */
+  private int validate(long handle) throws IllegalArgumentException {
+    if (!isValid(handle))
+      throw new IllegalArgumentException("p is no longer in the list");
+    return slot(handle);
+  }
+
+  /**
+   * Verifies that a Position is a handle of this list, naming an element
+   * currently in the list.
+   *
+   * @param p   a Position (that should belong to this list)
+   * @return the slot of the element
+   * @throws IllegalArgumentException if an invalid position is detected
+   */
+  private int validate(Position<E> p) throws IllegalArgumentException {
+    if (!(p instanceof CompactPositionalList<?>.Handle h) || h.list() != this)
+      throw new IllegalArgumentException("Invalid p");
+    return validate(h.handle);
+  }
+
+  /**
+   * Returns a Position for slot s, unless it is the sentinel, in which case
+   * null is returned (so as not to expose the sentinel to the user).
+   */
+  private Position<E> position(int s) {
+    return (s == SENTINEL) ? null : new Handle(handle(s));
+  }
+
+  /** Adds slots [from, to) to the free list. */
+  private void release(int from, int to) {
+    for (int s = to - 1; s >= from; s--) {
+      prev[s] = FREE;
+      next[s] = free;
+      free = s;
+    }
+  }
+
+  /** Links element e into a free slot between slots pred and succ, and returns the slot. */
+  private int link(E e, int pred, int succ) {
+    if (free == 0) {                           // no free slot, so double the arrays
+      int n = prev.length;
+      elements = Arrays.copyOf(elements, 2 * n);
+      prev = Arrays.copyOf(prev, 2 * n);
+      next = Arrays.copyOf(next, 2 * n);
+      generation = Arrays.copyOf(generation, 2 * n);
+      release(n, 2 * n);
+    }
+    int s = free;
+    free = next[s];
+    elements[s] = e;
+    prev[s] = pred;
+    next[s] = succ;
+    next[pred] = s;
+    prev[succ] = s;
+    size++;
+    return s;
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns the first Position in the list.
+   *
+   * @return the first Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> first() { return position(next[SENTINEL]); }
+
+  /**
+   * Returns the last Position in the list.
+   *
+   * @return the last Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> last() { return position(prev[SENTINEL]); }
+
+  /**
+   * Returns the Position immediately before Position p.
+   * @param p   a Position of the list
+   * @return the Position of the preceding element (or null, if p is first)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> before(Position<E> p) throws IllegalArgumentException {
+    return position(prev[validate(p)]);
+  }
+
+  /**
+   * Returns the Position immediately after Position p.
+   * @param p   a Position of the list
+   * @return the Position of the following element (or null, if p is last)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> after(Position<E> p) throws IllegalArgumentException {
+    return position(next[validate(p)]);
+  }
+
+  /**
+   * Returns the index of the given position. Positions are compared by value,
+   * so this walks the links rather than comparing references.
+   * @param p   a Position of the list
+   * @return the index of p (or -1, if p is null)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public int indexOf(Position<E> p) throws IllegalArgumentException {
+    if (p == null) return -1;
+    int target = validate(p);
+    int index = 0;
+    for (int s = next[SENTINEL]; s != target; s = next[s])
+      index++;
+    return index;
+  }
+
+  // public update methods
+  /**
+   * Inserts an element at the front of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addFirst(E e) { return position(link(e, SENTINEL, next[SENTINEL])); }
+
+  /**
+   * Inserts an element at the back of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addLast(E e) { return position(link(e, prev[SENTINEL], SENTINEL)); }
+
+  /**
+   * Inserts an element immediately before the given Position.
+   *
+   * @param p the Position before which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+    int s = validate(p);
+    return position(link(e, prev[s], s));
+  }
+
+  /**
+   * Inserts an element immediately after the given Position.
+   *
+   * @param p the Position after which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+    int s = validate(p);
+    return position(link(e, s, next[s]));
+  }
+
+  /**
+   * Replaces the element stored at the given Position and returns the replaced element.
+   *
+   * @param p the Position of the element to be replaced
+   * @param e the new element
+   * @return the replaced element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E set(Position<E> p, E e) throws IllegalArgumentException {
+    int s = validate(p);
+    E answer = element(s);
+    elements[s] = e;
+    return answer;
+  }
+
+  /**
+   * Removes the element stored at the given Position and returns it.
+   * The given position is invalidated as a result.
+   *
+   * @param p the Position of the element to be removed
+   * @return the removed element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E remove(Position<E> p) throws IllegalArgumentException {
+    return remove(handle(validate(p)));
+  }
+
+  // allocation-free handles
+  /**
+   * Inserts an element at the front of the list.
+   * @param e the new element
+   * @return the handle of the new element
+   */
+  public long addFirstHandle(E e) { return handle(link(e, SENTINEL, next[SENTINEL])); }
+
+  /**
+   * Inserts an element at the back of the list.
+   * @param e the new element
+   * @return the handle of the new element
+   */
+  public long addLastHandle(E e) { return handle(link(e, prev[SENTINEL], SENTINEL)); }
+
+  /**
+   * Inserts an element immediately before the element with the given handle.
+   * @param h the handle before which the insertion takes place
+   * @param e the new element
+   * @return the handle of the new element
+   * @throws IllegalArgumentException if h is not a valid handle for this list
+   */
+  public long addBefore(long h, E e) throws IllegalArgumentException {
+    int s = validate(h);
+    return handle(link(e, prev[s], s));
+  }
+
+  /**
+   * Inserts an element immediately after the element with the given handle.
+   * @param h the handle after which the insertion takes place
+   * @param e the new element
+   * @return the handle of the new element
+   * @throws IllegalArgumentException if h is not a valid handle for this list
+   */
+  public long addAfter(long h, E e) throws IllegalArgumentException {
+    int s = validate(h);
+    return handle(link(e, s, next[s]));
+  }
+
+  /**
+   * Returns the element with the given handle.
+   * @param h a handle of the list
+   * @return the stored element
+   * @throws IllegalArgumentException if h is not a valid handle for this list
+   */
+  public E getElement(long h) throws IllegalArgumentException {
+    return element(validate(h));
+  }
+
+  /**
+   * Removes the element with the given handle and returns it. The handle, and
+   * any Position wrapping it, is invalidated as a result.
+   * @param h a handle of the list
+   * @return the removed element
+   * @throws IllegalArgumentException if h is not a valid handle for this list
+   */
+  public E remove(long h) throws IllegalArgumentException {
+    int s = validate(h);
+    next[prev[s]] = next[s];
+    prev[next[s]] = prev[s];
+    size--;
+    E answer = element(s);
+    elements[s] = null;              // help with garbage collection
+    generation[s]++;                 // invalidate every handle of this slot
+    prev[s] = FREE;
+    next[s] = free;
+    free = s;
+    return answer;
+  }
+
+  /**
+   * Returns the handle wrapped by the given Position.
+   * @param p a Position of the list
+   * @return the handle of p
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  public long handleOf(Position<E> p) throws IllegalArgumentException {
+    return handle(validate(p));
+  }
+
+  /**
+   * Returns a Position wrapping the given handle.
+   * @param h a handle of the list
+   * @return the Position of h
+   * @throws IllegalArgumentException if h is not a valid handle for this list
+   */
+  public Position<E> positionOf(long h) throws IllegalArgumentException {
+    return new Handle(handle(validate(h)));
+  }
+
+  // support for iterating either positions and elements
+  //---------------- nested SlotIterator class ----------------
+  /**
+   * A (nonstatic) inner class walking the slots in list order. It reports
+   * either the elements or their positions.
+   */
+  private abstract class SlotIterator {
+    private int cursor = next[SENTINEL]; // slot of the next element to report
+    private long recent = -1;            // handle of last reported element, or -1
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return cursor != SENTINEL; }
+
+    /** Advances to the next slot, and returns the slot it leaves. */
+    int advance() throws NoSuchElementException {
+      if (cursor == SENTINEL) throw new NoSuchElementException("nothing left");
+      int s = cursor;
+      recent = handle(s);
+      cursor = next[s];
+      return s;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (recent == -1) throw new IllegalStateException("nothing to remove");
+      CompactPositionalList.this.remove(recent);   // remove from outer list
+      recent = -1;                 // do not allow remove again until next is called
+    }
+  } //------------ end of nested SlotIterator class ------------
+
+  /** Iterator reporting positions. */
+  private class PositionIterator extends SlotIterator implements Iterator<Position<E>> {
+    public Position<E> next() { return position(advance()); }
+  }
+
+  /** Iterator reporting elements. */
+  private class ElementIterator extends SlotIterator implements Iterator<E> {
+    public E next() { return element(advance()); }
+  }
+
+  //---------------- nested PositionIterable class ----------------
+  private class PositionIterable implements Iterable<Position<E>> {
+    public Iterator<Position<E>> iterator() { return new PositionIterator(); }
+  } //------------ end of nested PositionIterable class ------------
+
+  /**
+   * Returns an iterable representation of the list's positions.
+   * @return iterable representation of the list's positions
+   */
+  @Override
+  public Iterable<Position<E>> positions() {
+    return new PositionIterable();       // create a new instance of the inner class
+  }
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() { return new ElementIterator(); }
+
+  // Debugging code
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int s = next[SENTINEL]; s != SENTINEL; s = next[s]) {
+      sb.append(elements[s]);
+      if (next[s] != SENTINEL)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
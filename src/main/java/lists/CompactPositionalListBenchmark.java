@@ -0,0 +1,73 @@
+package lists;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the memory cost of {@link LinkedPositionalList} and
+ * {@link CompactPositionalList}: the heap retained per element by a list
+ * built by appends, and the bytes allocated per operation when the list is
+ * churned by removing its first element and appending a new one. The compact
+ * list is churned through its allocation-free long handles.
+ */
+public class CompactPositionalListBenchmark {
+
+  /** Number of elements in the list. */
+  static final int SIZE = 1_000_000;
+
+  /** Number of remove and add pairs performed by the churn. */
+  static final int OPERATIONS = 1_000_000;
+
+  /** Element added by every insertion, so that no element is allocated. */
+  static final Integer ELEMENT = 254;
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread.
+   * @return the allocated bytes
+   */
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Returns the heap in use after a full collection.
+   * @return the used heap, in bytes
+   */
+  static long usedHeap() {
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  public static void main(String[] args) {
+    long base = usedHeap();
+    LinkedPositionalList<Integer> linked = new LinkedPositionalList<>();
+    for (int k = 0; k < SIZE; k++)
+      linked.addLast(ELEMENT);
+    double linkedRetained = (usedHeap() - base) / (double) SIZE;
+    long bytes = allocatedBytes();
+    for (int k = 0; k < OPERATIONS; k++) {
+      linked.remove(linked.first());
+      linked.addLast(ELEMENT);
+    }
+    double linkedChurn = (allocatedBytes() - bytes) / (double) OPERATIONS;
+    linked = null;
+
+    base = usedHeap();
+    CompactPositionalList<Integer> compact = new CompactPositionalList<>(SIZE);
+    long[] handles = new long[SIZE];
+    for (int k = 0; k < SIZE; k++)
+      handles[k] = compact.addLastHandle(ELEMENT);
+    double compactRetained = (usedHeap() - base - 16.0 - 8L * SIZE) / SIZE;   // without the handle array
+    bytes = allocatedBytes();
+    for (int k = 0; k < OPERATIONS; k++) {
+      compact.remove(handles[k % SIZE]);
+      handles[k % SIZE] = compact.addLastHandle(ELEMENT);
+    }
+    double compactChurn = (allocatedBytes() - bytes) / (double) OPERATIONS;
+
+    System.out.printf("%,d elements, %,d remove and add pairs%n%n", SIZE, OPERATIONS);
+    System.out.printf("%-24s %20s %20s%n", "", "Retained(bytes/elem)", "Churn(bytes/op)");
+    System.out.printf("%-24s %20.1f %20.1f%n", "LinkedPositionalList", linkedRetained, linkedChurn);
+    System.out.printf("%-24s %20.1f %20.1f%n", "CompactPositionalList", compactRetained, compactChurn);
+  }
+}
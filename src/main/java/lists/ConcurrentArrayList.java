@@ -0,0 +1,336 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Realization of a list by means of a dynamic array that may be shared among
+ * many threads, tuned for workloads in which reads vastly outnumber writes.
+ *
+ * <p>Updates take the write lock of a {@link StampedLock}. Reads first take an
+ * optimistic stamp, read the array and the size without any locking, and then
+ * validate the stamp. A read therefore never blocks and never writes to shared
+ * memory unless it overlaps a write, in which case it is retried under the read
+ * lock. Because the array and the size are always read together under one
+ * stamp, a read that overlaps a resize either sees the old array or the new one,
+ * and is only accepted if no write intervened.
+ *
+ * <p>Iterators are weakly consistent: each call to next reads the element at the
+ * following index of the list as it is at that moment, and never throws
+ * ConcurrentModificationException.
+ */
+public class ConcurrentArrayList<E> implements List<E> {
+  // instance variables
+  /** Default array capacity. */
+  public static final int CAPACITY = 16;   // default array capacity
+
+  /** Marks the end of the list in the reads of an iterator. */
+  private static final Object END = new Object();
+
+  /** Lock guarding the array and the size. */
+  private final StampedLock lock = new StampedLock();
+
+  /** Generic array used for storage of list elements. */
+  private Object[] data;                   // replaced, never shrunk in place, by resize
+
+  /** Current number of elements in the list. */
+  private int size = 0;                    // current number of elements
+
+  // constructors
+  /** Creates an array list with default initial capacity. */
+  public ConcurrentArrayList() { this(CAPACITY); }
+
+  /** Creates an array list with given initial capacity. */
+  public ConcurrentArrayList(int capacity) {
+    data = new Object[capacity];
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  public int size() {
+    long stamp = lock.tryOptimisticRead();
+    int n = size;
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        n = size;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @SuppressWarnings({"unchecked"})
+  public E get(int i) throws IndexOutOfBoundsException {
+    long stamp = lock.tryOptimisticRead();
+    Object[] a = data;
+    int n = size;
+    Object e = (i >= 0 && i < n && i < a.length) ? a[i] : null;   // guard against a torn read
+    if (!lock.validate(stamp)) {               // a write intervened, so read again
+      stamp = lock.readLock();
+      try {
+        n = size;
+        e = (i >= 0 && i < n) ? data[i] : null;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    checkIndex(i, n);
+    return (E) e;
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @SuppressWarnings({"unchecked"})
+  public E set(int i, E e) throws IndexOutOfBoundsException {
+    long stamp = lock.writeLock();
+    try {
+      checkIndex(i, size);
+      E temp = (E) data[i];
+      data[i] = e;
+      return temp;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list, shifting all
+   * subsequent elements in the list one position further to make room.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  public void add(int i, E e) throws IndexOutOfBoundsException {
+    long stamp = lock.writeLock();
+    try {
+      checkIndex(i, size + 1);
+      if (size == data.length)                 // not enough capacity
+        resize(Math.max(1, 2 * data.length));  // so double the current capacity
+      System.arraycopy(data, i, data, i+1, size-i);
+      data[i] = e;
+      size++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes and returns the element at the given index, shifting all subsequent
+   * elements in the list one position closer to the front.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @SuppressWarnings({"unchecked"})
+  public E remove(int i) throws IndexOutOfBoundsException {
+    long stamp = lock.writeLock();
+    try {
+      checkIndex(i, size);
+      E temp = (E) data[i];
+      System.arraycopy(data, i+1, data, i, size-i-1);
+      data[--size] = null;                     // help garbage collection
+      return temp;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Returns the index of the first element equal to o (possibly null).
+   * The array is scanned optimistically, and scanned again under the read lock
+   * only if a write intervened.
+   * @param  o   the element to search for
+   * @return the smallest index of an element equal to o, or -1 if there is none
+   */
+  public int indexOf(Object o) {
+    long stamp = lock.tryOptimisticRead();
+    int k = scan(data, size, o);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        k = scan(data, size, o);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return k;
+  }
+
+  /**
+   * Tests whether the list contains an element equal to o (possibly null).
+   * @param  o   the element to search for
+   * @return true if some element is equal to o, false otherwise
+   */
+  public boolean contains(Object o) { return indexOf(o) >= 0; }
+
+  /**
+   * Returns an array holding the elements of the list at a single moment.
+   * @return a snapshot of the list's elements
+   */
+  public Object[] toArray() {
+    long stamp = lock.tryOptimisticRead();
+    Object[] a = data;
+    int n = Math.min(size, a.length);
+    Object[] snapshot = new Object[n];
+    System.arraycopy(a, 0, snapshot, 0, n);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        snapshot = new Object[size];
+        System.arraycopy(data, 0, snapshot, 0, size);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Performs the given action on each element of a snapshot of the list, so
+   * that the action never runs while the lock is held.
+   * @param  action   the action to be performed
+   */
+  @SuppressWarnings({"unchecked"})
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    for (Object e : toArray())
+      action.accept((E) e);
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Resizes internal array to have given capacity &gt;= size; the write lock must be held. */
+  private void resize(int capacity) {
+    Object[] temp = new Object[capacity];
+    System.arraycopy(data, 0, temp, 0, size);
+    data = temp;                               // published by the write unlock
+  }
+
+  /** Returns the smallest index k &lt; n with a[k] equal to o, or -1. */
+  private static int scan(Object[] a, int n, Object o) {
+    n = Math.min(n, a.length);                 // guard against a torn read
+    for (int k = 0; k < n; k++)
+      if (Objects.equals(a[k], o))
+        return k;
+    return -1;
+  }
+
+  /**
+   * Returns the element at index i, or the given sentinel if i is not a valid
+   * index at the moment of the read.
+   */
+  private Object elementOrElse(int i, Object sentinel) {
+    long stamp = lock.tryOptimisticRead();
+    Object[] a = data;
+    int n = size;
+    Object e = (i < n && i < a.length) ? a[i] : sentinel;
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        e = (i < size) ? data[i] : sentinel;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return e;
+  }
+
+  //---------------- nested ArrayIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance contains an implicit
+   * reference to the containing list, allowing it to access the list's members.
+   */
+  private class ArrayIterator implements Iterator<E> {
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size(); }
+
+    /**
+     * Returns the next object in the iterator.
+     *
+     * @return next object
+     * @throws NoSuchElementException if there are no further elements
+     */
+    @SuppressWarnings({"unchecked"})
+    public E next() throws NoSuchElementException {
+      Object e = elementOrElse(j, END);
+      if (e == END) throw new NoSuchElementException("No next element");
+      j++;
+      removable = true;   // this element can subsequently be removed
+      return (E) e;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      ConcurrentArrayList.this.remove(j-1);   // that was the last one returned
+      j--;                                    // next element has shifted one cell to the left
+      removable = false;                      // do not allow remove again until next is called
+    }
+  } //------------ end of nested ArrayIterator class ------------
+
+  /**
+   * Returns a weakly consistent iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new ArrayIterator();     // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of a snapshot of the list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the list
+   */
+  public String toString() {
+    Object[] snapshot = toArray();
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < snapshot.length; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(snapshot[j]);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,95 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the read throughput of {@link ConcurrentArrayList} with that of an
+ * {@link ArrayList} behind a synchronized wrapper. Several reader threads call
+ * get at random indices while one writer occasionally replaces an element or
+ * appends and removes one, forcing the occasional resize.
+ */
+public class ConcurrentArrayListBenchmark {
+
+  /** Number of elements in the list. */
+  static final int SIZE = 100_000;
+
+  /** Duration of each measurement, in milliseconds. */
+  static final int MILLIS = 1_000;
+
+  /** Pause of the writer between two updates, in microseconds. */
+  static final int WRITER_PAUSE = 50;
+
+  /**
+   * A list that serializes every call on its own monitor, as external
+   * synchronization of an {@link ArrayList} would.
+   */
+  static class SynchronizedList<E> implements List<E> {
+    private final ArrayList<E> list = new ArrayList<>();
+    public synchronized int size() { return list.size(); }
+    public synchronized boolean isEmpty() { return list.isEmpty(); }
+    public synchronized E get(int i) { return list.get(i); }
+    public synchronized E set(int i, E e) { return list.set(i, e); }
+    public synchronized void add(int i, E e) { list.add(i, e); }
+    public synchronized E remove(int i) { return list.remove(i); }
+    public Iterator<E> iterator() { return list.iterator(); }   // not used by the benchmark
+  }
+
+  /**
+   * Runs the readers and the writer against the list for MILLIS milliseconds.
+   *
+   * @param list      the list, already holding SIZE elements
+   * @param readers   number of reader threads
+   * @return the number of reads per millisecond, summed over all readers
+   */
+  static long measure(List<Integer> list, int readers) throws InterruptedException {
+    LongAdder reads = new LongAdder();
+    long deadline = System.nanoTime() + MILLIS * 1_000_000L;
+    Thread[] threads = new Thread[readers + 1];
+    for (int t = 0; t < readers; t++) {
+      threads[t] = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0, sum = 0;
+        while (System.nanoTime() < deadline) {
+          for (int k = 0; k < 1_000; k++)
+            sum += list.get(random.nextInt(SIZE));
+          count += 1_000;
+        }
+        reads.add(count + (sum == 42 ? 1 : 0));   // keep sum alive
+      });
+    }
+    threads[readers] = new Thread(() -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (System.nanoTime() < deadline) {
+        if (random.nextBoolean()) {
+          list.set(random.nextInt(SIZE), random.nextInt());
+        } else {
+          list.add(list.size(), 0);
+          list.remove(list.size() - 1);
+        }
+        long pause = System.nanoTime() + WRITER_PAUSE * 1_000L;
+        while (System.nanoTime() < pause)
+          Thread.onSpinWait();
+      }
+    });
+    for (Thread thread : threads) thread.start();
+    for (Thread thread : threads) thread.join();
+    return reads.sum() / MILLIS;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d elements, one writer, %d cores%n%n", SIZE, cores);
+    System.out.printf("%8s %24s %24s%n", "Readers", "synchronized(reads/ms)", "optimistic(reads/ms)");
+    for (int readers = 1; readers <= Math.max(4, 2 * cores); readers *= 2) {
+      List<Integer> locked = new SynchronizedList<>();
+      List<Integer> optimistic = new ConcurrentArrayList<>();
+      for (int k = 0; k < SIZE; k++) {
+        locked.add(k, k);
+        optimistic.add(k, k);
+      }
+      System.out.printf("%8d %,24d %,24d%n", readers, measure(locked, readers), measure(optimistic, readers));
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package lists;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts accesses to elements from many threads at once, and reports the most
+ * frequently accessed ones. Elements are hashed to a fixed number of shards,
+ * each of which maps its elements to LongAdder counters. An access only looks
+ * up and increments a counter, without any lock, so accesses to different
+ * elements proceed in parallel, and even accesses to the same element rarely
+ * contend.
+ *
+ * <p>Each shard caches its own top k, ordered by decreasing count, together
+ * with the time at which it was computed. The top k of the whole list is a
+ * k-way merge of the cached top k of the shards. A shard recomputes its cache,
+ * by one scan of its counters with a bounded min-heap, only when the cache is
+ * older than the staleness bound or was computed for a smaller k than the one
+ * asked for; a shard holding fewer than k elements is not rescanned just for
+ * that. A result of getFavorites thus reflects the counts of every shard as
+ * they were no more than the staleness bound earlier. Counters keep changing
+ * while a shard is scanned, so the counts of one shard are not read at a
+ * single instant, and elements with equal counts are reported in no particular
+ * order. A staleness bound of 0 recomputes every shard on every call.
+ *
+ * <p>Elements must not be null.
+ */
+public class ConcurrentFavoritesList<E> {
+  /** Default staleness bound, in nanoseconds. */
+  public static final long STALENESS = 1_000_000_000L;   // one second
+
+  //---------------- nested Snapshot class ----------------
+  /** The top elements of a shard, by decreasing count, as of a given time. */
+  private static class Snapshot {
+    final long time;                   // System.nanoTime() when the scan began
+    final int k;                       // number of elements asked for
+    final Object[] elements;           // at most k elements, by decreasing count
+    final long[] counts;               // count of each element
+
+    Snapshot(long time, int k, Object[] elements, long[] counts) {
+      this.time = time;
+      this.k = k;
+      this.elements = elements;
+      this.counts = counts;
+    }
+  } //----------- end of nested Snapshot class -----------
+
+  //---------------- nested Shard class ----------------
+  /** The counters of the elements hashed to one shard, and its cached top k. */
+  private static class Shard<E> {
+    final Map<E, LongAdder> counters = new ConcurrentHashMap<>();
+    volatile Snapshot snapshot = null; // most recently computed top k
+
+    /** Returns the top k of the shard, rescanning if the cache is too old or was for a smaller k. */
+    Snapshot top(int k, long staleness) {
+      Snapshot s = snapshot;
+      long now = System.nanoTime();
+      if (s != null && s.k >= k && now - s.time <= staleness)
+        return s;
+      s = scan(k, now);
+      snapshot = s;                    // concurrent scans are harmless; the last one wins
+      return s;
+    }
+
+    /** Computes the top k of the shard with a min-heap of the best k counters seen. */
+    private Snapshot scan(int k, long now) {
+      Object[] heap = new Object[k];
+      long[] counts = new long[k];
+      int n = 0;
+      for (Map.Entry<E, LongAdder> entry : counters.entrySet()) {
+        long c = entry.getValue().sum();
+        if (n < k) {
+          int j = n++;                 // sift the new entry up
+          while (j > 0 && counts[(j - 1) / 2] > c) {
+            heap[j] = heap[(j - 1) / 2];
+            counts[j] = counts[(j - 1) / 2];
+            j = (j - 1) / 2;
+          }
+          heap[j] = entry.getKey();
+          counts[j] = c;
+        } else if (k > 0 && c > counts[0]) {
+          siftDown(heap, counts, entry.getKey(), c, n);   // replace the smallest of the best k
+        }
+      }
+      for (int m = n - 1; m > 0; m--) {                   // heapsort into decreasing order
+        Object e = heap[m];
+        long c = counts[m];
+        heap[m] = heap[0];
+        counts[m] = counts[0];
+        siftDown(heap, counts, e, c, m);
+      }
+      return new Snapshot(now, k, (n == k) ? heap : java.util.Arrays.copyOf(heap, n),
+                          (n == k) ? counts : java.util.Arrays.copyOf(counts, n));
+    }
+
+    /** Places element e with count c at the root of a min-heap of n entries, and sifts it down. */
+    private static void siftDown(Object[] heap, long[] counts, Object e, long c, int n) {
+      int j = 0;
+      while (2 * j + 1 < n) {
+        int child = 2 * j + 1;
+        if (child + 1 < n && counts[child + 1] < counts[child])
+          child++;
+        if (counts[child] >= c)
+          break;
+        heap[j] = heap[child];
+        counts[j] = counts[child];
+        j = child;
+      }
+      heap[j] = e;
+      counts[j] = c;
+    }
+  } //----------- end of nested Shard class -----------
+
+  // instance variables
+  /** The shards, whose number is a power of two. */
+  private final Shard<E>[] shards;
+
+  /** Largest age, in nanoseconds, of a cached top k that may be reported. */
+  private final long staleness;
+
+  /**
+   * Constructs an initially empty list with four shards per available
+   * processor, and the default staleness bound.
+   */
+  public ConcurrentFavoritesList() {
+    this(4 * Runtime.getRuntime().availableProcessors(), STALENESS);
+  }
+
+  /**
+   * Constructs an initially empty list.
+   *
+   * @param shards      the least number of shards, which is rounded up to a power of two
+   * @param staleness   the largest age, in nanoseconds, of the counts reported by getFavorites
+   * @throws IllegalArgumentException if shards is not positive or staleness is negative
+   */
+  @SuppressWarnings({"unchecked"})
+  public ConcurrentFavoritesList(int shards, long staleness) throws IllegalArgumentException {
+    if (shards <= 0 || shards > 1 << 16) throw new IllegalArgumentException("Illegal shards: " + shards);
+    if (staleness < 0) throw new IllegalArgumentException("Illegal staleness: " + staleness);
+    int n = Integer.highestOneBit(shards);
+    if (n < shards) n *= 2;            // round up to a power of two
+    this.shards = (Shard<E>[]) new Shard<?>[n];
+    for (int j = 0; j < n; j++)
+      this.shards[j] = new Shard<>();
+    this.staleness = staleness;
+  }
+
+  // nonpublic utilities
+  /** Returns the shard of element e. */
+  private Shard<E> shard(E e) {
+    int h = e.hashCode() * 0x9E3779B9;             // Fibonacci hashing
+    return shards[(h ^ (h >>> 16)) & (shards.length - 1)];
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list, which is exact only when no
+   * element is being added or removed.
+   * @return the number of elements
+   */
+  public int size() {
+    int n = 0;
+    for (Shard<E> s : shards)
+      n += s.counters.size();
+    return n;
+  }
+
+  /**
+   * Returns true if the list is empty.
+   * @return true if there are no elements
+   */
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Accesses element e, thereby increasing its access count.
+   * If e is new, its count will be 1 after this operation.
+   * @param e   the accessed element
+   */
+  public void access(E e) {
+    shard(e).counters.computeIfAbsent(e, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Removes element e from the list of favorites (if found). It may still be
+   * reported by getFavorites until the cache of its shard is recomputed.
+   * @param e   the element to be removed
+   */
+  public void remove(E e) {
+    shard(e).counters.remove(e);
+  }
+
+  /**
+   * Returns the number of accesses of element e (0 if it is not in the list).
+   * @param e   the element
+   * @return the current access count
+   */
+  public long countOf(E e) {
+    LongAdder counter = shard(e).counters.get(e);
+    return (counter == null) ? 0 : counter.sum();
+  }
+
+  /**
+   * Returns an iterable collection of the k most frequently accessed elements,
+   * by decreasing count, as of at most the staleness bound earlier. Fewer than
+   * k elements are reported if the list holds fewer.
+   *
+   * @param k   the number of elements to report
+   * @return the most frequently accessed elements
+   * @throws IllegalArgumentException if k is negative
+   */
+  @SuppressWarnings({"unchecked"})
+  public Iterable<E> getFavorites(int k) throws IllegalArgumentException {
+    if (k < 0)
+      throw new IllegalArgumentException("Invalid k");
+    Snapshot[] tops = new Snapshot[shards.length];
+    int[] cursor = new int[shards.length];      // next entry of each shard's top k
+    int[] heap = new int[shards.length];        // max-heap of shards by next count
+    int n = 0;
+    for (int j = 0; j < shards.length; j++) {
+      tops[j] = shards[j].top(k, staleness);
+      if (tops[j].elements.length > 0)
+        heap[n++] = j;
+    }
+    for (int j = n / 2 - 1; j >= 0; j--)
+      siftDown(heap, n, j, tops, cursor);
+    PositionalList<E> result = new LinkedPositionalList<>();
+    while (result.size() < k && n > 0) {        // k-way merge of the shards' top k
+      int s = heap[0];
+      result.addLast((E) tops[s].elements[cursor[s]++]);
+      if (cursor[s] == tops[s].elements.length || cursor[s] == k)
+        heap[0] = heap[--n];                    // that shard has nothing more to offer
+      siftDown(heap, n, 0, tops, cursor);
+    }
+    return result;
+  }
+
+  /** Restores the order of a max-heap of n shards, keyed by their next counts, below index j. */
+  private static void siftDown(int[] heap, int n, int j, Snapshot[] tops, int[] cursor) {
+    int s = heap[j];
+    while (2 * j + 1 < n) {
+      int child = 2 * j + 1;
+      if (child + 1 < n && next(heap[child + 1], tops, cursor) > next(heap[child], tops, cursor))
+        child++;
+      if (next(heap[child], tops, cursor) <= next(s, tops, cursor))
+        break;
+      heap[j] = heap[child];
+      j = child;
+    }
+    heap[j] = s;
+  }
+
+  /** Returns the count of the next element of shard s. */
+  private static long next(int s, Snapshot[] tops, int[] cursor) {
+    return tops[s].counts[cursor[s]];
+  }
+}
@@ -0,0 +1,73 @@
+package lists;
+
+/**
+ * Measures the access throughput of {@link ConcurrentFavoritesList} against a
+ * {@link FavoritesList} guarded by a single lock, with an increasing number of
+ * threads. Every thread accesses the same Zipf-distributed keys as
+ * {@link FavoritesListBenchmark}, starting at a different offset, and one of
+ * them asks for the top 50 every 1,000 accesses.
+ */
+public class ConcurrentFavoritesListBenchmark {
+
+  /** Number of accesses performed by each thread. */
+  static final int ACCESSES = FavoritesListBenchmark.ACCESSES;
+
+  /** Number of favorites asked for by the polling thread. */
+  static final int TOP = 50;
+
+  //---------------- nested SynchronizedFavoritesList class ----------------
+  /** A favorites list whose benchmarked methods hold the lock of the list. */
+  static class SynchronizedFavoritesList<E> extends FavoritesList<E> {
+    public synchronized void access(E e) { super.access(e); }
+    public synchronized Iterable<E> getFavorites(int k) { return super.getFavorites(Math.min(k, size())); }
+  } //----------- end of nested SynchronizedFavoritesList class -----------
+
+  /**
+   * Runs the given number of threads, each accessing the keys through the
+   * given methods, and returns the throughput in thousands of accesses per
+   * second.
+   *
+   * @param access      the access method of a fresh list
+   * @param favorites   the getFavorites method of the same list
+   * @param keys        the keys to access
+   * @param threads     the number of threads
+   * @return the throughput
+   */
+  static double run(java.util.function.Consumer<Integer> access,
+                    java.util.function.IntFunction<Iterable<Integer>> favorites,
+                    Integer[] keys, int threads) throws InterruptedException {
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      int offset = t * (keys.length / threads);
+      boolean polling = (t == 0);
+      workers[t] = new Thread(() -> {
+        for (int k = 0; k < ACCESSES; k++) {
+          access.accept(keys[(offset + k) % keys.length]);
+          if (polling && k % 1000 == 999)
+            favorites.apply(TOP);
+        }
+      });
+    }
+    long start = System.nanoTime();
+    for (Thread worker : workers)
+      worker.start();
+    for (Thread worker : workers)
+      worker.join();
+    return (double) threads * ACCESSES / ((System.nanoTime() - start) / 1e6);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int cores = Runtime.getRuntime().availableProcessors();
+    Integer[] keys = FavoritesListBenchmark.zipf(ACCESSES);
+    System.out.printf("%,d Zipf accesses per thread, top %d every 1,000, %d available cores%n%n",
+                      ACCESSES, TOP, cores);
+    System.out.printf("%7s %22s %22s%n", "Threads", "Synchronized(k/s)", "Concurrent(k/s)");
+    for (int threads = 1; threads <= Math.max(4, 2 * cores); threads *= 2) {
+      FavoritesList<Integer> locked = new SynchronizedFavoritesList<>();
+      ConcurrentFavoritesList<Integer> concurrent = new ConcurrentFavoritesList<>();
+      double a = run(locked::access, locked::getFavorites, keys, threads);
+      double b = run(concurrent::access, concurrent::getFavorites, keys, threads);
+      System.out.printf("%7d %,22.1f %,22.1f%n", threads, a, b);
+    }
+  }
+}
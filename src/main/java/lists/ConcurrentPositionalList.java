@@ -0,0 +1,431 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of a positional list stored as a doubly linked list that may
+ * be updated by many threads at once. Each update locks only the nodes whose
+ * links it changes: an insertion locks the two nodes it goes between, and a
+ * removal locks the removed node and both of its neighbors. Updates at
+ * positions that are not adjacent therefore proceed in parallel.
+ *
+ * <p>Nodes are always locked in list order, which rules out deadlock, since
+ * no update ever reorders the nodes of the list. A node's next link is only
+ * changed while the node is locked, and likewise its prev link, so holding
+ * the lock of a node fixes its links. When an update reads a neighbor before
+ * locking it, it checks after locking that the two nodes are still adjacent,
+ * and otherwise retries.
+ *
+ * <p>A removed node is marked as such but keeps its links, so that readers
+ * standing on it can still move forward. Navigation and iteration take no
+ * locks and skip removed nodes; they are weakly consistent, reporting each
+ * element that stays in the list throughout the traversal exactly once.
+ */
+public class ConcurrentPositionalList<E> implements PositionalList<E> {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a doubly linked list, which stores a reference to its
+   * element and to both the previous and next node in the list.
+   */
+  private static class Node<E> implements Position<E> {
+    private volatile E element;        // reference to the element stored at this node
+    private volatile Node<E> prev;     // reference to the previous node in the list
+    private volatile Node<E> next;     // reference to the subsequent node in the list
+    private volatile boolean removed;  // set once the node leaves the list
+
+    Node(E e) { element = e; }
+
+    /**
+     * Returns the element stored at the node.
+     * @return the stored element
+     * @throws IllegalStateException if the node has been removed
+     */
+    public E getElement() throws IllegalStateException {
+      E e = element;
+      if (removed)                              // convention for defunct node
+        throw new IllegalStateException("Position no longer valid");
+      return e;
+    }
+  } //----------- end of nested Node class -----------
+
+  // instance variables of the ConcurrentPositionalList
+  /** Sentinel node at the beginning of the list */
+  private final Node<E> header = new Node<>(null);
+
+  /** Sentinel node at the end of the list */
+  private final Node<E> trailer = new Node<>(null);
+
+  /** Number of elements in the list, counted without contention */
+  private final LongAdder size = new LongAdder();
+
+  /** Constructs a new empty list. */
+  public ConcurrentPositionalList() {
+    header.next = trailer;                      // header is followed by trailer
+    trailer.prev = header;                      // trailer is preceded by header
+  }
+
+  // private utilities
+  /**
+   * Verifies that a Position belongs to the appropriate class, and is
+   * not one that has been previously removed. Note that our current
+   * implementation does not actually verify that the position belongs
+   * to this particular list instance.
+   *
+   * @param p   a Position (that should belong to this list)
+   * @return    the underlying Node instance at that position
+   * @throws IllegalArgumentException if an invalid position is detected
+   */
+  private Node<E> validate(Position<E> p) throws IllegalArgumentException {
+    if (!(p instanceof Node)) throw new IllegalArgumentException("Invalid p");
+    Node<E> node = (Node<E>) p;     // safe cast
+    if (node.removed || node == header || node == trailer)
+      throw new IllegalArgumentException("p is no longer in the list");
+    return node;
+  }
+
+  /**
+   * Returns the given node as a Position, unless it is a sentinel, in which case
+   * null is returned (so as not to expose the sentinels to the user).
+   */
+  private Position<E> position(Node<E> node) {
+    if (node == header || node == trailer)
+      return null;   // do not expose user to the sentinels
+    return node;
+  }
+
+  /** Returns the first node from the given one onward that has not been removed. */
+  private Node<E> forward(Node<E> node) {
+    while (node.removed)
+      node = node.next;
+    return node;
+  }
+
+  /** Returns the first node from the given one backward that has not been removed. */
+  private Node<E> backward(Node<E> node) {
+    while (node.removed)
+      node = node.prev;
+    return node;
+  }
+
+  /**
+   * Links a new node between pred and succ, both of which the caller has
+   * locked after checking that they are adjacent.
+   */
+  private Node<E> link(E e, Node<E> pred, Node<E> succ) {
+    Node<E> newest = new Node<>(e);
+    newest.prev = pred;
+    newest.next = succ;
+    succ.prev = newest;
+    pred.next = newest;              // publishes the fully linked node
+    size.increment();
+    return newest;
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the list. The result is exact only when
+   * no update is in progress.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size.intValue(); }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return forward(header.next) == trailer; }
+
+  /**
+   * Returns the first Position in the list.
+   *
+   * @return the first Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> first() {
+    return position(forward(header.next));
+  }
+
+  /**
+   * Returns the last Position in the list.
+   *
+   * @return the last Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> last() {
+    return position(backward(trailer.prev));
+  }
+
+  /**
+   * Returns the Position immediately before Position p.
+   * @param p   a Position of the list
+   * @return the Position of the preceding element (or null, if p is first)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> before(Position<E> p) throws IllegalArgumentException {
+    return position(backward(validate(p).prev));
+  }
+
+  /**
+   * Returns the Position immediately after Position p.
+   * @param p   a Position of the list
+   * @return the Position of the following element (or null, if p is last)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> after(Position<E> p) throws IllegalArgumentException {
+    return position(forward(validate(p).next));
+  }
+
+  // public update methods
+  /**
+   * Inserts an element at the front of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addFirst(E e) {
+    return insertAfter(header, e);
+  }
+
+  /**
+   * Inserts an element at the back of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addLast(E e) {
+    return insertBefore(trailer, e);
+  }
+
+  /**
+   * Inserts an element immediately before the given Position.
+   *
+   * @param p the Position before which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+    return insertBefore(validate(p), e);
+  }
+
+  /**
+   * Inserts an element immediately after the given Position.
+   *
+   * @param p the Position after which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+    return insertAfter(validate(p), e);
+  }
+
+  /** Inserts e after the given node, which may be the header. */
+  private Position<E> insertAfter(Node<E> node, E e) throws IllegalArgumentException {
+    synchronized (node) {
+      if (node.removed) throw new IllegalArgumentException("p is no longer in the list");
+      Node<E> succ = node.next;              // fixed while node is locked
+      synchronized (succ) {
+        return link(e, node, succ);
+      }
+    }
+  }
+
+  /** Inserts e before the given node, which may be the trailer. */
+  private Position<E> insertBefore(Node<E> node, E e) throws IllegalArgumentException {
+    while (true) {
+      Node<E> pred = node.prev;
+      synchronized (pred) {
+        synchronized (node) {
+          if (node.removed) throw new IllegalArgumentException("p is no longer in the list");
+          if (node.prev == pred)             // still adjacent, so pred is not removed
+            return link(e, pred, node);
+        }
+      }                                      // pred changed while waiting, so retry
+    }
+  }
+
+  /**
+   * Replaces the element stored at the given Position and returns the replaced element.
+   *
+   * @param p the Position of the element to be replaced
+   * @param e the new element
+   * @return the replaced element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E set(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    synchronized (node) {
+      if (node.removed) throw new IllegalArgumentException("p is no longer in the list");
+      E answer = node.element;
+      node.element = e;
+      return answer;
+    }
+  }
+
+  /**
+   * Removes the element stored at the given Position and returns it.
+   * The given position is invalidated as a result.
+   *
+   * @param p the Position of the element to be removed
+   * @return the removed element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E remove(Position<E> p) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    while (true) {
+      Node<E> pred = node.prev;
+      synchronized (pred) {
+        synchronized (node) {
+          if (node.removed) throw new IllegalArgumentException("p is no longer in the list");
+          if (node.prev == pred) {           // still adjacent, so pred is not removed
+            Node<E> succ = node.next;        // fixed while node is locked
+            synchronized (succ) {
+              node.removed = true;           // mark before unlinking, for readers
+              pred.next = succ;
+              succ.prev = pred;
+            }
+            size.decrement();
+            E answer = node.element;
+            node.element = null;             // help with garbage collection
+            return answer;
+          }
+        }
+      }                                      // pred changed while waiting, so retry
+    }
+  }
+
+  // support for iterating either positions and elements
+  //---------------- nested PositionIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance
+   * contains an implicit reference to the containing list,
+   * allowing us to call the list's methods directly. The iterator
+   * is weakly consistent and never throws ConcurrentModificationException.
+   */
+  private class PositionIterator implements Iterator<Position<E>> {
+
+    /** The node of the next element to report (or the trailer). */
+    private Node<E> cursor = forward(header.next);
+    /** A Position of the most recent element reported (if any). */
+    private Node<E> recent = null;           // position of last reported element
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() {
+      cursor = forward(cursor);              // skip nodes removed since the last call
+      return cursor != trailer;
+    }
+
+    /**
+     * Returns the next position in the iterator.
+     *
+     * @return next position
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public Position<E> next() throws NoSuchElementException {
+      if (!hasNext()) throw new NoSuchElementException("nothing left");
+      recent = cursor;
+      cursor = cursor.next;
+      return recent;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (recent == null) throw new IllegalStateException("nothing to remove");
+      ConcurrentPositionalList.this.remove(recent);   // remove from outer list
+      recent = null;               // do not allow remove again until next is called
+    }
+  } //------------ end of nested PositionIterator class ------------
+
+  //---------------- nested PositionIterable class ----------------
+  private class PositionIterable implements Iterable<Position<E>> {
+    public Iterator<Position<E>> iterator() { return new PositionIterator(); }
+  } //------------ end of nested PositionIterable class ------------
+
+  /**
+   * Returns an iterable representation of the list's positions.
+   * @return iterable representation of the list's positions
+   */
+  @Override
+  public Iterable<Position<E>> positions() {
+    return new PositionIterable();       // create a new instance of the inner class
+  }
+
+  //---------------- nested ElementIterator class ----------------
+  /*
+   * This class adapts the iteration produced by positions() to return elements.
+   * Each element is read under the lock of its node, together with a check that
+   * the node has not been removed, so only elements in the list are reported.
+   */
+  private class ElementIterator implements Iterator<E> {
+    PositionIterator posIterator = new PositionIterator();
+    private boolean ready = false;           // has the element at the cursor been read?
+    private E element;                       // element read at the cursor
+
+    public boolean hasNext() {
+      while (!ready && posIterator.hasNext()) {  // skips nodes removed meanwhile
+        Node<E> node = posIterator.cursor;
+        synchronized (node) {
+          if (!node.removed) {
+            element = node.element;
+            ready = true;
+          }
+        }
+      }
+      return ready;
+    }
+
+    public E next() throws NoSuchElementException {
+      if (!hasNext()) throw new NoSuchElementException("nothing left");
+      posIterator.recent = posIterator.cursor;   // the node whose element was read
+      posIterator.cursor = posIterator.cursor.next;
+      ready = false;
+      E answer = element;
+      element = null;
+      return answer;
+    }
+
+    public void remove() { posIterator.remove(); }
+  }
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() { return new ElementIterator(); }
+
+  // Debugging code
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (E e : this) {
+      if (sb.length() > 1) sb.append(", ");
+      sb.append(e);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,78 @@
+package lists;
+
+import java.util.Random;
+
+/**
+ * Measures the throughput of {@link ConcurrentPositionalList} against a
+ * {@link LinkedPositionalList} guarded by a single lock, with an increasing
+ * number of threads. Each thread owns a disjoint region of the list and
+ * repeatedly inserts an element after a random position of its region and
+ * removes it again, so that edits by different threads are never adjacent.
+ */
+public class ConcurrentPositionalListBenchmark {
+
+  /** Number of positions owned by each thread. */
+  static final int REGION = 1_000;
+
+  /** Number of insert and remove pairs performed by each thread. */
+  static final int OPERATIONS = 1_000_000;
+
+  /** Element added by every insertion, so that no element is allocated. */
+  static final Integer ELEMENT = 254;
+
+  //---------------- nested SynchronizedPositionalList class ----------------
+  /** A positional list whose benchmarked updates hold the lock of the list. */
+  static class SynchronizedPositionalList<E> extends LinkedPositionalList<E> {
+    public synchronized Position<E> addAfter(Position<E> p, E e) { return super.addAfter(p, e); }
+    public synchronized E remove(Position<E> p) { return super.remove(p); }
+  } //----------- end of nested SynchronizedPositionalList class -----------
+
+  /**
+   * Runs the given number of threads against a fresh list and returns the
+   * throughput in millions of operations per second.
+   *
+   * @param list      an empty list
+   * @param threads   the number of threads
+   * @return the throughput
+   */
+  static double run(PositionalList<Integer> list, int threads) throws InterruptedException {
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      Position<Integer>[] region = regionOf(list);
+      workers[t] = new Thread(() -> {
+        Random random = new Random(region.length);
+        for (int k = 0; k < OPERATIONS; k++)
+          list.remove(list.addAfter(region[random.nextInt(REGION)], ELEMENT));
+      });
+    }
+    long start = System.nanoTime();
+    for (Thread worker : workers)
+      worker.start();
+    for (Thread worker : workers)
+      worker.join();
+    long elapsed = System.nanoTime() - start;
+    return 2.0 * threads * OPERATIONS / (elapsed / 1e3);
+  }
+
+  /** Appends a region of REGION positions to the list and returns them. */
+  @SuppressWarnings({"unchecked"})
+  static Position<Integer>[] regionOf(PositionalList<Integer> list) {
+    Position<Integer>[] region = (Position<Integer>[]) new Position<?>[REGION];
+    for (int k = 0; k < REGION; k++)
+      region[k] = list.addLast(ELEMENT);
+    return region;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d insert and remove pairs per thread, %d available cores%n%n", OPERATIONS, cores);
+    System.out.printf("%7s %22s %22s%n", "Threads", "Synchronized(Mops/s)", "Concurrent(Mops/s)");
+    run(new SynchronizedPositionalList<>(), 1);     // warm up
+    run(new ConcurrentPositionalList<>(), 1);
+    for (int threads = 1; threads <= Math.max(4, 2 * cores); threads *= 2) {
+      double locked = run(new SynchronizedPositionalList<>(), threads);
+      double concurrent = run(new ConcurrentPositionalList<>(), threads);
+      System.out.printf("%7d %22.1f %22.1f%n", threads, locked, concurrent);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package lists;
+
+/**
+ * Estimates the number of times each element has been added, in a fixed
+ * amount of memory, with a Count-Min sketch. The sketch has depth rows of
+ * width counters, and each row hashes the hash code of an element to one of
+ * its counters with a multiply-add-shift hash of its own, whose random 64-bit
+ * multiplier and addend make the rows independent. An estimate is the smallest
+ * of the counters of the element, which is never less than its true count, and
+ * exceeds it by more than e&middot;n/width, where n is the number of additions,
+ * with probability at most e^-depth. Elements with equal hash codes share all
+ * their counters, so the bound holds for elements with distinct hash codes.
+ *
+ * <p>Additions are conservative: only the counters equal to the current
+ * estimate are incremented, which keeps every estimate an upper bound while
+ * making it tighter.
+ */
+public class CountMinSketch<E> {
+  /** Counters of the sketch, row after row. */
+  private final int[] counters;
+
+  /** Number of counters in a row, which is a power of two. */
+  private final int width;
+
+  /** Number of bits of a counter index, which is the log of the width. */
+  private final int bits;
+
+  /** Odd multiplier of the hash of each row. */
+  private final long[] multipliers;
+
+  /** Addend of the hash of each row. */
+  private final long[] addends;
+
+  /** Number of rows. */
+  private final int depth;
+
+  /** Number of additions so far. */
+  private long total = 0;
+
+  /**
+   * Constructs a sketch in which every count is zero.
+   *
+   * @param width   the least number of counters in a row, which is rounded up to a power of two
+   *                  no less than 2
+   * @param depth   the number of rows
+   * @throws IllegalArgumentException if width or depth is not positive, or they are too large
+   */
+  public CountMinSketch(int width, int depth) throws IllegalArgumentException {
+    if (width <= 0 || width > 1 << 24) throw new IllegalArgumentException("Illegal width: " + width);
+    if (depth <= 0 || depth > 32) throw new IllegalArgumentException("Illegal depth: " + depth);
+    int w = Math.max(2, Integer.highestOneBit(width));
+    if (w < width) w *= 2;             // round up to a power of two
+    this.width = w;
+    this.bits = Integer.numberOfTrailingZeros(w);
+    this.depth = depth;
+    this.counters = new int[w * depth];
+    java.util.SplittableRandom random = new java.util.SplittableRandom(254);   // same sketch every time
+    multipliers = new long[depth];
+    addends = new long[depth];
+    for (int r = 0; r < depth; r++) {
+      multipliers[r] = random.nextLong() | 1;
+      addends[r] = random.nextLong();
+    }
+  }
+
+  // nonpublic utilities
+  /**
+   * Returns the index in counters of the counter of row r for an element of
+   * the given hash, which is the top bits of a multiply-add-shift hash.
+   */
+  private int slot(int hash, int r) {
+    long h = multipliers[r] * (hash & 0xFFFFFFFFL) + addends[r];
+    return r * width + (int) (h >>> (64 - bits));
+  }
+
+  // public methods
+  /**
+   * Returns the number of additions so far.
+   * @return the number of additions
+   */
+  public long total() { return total; }
+
+  /**
+   * Adds one occurrence of element e, and returns its new estimate.
+   * @param e   the element
+   * @return the new estimate of the count of e
+   */
+  public int add(E e) {
+    int hash = e.hashCode();
+    int estimate = estimate(e);
+    for (int r = 0; r < depth; r++) {
+      int j = slot(hash, r);
+      if (counters[j] == estimate)
+        counters[j]++;
+    }
+    total++;
+    return estimate + 1;
+  }
+
+  /**
+   * Returns an upper bound on the number of times element e has been added.
+   * @param e   the element
+   * @return the estimate of the count of e
+   */
+  public int estimate(E e) {
+    int hash = e.hashCode();
+    int min = Integer.MAX_VALUE;
+    for (int r = 0; r < depth; r++)
+      min = Math.min(min, counters[slot(hash, r)]);
+    return min;
+  }
+}
@@ -0,0 +1,128 @@
+package lists;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Maintains a list of elements ordered by exponentially decayed access count,
+ * in which an access made one half-life ago weighs half as much as one made
+ * now. The time is read from a clock, in any unit, in which the half-life is
+ * also given.
+ *
+ * <p>Rather than decaying every weight as time passes, an access at time t
+ * adds 2^((t - landmark) / halfLife) to the weight of its item, so that the
+ * weights of all items stay in proportion to their decayed counts without
+ * being touched. The decayed count of an item at time t is its weight times
+ * the global scale factor 2^-((t - landmark) / halfLife). When the exponent
+ * exceeds {@link #RESCALE} half-lives, every weight is rescaled to the current
+ * time, which becomes the landmark, and the items whose decayed count has
+ * fallen below {@link #NEGLIGIBLE} are dropped. An item survives at most two
+ * rescales without being accessed, so access still runs in O(1) amortized
+ * time.
+ *
+ * <p>As in the move-to-front list, getFavorites scans the items with a
+ * bounded heap, here by decayed count, in O(n log k) time.
+ */
+public class DecayingFavoritesList<E> extends FavoritesListMTF<E> {
+  /** Number of half-lives after the landmark at which weights are rescaled. */
+  public static final double RESCALE = 512;
+
+  /** Decayed count below which an item is dropped when weights are rescaled. */
+  public static final double NEGLIGIBLE = 0x1p-64;
+
+  //---------------- nested WeightedItem class ----------------
+  /** An item with the weight of its accesses. */
+  protected static class WeightedItem<E> extends Item<E> {
+    private double weight = 0;       // sum of the weights of the accesses
+    public WeightedItem(E val) { super(val); }
+    public double getWeight() { return weight; }
+  } //----------- end of nested WeightedItem class -----------
+
+  /** Time in which the weight of an item halves, in units of the clock. */
+  private final long halfLife;
+
+  /** Clock giving the current time. */
+  private final LongSupplier clock;
+
+  /** Time at which an access weighs 1. */
+  private long landmark;
+
+  /**
+   * Constructs an initially empty list, whose clock is System.nanoTime.
+   *
+   * @param halfLife  the half-life, in nanoseconds
+   * @throws IllegalArgumentException if halfLife is not positive
+   */
+  public DecayingFavoritesList(long halfLife) throws IllegalArgumentException {
+    this(halfLife, System::nanoTime);
+  }
+
+  /**
+   * Constructs an initially empty list.
+   *
+   * @param halfLife  the half-life, in units of the clock
+   * @param clock     the clock giving the current time, which must never go back
+   * @throws IllegalArgumentException if halfLife is not positive
+   */
+  public DecayingFavoritesList(long halfLife, LongSupplier clock) throws IllegalArgumentException {
+    if (halfLife <= 0) throw new IllegalArgumentException("Illegal half-life: " + halfLife);
+    this.halfLife = halfLife;
+    this.clock = clock;
+    this.landmark = clock.getAsLong();
+  }
+
+  // nonpublic utilities
+  @Override
+  protected Item<E> newItem(E e) { return new WeightedItem<>(e); }
+
+  /** Orders the items by weight, that is, by decayed count. */
+  @Override
+  protected double score(Item<E> item) { return ((WeightedItem<E>) item).weight; }
+
+  /** Returns the number of half-lives from the landmark to time t. */
+  private double halfLives(long t) { return (double) (t - landmark) / halfLife; }
+
+  /** Rescales every weight so that time now becomes the landmark, and drops negligible items. */
+  private void rescale(long now) {
+    double factor = Math.pow(2, -halfLives(now));
+    Position<Item<E>> walk = list.first();
+    while (walk != null) {
+      Position<Item<E>> next = list.after(walk);
+      WeightedItem<E> item = (WeightedItem<E>) walk.getElement();
+      item.weight *= factor;
+      if (item.weight < NEGLIGIBLE)
+        remove(item.getValue());
+      walk = next;
+    }
+    landmark = now;
+  }
+
+  // public methods
+  /**
+   * Accesses element e, thereby increasing its access count by 1 and its
+   * decayed count by 1.
+   */
+  @Override
+  public void access(E e) {
+    long now = clock.getAsLong();
+    if (halfLives(now) > RESCALE)
+      rescale(now);
+    super.access(e);                              // moves the item to the front
+    ((WeightedItem<E>) list.first().getElement()).weight += Math.pow(2, halfLives(now));
+  }
+
+  /**
+   * Returns the decayed count of element e at the current time (0 if it is
+   * not in the list).
+   */
+  public double weightOf(E e) {
+    Position<Item<E>> p = findPosition(e);
+    if (p == null) return 0;
+    return ((WeightedItem<E>) p.getElement()).weight * Math.pow(2, -halfLives(clock.getAsLong()));
+  }
+
+  // test usage
+  public static void main(String[] args) {
+    long[] time = { 0 };
+    test(new DecayingFavoritesList<Character>(4, () -> time[0]++));
+  }
+}
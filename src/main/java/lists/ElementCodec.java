@@ -0,0 +1,54 @@
+package lists;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Translates elements to and from binary encodings of varying length, for
+ * lists that keep their elements in files, such as {@link MappedList}.
+ *
+ * <p>All methods use only the absolute get and put operations of the buffer
+ * at the given offset, and must not change its position or limit.
+ */
+public interface ElementCodec<E> {
+
+  /**
+   * Returns the number of bytes of the encoding of element e.
+   * @param e   the element to be encoded
+   * @return the length of its encoding, in bytes
+   */
+  int encodedSize(E e);
+
+  /**
+   * Writes the encoding of element e, which is exactly encodedSize(e) bytes long.
+   *
+   * @param e        the element to be written
+   * @param buffer   the buffer receiving the encoding
+   * @param offset   the index of the first byte of the encoding
+   */
+  void encode(E e, ByteBuffer buffer, int offset);
+
+  /**
+   * Reads the encoding of the given length starting at the given offset.
+   *
+   * @param buffer   the buffer holding the encoding
+   * @param offset   the index of the first byte of the encoding
+   * @param length   the length of the encoding, in bytes
+   * @return the decoded element
+   */
+  E decode(ByteBuffer buffer, int offset, int length);
+
+  /**
+   * Returns a codec that encodes every element as a record of the given
+   * fixed-width codec.
+   *
+   * @param codec   the fixed-width codec
+   * @return the equivalent element codec
+   */
+  static <E> ElementCodec<E> of(RecordCodec<E> codec) {
+    return new ElementCodec<E>() {
+      public int encodedSize(E e) { return codec.width(); }
+      public void encode(E e, ByteBuffer buffer, int offset) { codec.encode(e, buffer, offset); }
+      public E decode(ByteBuffer buffer, int offset, int length) { return codec.decode(buffer, offset); }
+    };
+  }
+}
@@ -0,0 +1,157 @@
+package lists;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table mapping each distinct element to the sorted
+ * set of indices at which it is stored in an indexed {@link ArrayList}.
+ * Collisions are resolved by linear probing, and removals use backward-shift
+ * deletion, so no tombstones are left behind. A null element is stored under
+ * a private sentinel key.
+ *
+ * <p>Adding index i for an element runs in O(1) expected time when i exceeds
+ * every index already recorded for it, as is the case for appends and for a
+ * rebuild; otherwise it runs in time proportional to the number of copies of
+ * that element.
+ */
+class ElementIndex {
+  /** Key standing in for the null element. */
+  private static final Object NULL_KEY = new Object();
+
+  /** Initial (power of two) table capacity. */
+  private static final int CAPACITY = 16;
+
+  /** Keys of the table; a null cell is empty. */
+  private Object[] keys;
+
+  /** Sorted index sets, stored in the cell of their key. */
+  private int[][] sets;
+
+  /** Number of indices in each index set. */
+  private int[] counts;
+
+  /** Number of distinct keys in the table. */
+  private int used = 0;
+
+  /** Constructs an empty index. */
+  ElementIndex() { allocate(CAPACITY); }
+
+  /** Records that element e is stored at index i. */
+  void add(Object e, int i) {
+    if (2 * (used + 1) > keys.length)          // keep the load factor at most 1/2
+      rehash(2 * keys.length);
+    Object key = (e == null) ? NULL_KEY : e;
+    int slot = find(key);
+    if (keys[slot] == null) {                  // first occurrence of this element
+      keys[slot] = key;
+      sets[slot] = new int[] { i };
+      counts[slot] = 1;
+      used++;
+      return;
+    }
+    int[] set = sets[slot];
+    int n = counts[slot];
+    int k = (set[n-1] < i) ? n : -Arrays.binarySearch(set, 0, n, i) - 1;
+    if (n == set.length)
+      set = sets[slot] = Arrays.copyOf(set, 2 * n);
+    System.arraycopy(set, k, set, k+1, n-k);
+    set[k] = i;
+    counts[slot]++;
+  }
+
+  /** Records that element e is no longer stored at index i. */
+  void remove(Object e, int i) {
+    Object key = (e == null) ? NULL_KEY : e;
+    int slot = find(key);
+    if (keys[slot] == null) return;
+    int[] set = sets[slot];
+    int n = counts[slot];
+    int k = (set[n-1] == i) ? n-1 : Arrays.binarySearch(set, 0, n, i);
+    if (k < 0) return;
+    if (n == 1) {                              // last occurrence: delete the key
+      delete(slot);
+      return;
+    }
+    System.arraycopy(set, k+1, set, k, n-k-1);
+    counts[slot]--;
+  }
+
+  /** Returns the smallest index of element e, or -1 if it is not recorded. */
+  int first(Object e) {
+    int slot = find((e == null) ? NULL_KEY : e);
+    return (keys[slot] == null) ? -1 : sets[slot][0];
+  }
+
+  /** Returns the largest index of element e, or -1 if it is not recorded. */
+  int last(Object e) {
+    int slot = find((e == null) ? NULL_KEY : e);
+    return (keys[slot] == null) ? -1 : sets[slot][counts[slot] - 1];
+  }
+
+  /** Removes all entries, keeping a table sized for the given number of keys. */
+  void clear(int expected) {
+    int capacity = CAPACITY;
+    while (capacity < 2 * expected)
+      capacity *= 2;
+    allocate(capacity);
+  }
+
+  // utility methods
+  /** Spreads the bits of the key's hash code and reduces it to a table cell. */
+  private int home(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;       // Fibonacci hashing
+    return (h ^ (h >>> 16)) & (keys.length - 1);
+  }
+
+  /** Returns the cell holding the key, or the empty cell where it would go. */
+  private int find(Object key) {
+    int mask = keys.length - 1;
+    int slot = home(key);
+    while (keys[slot] != null && !keys[slot].equals(key))
+      slot = (slot + 1) & mask;
+    return slot;
+  }
+
+  /** Empties the given cell, shifting back later keys of the same probe run. */
+  private void delete(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    for (int j = (hole + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+      int h = home(keys[j]);
+      if (((j - h) & mask) >= ((j - hole) & mask)) {   // key j may move back to the hole
+        keys[hole] = keys[j];
+        sets[hole] = sets[j];
+        counts[hole] = counts[j];
+        hole = j;
+      }
+    }
+    keys[hole] = null;
+    sets[hole] = null;                         // help garbage collection
+    used--;
+  }
+
+  /** Allocates an empty table with the given capacity. */
+  private void allocate(int capacity) {
+    keys = new Object[capacity];
+    sets = new int[capacity][];
+    counts = new int[capacity];
+    used = 0;
+  }
+
+  /** Moves all entries to a table with the given capacity. */
+  private void rehash(int capacity) {
+    Object[] oldKeys = keys;
+    int[][] oldSets = sets;
+    int[] oldCounts = counts;
+    int oldUsed = used;
+    allocate(capacity);
+    for (int k = 0; k < oldKeys.length; k++)
+      if (oldKeys[k] != null) {
+        int slot = find(oldKeys[k]);
+        keys[slot] = oldKeys[k];
+        sets[slot] = oldSets[k];
+        counts[slot] = oldCounts[k];
+      }
+    used = oldUsed;
+  }
+}
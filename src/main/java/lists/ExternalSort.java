@@ -0,0 +1,513 @@
+package lists;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * External merge sort of more elements than fit in memory. Elements are read
+ * from the input in batches whose encodings, through an {@link ElementCodec},
+ * fit within a memory budget; each batch is sorted and written to a temporary
+ * run file. The runs are then merged, at most fanIn at a time, by a k-way
+ * merge driven by a binary heap of the runs' next elements, in as many passes
+ * as needed to leave at most fanIn runs, which the final pass merges into the
+ * output. An input that fits in a single batch is sorted without any file.
+ *
+ * <p>Run files, and the input and output files of {@link #sort(Path, OutputStream)},
+ * hold a sequence of records, each of which is the length of an encoding, as
+ * a four-byte int, followed by the encoding itself. They are read and written
+ * through NIO channels, with a buffer for each open run.
+ *
+ * <p>The budget bounds the encoded size of the elements held in memory while
+ * forming runs, except for a single element larger than the budget, which
+ * forms a run of its own, and the total size of the buffers while merging.
+ * Decoded elements usually take more heap than their encodings, so the budget
+ * should leave room for that. The sort is stable.
+ *
+ * <p>Run files are deleted whether the sort succeeds or fails. A list sorted
+ * in place is drained as the runs are formed, so that its elements are never
+ * held in memory twice. If the sort fails, the list is refilled from the
+ * batch and the run files before they are deleted: it keeps all its elements,
+ * though not in their original order.
+ */
+public class ExternalSort<E> {
+  /** Size of the buffer of each run, when the budget allows it. */
+  public static final int BUFFER_BYTES = 1 << 16;  // 64 kilobytes
+
+  /** Smallest buffer given to a run, however small the budget. */
+  static final int MIN_BUFFER_BYTES = 1 << 8;
+
+  /** Default number of runs merged at once. */
+  public static final int FAN_IN = 64;
+
+  /** Codec translating elements to and from the records of the runs. */
+  private final ElementCodec<E> codec;
+
+  /** Comparator that determines the order. */
+  private final Comparator<? super E> comp;
+
+  /** Directory in which the run files are created. */
+  private final Path directory;
+
+  /** Bytes of encoded elements held in memory while forming a run. */
+  private final long budget;
+
+  /** Largest number of runs merged at once. */
+  private final int fanIn;
+
+  /** Size of the buffer of each open run. */
+  private final int bufferBytes;
+
+  /** Number of runs formed by the most recent sort. */
+  private int runCount = 0;
+
+  /**
+   * Creates a sort with the default fan-in.
+   *
+   * @param codec       the codec translating elements to and from records
+   * @param comp        the comparator that determines the order
+   * @param directory   the directory in which run files are created
+   * @param budget      the memory budget, in bytes
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public ExternalSort(ElementCodec<E> codec, Comparator<? super E> comp, Path directory, long budget)
+                      throws IllegalArgumentException {
+    this(codec, comp, directory, budget, FAN_IN);
+  }
+
+  /**
+   * Creates a sort that merges at most fanIn runs at once.
+   *
+   * @param codec       the codec translating elements to and from records
+   * @param comp        the comparator that determines the order
+   * @param directory   the directory in which run files are created
+   * @param budget      the memory budget, in bytes
+   * @param fanIn       the largest number of runs merged at once
+   * @throws IllegalArgumentException if the budget is not positive or fanIn is less than 2
+   */
+  public ExternalSort(ElementCodec<E> codec, Comparator<? super E> comp, Path directory, long budget,
+                      int fanIn) throws IllegalArgumentException {
+    if (budget <= 0) throw new IllegalArgumentException("Illegal budget: " + budget);
+    if (fanIn < 2) throw new IllegalArgumentException("Illegal fan-in: " + fanIn);
+    this.codec = codec;
+    this.comp = comp;
+    this.directory = directory;
+    this.budget = budget;
+    this.fanIn = fanIn;
+    bufferBytes = (int) Math.max(MIN_BUFFER_BYTES, Math.min(BUFFER_BYTES, budget / (fanIn + 1)));
+  }
+
+  /**
+   * Returns the number of runs formed by the most recent sort, which is 1 if
+   * its input fit within the budget.
+   * @return the number of runs
+   */
+  public int runCount() { return runCount; }
+
+  // public methods
+  /**
+   * Sorts the elements reported by the input, passing them in order to the output.
+   *
+   * @param input    the elements to be sorted
+   * @param output   the consumer receiving the sorted elements
+   * @throws IOException if a run file cannot be written or read
+   */
+  public void sort(Iterable<? extends E> input, Consumer<? super E> output) throws IOException {
+    sort(input.iterator(), output::accept, null, null);
+  }
+
+  /**
+   * Sorts the elements of a positional list in place. Each element is removed
+   * from the list as it is read, so that the list and the runs are not both
+   * held in memory, and the sorted elements are then added back at the end.
+   * Every position of the list is therefore replaced by a new one.
+   *
+   * @param list   the list to be sorted
+   * @throws IOException if a run file cannot be written or read, in which case
+   *                     the list still holds all its elements, in some order
+   */
+  public void sort(PositionalList<E> list) throws IOException {
+    Iterator<E> draining = new Iterator<E>() {
+      public boolean hasNext() { return !list.isEmpty(); }
+      public E next() { return list.remove(list.first()); }
+    };
+    Runnable discard = () -> {
+      while (!list.isEmpty())
+        list.remove(list.last());
+    };
+    sort(draining, list::addLast, discard, list::addLast);
+  }
+
+  /**
+   * Sorts the elements of an array list in place. The list is first reversed,
+   * so that each element can be removed from its end as it is read, and the
+   * sorted elements are then added back.
+   *
+   * @param list   the list to be sorted
+   * @throws IOException if a run file cannot be written or read, in which case
+   *                     the list still holds all its elements, in some order
+   */
+  public void sort(ArrayList<E> list) throws IOException {
+    reverse(list);
+    Iterator<E> draining = new Iterator<E>() {
+      public boolean hasNext() { return !list.isEmpty(); }
+      public E next() { return list.remove(list.size() - 1); }
+    };
+    Consumer<E> append = e -> list.add(list.size(), e);
+    try {
+      sort(draining, append::accept, () -> list.removeRange(0, list.size()), append);
+    } catch (IOException | RuntimeException x) {
+      reverse(list);                           // put the unread elements back in order
+      throw x;
+    }
+  }
+
+  /**
+   * Sorts the records of the input file, writing them in order to the output
+   * stream, which is flushed but not closed.
+   *
+   * @param input    a file of records
+   * @param output   the stream receiving the sorted records
+   * @throws IOException if a file cannot be read or written, or the input ends inside a record
+   */
+  public void sort(Path input, OutputStream output) throws IOException {
+    try (RunReader reader = new RunReader(FileChannel.open(input, StandardOpenOption.READ));
+         RunWriter writer = new RunWriter(Channels.newChannel(output), false)) {
+      sort(reader, writer, null, null);
+    } catch (UncheckedIOException x) {
+      throw x.getCause();                      // raised by the reader's iteration
+    }
+    output.flush();
+  }
+
+  /**
+   * Writes the elements to the output stream as records, which is flushed but
+   * not closed.
+   *
+   * @param elements   the elements to be written
+   * @param output     the stream receiving the records
+   * @throws IOException if the stream cannot be written
+   */
+  public void write(Iterable<? extends E> elements, OutputStream output) throws IOException {
+    try (RunWriter writer = new RunWriter(Channels.newChannel(output), false)) {
+      for (E e : elements)
+        writer.accept(e);
+    }
+    output.flush();
+  }
+
+  /**
+   * Reads the records of a file, passing the decoded elements in order to the output.
+   *
+   * @param input    a file of records
+   * @param output   the consumer receiving the elements
+   * @throws IOException if the file cannot be read or ends inside a record
+   */
+  public void read(Path input, Consumer<? super E> output) throws IOException {
+    try (RunReader reader = new RunReader(FileChannel.open(input, StandardOpenOption.READ))) {
+      while (reader.hasNext())
+        output.accept(reader.next());
+    } catch (UncheckedIOException x) {
+      throw x.getCause();                      // raised by the reader's iteration
+    }
+  }
+
+  // private utilities
+  /** A destination for elements that may fail with an IOException. */
+  private interface Sink<E> {
+    void accept(E e) throws IOException;
+  }
+
+  /**
+   * Sorts the elements of the iterator into the sink, forming runs and merging
+   * them. If the sort fails and restore is not null, discard is first run if
+   * the sink has received any element, and every element taken from the
+   * iterator is then passed to restore, from the batch and from the run files
+   * that hold it, before the run files are deleted.
+   */
+  private void sort(Iterator<? extends E> input, Sink<? super E> output,
+                    Runnable discard, Consumer<? super E> restore) throws IOException {
+    java.util.List<Path> runs = new java.util.ArrayList<>();     // runs still to be merged
+    java.util.List<Path> merged = new java.util.ArrayList<>();   // runs formed by the current pass
+    java.util.List<Path> spent = new java.util.ArrayList<>();    // runs merged but not yet deleted
+    ArrayList<E> batch = new ArrayList<>();
+    E pending = null;                          // taken from the input but not yet in the batch
+    boolean reporting = false;                 // has the sink received any element?
+    try {
+      long bytes = 0;
+      while (input.hasNext()) {
+        pending = input.next();
+        int length = 4 + codec.encodedSize(pending);
+        if (!batch.isEmpty() && bytes + length > budget) {   // it would overflow the budget
+          runs.add(writeRun(batch));
+          bytes = 0;
+        }
+        batch.add(batch.size(), pending);
+        pending = null;
+        bytes += length;
+      }
+      if (runs.isEmpty()) {                    // everything fit in memory
+        runCount = 1;
+        batch.sort(comp);
+        reporting = true;
+        for (E e : batch)
+          output.accept(e);
+        return;
+      }
+      if (!batch.isEmpty())
+        runs.add(writeRun(batch));
+      batch = null;                            // release the batch before merging
+      runCount = runs.size();
+      while (runs.size() > fanIn) {            // intermediate passes
+        while (!runs.isEmpty()) {
+          java.util.List<Path> group = runs.subList(0, Math.min(fanIn, runs.size()));
+          if (group.size() == 1) {
+            merged.add(group.get(0));
+          } else {
+            Path run = Files.createTempFile(directory, "run", ".tmp");
+            try (RunWriter writer = new RunWriter(FileChannel.open(run, StandardOpenOption.WRITE), true)) {
+              merge(group, writer);
+            } catch (IOException | RuntimeException x) {
+              Files.deleteIfExists(run);
+              throw x;
+            }
+            merged.add(run);
+            spent.addAll(group);
+          }
+          group.clear();                       // its elements are now in merged
+          for (Path p : spent)
+            Files.delete(p);
+          spent.clear();
+        }
+        runs = merged;
+        merged = new java.util.ArrayList<>();
+      }
+      reporting = true;
+      merge(runs, output);                     // final pass
+    } catch (IOException | RuntimeException x) {
+      if (restore != null) {
+        try {
+          if (reporting)
+            discard.run();
+          if (pending != null)
+            restore.accept(pending);
+          if (batch != null)
+            for (E e : batch)
+              restore.accept(e);
+          for (Path p : merged)
+            read(p, restore);
+          for (Path p : runs)
+            read(p, restore);
+        } catch (IOException | RuntimeException y) {
+          x.addSuppressed(y);                  // some elements are lost
+        }
+      }
+      throw x;
+    } finally {
+      for (Path p : runs)
+        Files.deleteIfExists(p);
+      for (Path p : merged)
+        Files.deleteIfExists(p);
+      for (Path p : spent)
+        Files.deleteIfExists(p);
+    }
+  }
+
+  /** Reverses the order of the elements of the list. */
+  private static <E> void reverse(ArrayList<E> list) {
+    for (int i = 0, k = list.size() - 1; i < k; i++, k--)
+      list.set(k, list.set(i, list.get(k)));
+  }
+
+  /** Sorts the batch, writes it to a new run file, empties it, and returns the file. */
+  private Path writeRun(ArrayList<E> batch) throws IOException {
+    batch.sort(comp);
+    Path run = Files.createTempFile(directory, "run", ".tmp");
+    try (RunWriter writer = new RunWriter(FileChannel.open(run, StandardOpenOption.WRITE), true)) {
+      for (E e : batch)
+        writer.accept(e);
+    } catch (IOException | RuntimeException x) {
+      Files.deleteIfExists(run);
+      throw x;
+    }
+    batch.removeRange(0, batch.size());
+    return run;
+  }
+
+  /**
+   * Merges the given runs into the sink. The heap holds the indices of the runs
+   * that are not exhausted, ordered by their next elements, with ties broken by
+   * run index so that the merge is stable.
+   */
+  private void merge(java.util.List<Path> group, Sink<? super E> output) throws IOException {
+    @SuppressWarnings({"unchecked"})
+    RunReader[] readers = (RunReader[]) new ExternalSort<?>.RunReader[group.size()];
+    int[] heap = new int[group.size()];
+    int n = 0;
+    try {
+      for (int k = 0; k < readers.length; k++) {
+        readers[k] = new RunReader(FileChannel.open(group.get(k), StandardOpenOption.READ));
+        if (readers[k].advance())
+          heap[n++] = k;
+      }
+      for (int j = n / 2 - 1; j >= 0; j--)
+        siftDown(heap, n, j, readers);
+      while (n > 0) {
+        RunReader top = readers[heap[0]];
+        output.accept(top.head);
+        if (!top.advance())                    // run exhausted: last leaf takes its place
+          heap[0] = heap[--n];
+        siftDown(heap, n, 0, readers);
+      }
+    } finally {
+      for (RunReader reader : readers)
+        if (reader != null) reader.close();
+    }
+  }
+
+  /** Restores the heap order below index j of a heap of n run indices. */
+  private void siftDown(int[] heap, int n, int j, RunReader[] readers) {
+    int r = heap[j];
+    while (2 * j + 1 < n) {
+      int child = 2 * j + 1;
+      if (child + 1 < n && less(heap[child + 1], heap[child], readers))
+        child++;
+      if (!less(heap[child], r, readers))
+        break;
+      heap[j] = heap[child];
+      j = child;
+    }
+    heap[j] = r;
+  }
+
+  /** Returns whether the next element of run a comes before that of run b. */
+  private boolean less(int a, int b, RunReader[] readers) {
+    int c = comp.compare(readers[a].head, readers[b].head);
+    return c < 0 || (c == 0 && a < b);
+  }
+
+  //---------------- nested RunWriter class ----------------
+  /** Writes elements as records through a buffer to a channel. */
+  private class RunWriter implements Sink<E>, Closeable {
+    private final WritableByteChannel channel;
+    private final boolean owned;               // close the channel when done?
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+
+    RunWriter(WritableByteChannel channel, boolean owned) {
+      this.channel = channel;
+      this.owned = owned;
+    }
+
+    public void accept(E e) throws IOException {
+      int length = codec.encodedSize(e);
+      if (buffer.remaining() < 4 + length) {
+        flush();
+        if (buffer.capacity() < 4 + length)    // a record larger than the buffer
+          buffer = ByteBuffer.allocateDirect(4 + length);
+      }
+      buffer.putInt(length);
+      codec.encode(e, buffer, buffer.position());
+      buffer.position(buffer.position() + length);
+      if (buffer.capacity() > bufferBytes) {   // restore the normal buffer after a large record
+        flush();
+        buffer = ByteBuffer.allocateDirect(bufferBytes);
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining())
+        channel.write(buffer);
+      buffer.clear();
+    }
+
+    public void close() throws IOException {
+      flush();
+      if (owned) channel.close();
+    }
+  } //------------ end of nested RunWriter class ------------
+
+  //---------------- nested RunReader class ----------------
+  /** Reads records through a buffer from a channel, one element ahead. */
+  private class RunReader implements Iterator<E>, Closeable {
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes).limit(0);
+    private E head;                            // most recently decoded element
+    private boolean ahead = false;             // has head been decoded but not reported?
+
+    RunReader(ReadableByteChannel channel) { this.channel = channel; }
+
+    /**
+     * Decodes the next record into head.
+     * @return false if the channel is exhausted
+     */
+    boolean advance() throws IOException {
+      if (!fill(4)) return false;
+      int length = buffer.getInt();
+      if (!fill(length)) throw new EOFException("Truncated record");
+      head = codec.decode(buffer, buffer.position(), length);
+      buffer.position(buffer.position() + length);
+      if (buffer.capacity() > bufferBytes && buffer.remaining() <= bufferBytes) {
+        ByteBuffer normal = ByteBuffer.allocateDirect(bufferBytes);
+        normal.put(buffer).flip();             // restore the normal buffer after a large record
+        buffer = normal;
+      }
+      return true;
+    }
+
+    /**
+     * Makes at least n bytes available in the buffer, unless the channel ends
+     * first without a partial record.
+     */
+    private boolean fill(int n) throws IOException {
+      while (buffer.remaining() < n) {
+        if (buffer.capacity() < n) {           // a record larger than the buffer
+          ByteBuffer larger = ByteBuffer.allocateDirect(n);
+          larger.put(buffer);
+          buffer = larger;
+        } else {
+          buffer.compact();
+        }
+        int r = channel.read(buffer);
+        buffer.flip();
+        if (r < 0) {
+          if (buffer.hasRemaining()) throw new EOFException("Truncated record");
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // iteration over a whole file of records, which wraps any IOException
+    public boolean hasNext() {
+      try {
+        if (!ahead) ahead = advance();
+        return ahead;
+      } catch (IOException x) {
+        throw new UncheckedIOException(x);
+      }
+    }
+
+    public E next() {
+      if (!hasNext()) throw new NoSuchElementException("No next record");
+      ahead = false;
+      return head;
+    }
+
+    public void close() throws IOException { channel.close(); }
+  } //------------ end of nested RunReader class ------------
+}
@@ -22,15 +22,29 @@
  */
 package lists;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 
-/** Maintains a list of elements ordered according to access frequency. */
+/**
+ * Maintains a list of elements ordered according to access frequency.
+ *
+ * <p>The items with equal counts form a contiguous group of the list, in the
+ * order in which they reached that count. Each group is described by a count
+ * bucket, holding the count, the position of the first item of the group and
+ * the number of items in it, and the buckets are kept in a list of their own,
+ * in decreasing order of count. Since the group of count c+1 immediately
+ * precedes the group of count c, an accessed item joins the end of its new
+ * group by moving just before the first item of its old one, so that access
+ * runs in O(1) expected time.
+ */
 public class FavoritesList<E> {
   // ---------------- nested Item class ----------------
   protected static class Item<E> {
     private E value;
     private int count = 0;
+    private Position<Bucket<E>> bucket = null;   // bucket of the item's group, if any
     /** Constructs new item with initial count of zero. */
     public Item(E val) { value = val; }
     public int getCount() { return count; }
@@ -40,7 +54,22 @@ public class FavoritesList<E> {
     public String toString() { return "(" + value + ":" + count + ")"; }
   } //----------- end of nested Item class -----------
 
-  PositionalList<Item<E>> list = new LinkedPositionalList<>();    // list of Items
+  // ---------------- nested Bucket class ----------------
+  /** Describes the contiguous group of the items with a given count. */
+  private static class Bucket<E> {
+    private final int count;                  // count shared by the items of the group
+    private Position<Item<E>> head;           // first item of the group
+    private int size = 0;                     // number of items in the group
+    public Bucket(int count) { this.count = count; }
+  } //----------- end of nested Bucket class -----------
+
+  LinkedPositionalList<Item<E>> list = new LinkedPositionalList<>();    // list of Items
+
+  /** Position of the item of each element, which moving an item leaves valid. */
+  Map<E, Position<Item<E>>> index = new HashMap<>();      // element to position
+
+  /** Buckets of the groups of items with equal counts, by decreasing count. */
+  private PositionalList<Bucket<E>> buckets = new LinkedPositionalList<>();
 
   /** Constructs initially empty favorites list. */
   public FavoritesList() { }              // constructs initially empty favorites list
@@ -52,22 +81,56 @@ public class FavoritesList<E> {
   /** Provides shorthand notation to retrieve count of item stored at Position p. */
   protected int count(Position<Item<E>> p) {return p.getElement().getCount();}
 
+  /** Returns a new item for element e, with a count of zero. */
+  protected Item<E> newItem(E e) { return new Item<E>(e); }
+
   /** Returns Position having element equal to e (or null if not found). */
   protected Position<Item<E>> findPosition(E e) {
-    Position<Item<E>> walk = list.first();
-    while (walk != null && !e.equals(value(walk)))
-      walk = list.after(walk);
-    return walk;
+    return index.get(e);                          // O(1) expected time
   }
 
-  /** Moves item at Position p earlier in the list based on access count. */
+  /**
+   * Moves item at Position p earlier in the list based on access count, from
+   * the group of its previous count to the end of the group of its new one.
+   */
   protected void moveUp(Position<Item<E>> p) {
-    int cnt = count(p);                           // revised count of accessed item
-    Position<Item<E>> walk = p;
-    while (walk != list.first() && count(list.before(walk)) < cnt)
-      walk = list.before(walk);                   // found smaller count ahead of item
-    if (walk != p)
-      list.addBefore(walk, list.remove(p));       // remove/reinsert item
+    Item<E> item = p.getElement();
+    Position<Bucket<E>> from = item.bucket;       // null for a new item, which is last
+    Position<Bucket<E>> ahead = (from == null) ? buckets.last() : buckets.before(from);
+    Position<Bucket<E>> to = ahead;
+    if (ahead == null || ahead.getElement().count != item.getCount()) {
+      Bucket<E> created = new Bucket<>(item.getCount());
+      to = (from == null) ? buckets.addLast(created) : buckets.addBefore(from, created);
+    }
+    if (from != null) {
+      Position<Item<E>> head = from.getElement().head;
+      if (head != p)
+        list.moveBefore(p, head);                 // relink item, keeping p valid
+      leave(from, p);
+    }
+    Bucket<E> bucket = to.getElement();
+    if (bucket.size++ == 0)
+      bucket.head = p;
+    item.bucket = to;
+  }
+
+  /**
+   * Replaces the element of the item at Position p by e, which must not be in
+   * the list, keeping the count and place of the item.
+   */
+  protected void replace(Position<Item<E>> p, E e) {
+    index.remove(value(p));
+    p.getElement().value = e;
+    index.put(e, p);
+  }
+
+  /** Removes the item at Position p, which has not moved yet, from its group. */
+  private void leave(Position<Bucket<E>> b, Position<Item<E>> p) {
+    Bucket<E> bucket = b.getElement();
+    if (--bucket.size == 0)
+      buckets.remove(b);
+    else if (bucket.head == p)
+      bucket.head = list.after(p);
   }
 
   // public methods
@@ -83,17 +146,42 @@ public class FavoritesList<E> {
    */
   public void access(E e) {
     Position<Item<E>> p = findPosition(e);       // try to locate existing element
-    if (p == null)
-      p = list.addLast(new Item<E>(e));          // if new, place at end
+    if (p == null) {
+      p = list.addLast(newItem(e));              // if new, place at end
+      index.put(e, p);
+    }
     p.getElement().increment();                   // always increment count
     moveUp(p);                                    // consider moving forward
   }
 
   /** Removes element equal to e from the list of favorites (if found). */
   public void remove(E e) {
-    Position<Item<E>> p = findPosition(e);        // try to locate existing element
-    if (p != null)
+    Position<Item<E>> p = index.remove(e);        // try to locate existing element
+    if (p != null) {
+      if (p.getElement().bucket != null)
+        leave(p.getElement().bucket, p);
       list.remove(p);
+    }
+  }
+
+  /** Returns the number of accesses of element e (0 if it is not in the list). */
+  public int countOf(E e) {
+    Position<Item<E>> p = findPosition(e);
+    return (p == null) ? 0 : count(p);
+  }
+
+  /**
+   * Returns the rank of element e among the favorites, that is, its index in
+   * the order reported by getFavorites (or -1 if it is not in the list). This
+   * walks back from the element, so it runs in time proportional to its rank.
+   */
+  public int rankOf(E e) {
+    Position<Item<E>> p = findPosition(e);
+    if (p == null) return -1;
+    int rank = 0;
+    for (Position<Item<E>> walk = list.before(p); walk != null; walk = list.before(walk))
+      rank++;
+    return rank;
   }
 
   /** Returns an iterable collection of the k most frequently accessed elements. */
@@ -0,0 +1,93 @@
+package lists;
+
+import java.util.Random;
+
+/**
+ * Compares the throughput of {@link FavoritesList}, whose count buckets let an
+ * access move its item in O(1) time, with the earlier implementation, whose
+ * moveUp walks back past every item with a smaller count. The accessed keys
+ * follow a Zipf distribution, under which most keys are rare and so share the
+ * small counts, which is the case that makes the walk long. The decaying and
+ * sliding-window lists, with a one-second half-life and window, are shown for
+ * comparison.
+ */
+public class FavoritesListBenchmark {
+
+  /** Number of distinct keys. */
+  static final int KEYS = 100_000;
+
+  /** Number of accesses per run. */
+  static final int ACCESSES = 1_000_000;
+
+  /** Exponent of the Zipf distribution. */
+  static final double EXPONENT = 1.0;
+
+  //---------------- nested WalkingFavoritesList class ----------------
+  /** The favorites list as it was before count buckets. */
+  static class WalkingFavoritesList<E> extends FavoritesList<E> {
+    @Override
+    protected void moveUp(Position<Item<E>> p) {
+      int cnt = count(p);                         // revised count of accessed item
+      Position<Item<E>> walk = p;
+      while (walk != list.first() && count(list.before(walk)) < cnt)
+        walk = list.before(walk);                 // found smaller count ahead of item
+      if (walk != p)
+        list.moveBefore(p, walk);
+    }
+  } //----------- end of nested WalkingFavoritesList class -----------
+
+  /**
+   * Returns keys drawn from a Zipf distribution over [0, KEYS), in which key k
+   * has probability proportional to 1/(k+1)^EXPONENT.
+   *
+   * @param n   the number of keys to draw
+   * @return the keys
+   */
+  static Integer[] zipf(int n) {
+    double[] cdf = new double[KEYS];
+    double total = 0;
+    for (int k = 0; k < KEYS; k++)
+      cdf[k] = total += 1 / Math.pow(k + 1, EXPONENT);
+    Random random = new Random(254);
+    Integer[] keys = new Integer[n];
+    for (int j = 0; j < n; j++) {
+      double u = random.nextDouble() * total;
+      int lo = 0, hi = KEYS - 1;
+      while (lo < hi) {                           // first key whose cdf reaches u
+        int mid = (lo + hi) >>> 1;
+        if (cdf[mid] < u) lo = mid + 1; else hi = mid;
+      }
+      keys[j] = lo;
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the throughput, in thousands of accesses per second, of accessing
+   * the keys in order.
+   *
+   * @param favorites   an empty favorites list
+   * @param keys        the keys to access
+   * @return the throughput
+   */
+  static double run(FavoritesList<Integer> favorites, Integer[] keys) {
+    long start = System.nanoTime();
+    for (Integer key : keys)
+      favorites.access(key);
+    return keys.length / ((System.nanoTime() - start) / 1e6);
+  }
+
+  public static void main(String[] args) {
+    Integer[] keys = zipf(ACCESSES);
+    System.out.printf("%,d Zipf(%.1f) accesses over %,d keys%n%n", ACCESSES, EXPONENT, KEYS);
+    System.out.printf("%5s %22s %22s %22s %22s%n", "Round", "Walking(k access/s)", "Buckets(k access/s)",
+                      "Decaying(k access/s)", "Window(k access/s)");
+    for (int round = 1; round <= 3; round++) {
+      double walking = run(new WalkingFavoritesList<>(), keys);
+      double buckets = run(new FavoritesList<>(), keys);
+      double decaying = run(new DecayingFavoritesList<>(1_000_000_000L), keys);
+      double window = run(new SlidingWindowFavoritesList<>(1_000_000_000L, 10), keys);
+      System.out.printf("%5d %,22.1f %,22.1f %,22.1f %,22.1f%n", round, walking, buckets, decaying, window);
+    }
+  }
+}
@@ -22,46 +22,135 @@
  */
 package lists;
 
-
+import java.util.Arrays;
 
 /** Maintains a list of elements ordered with move-to-front heuristic. */
 public class FavoritesListMTF<E> extends FavoritesList<E> {
 
+  /** Scratch min-heap of the best items found by getFavorites. */
+  @SuppressWarnings({"unchecked"})
+  private Item<E>[] heap = (Item<E>[]) new Item<?>[0];
+
+  /** List index of each item of the scratch heap, which breaks ties in count. */
+  private int[] ranks = new int[0];
+
+  /**
+   * Returns the score by which getFavorites and rankOf order the items, which
+   * is the access count of the item.
+   */
+  protected double score(Item<E> item) { return item.getCount(); }
+
   /** Moves accessed item at Position p to the front of the list. */
   @Override
   protected void moveUp(Position<Item<E>> p) {
     if (p != list.first())
-      list.addFirst(list.remove(p));     // remove/reinsert item
+      list.moveBefore(p, list.first());  // relink item, keeping p valid
   }
 
-  /** Returns an iterable collection of the k most frequently accessed elements. */
+  /**
+   * Returns the rank of element e among the favorites, that is, its index in
+   * the order reported by getFavorites (or -1 if it is not in the list). The
+   * items are not kept in order of count, so this scans the whole list.
+   */
+  @Override
+  public int rankOf(E e) {
+    Position<Item<E>> p = findPosition(e);
+    if (p == null) return -1;
+    double sc = score(p.getElement());
+    int rank = 0;
+    boolean before = true;                        // still ahead of p in the list?
+    for (Position<Item<E>> walk = list.first(); walk != null; walk = list.after(walk)) {
+      double other = score(walk.getElement());
+      if (walk == p)
+        before = false;
+      else if (other > sc || (before && other == sc))
+        rank++;                                   // reported before e by getFavorites
+    }
+    return rank;
+  }
+
+  /**
+   * Returns an iterable collection of the k most frequently accessed elements,
+   * that is, those of the k items of highest score, with ties going to the
+   * element nearer the front of the list. A single scan of the list keeps the
+   * best k items seen so far in a min-heap, whose root is the worst of them, so
+   * this runs in O(n log k) time. The heap's arrays are kept for later calls,
+   * so only the returned collection is allocated.
+   */
   @Override
   public Iterable<E> getFavorites(int k) throws IllegalArgumentException {
     if (k < 0 || k > size())
       throw new IllegalArgumentException("Invalid k");
-
-    // we begin by making a copy of the original list
-    PositionalList<Item<E>> temp = new LinkedPositionalList<>();
-    for (Item<E> item : list)
-      temp.addLast(item);
-
-    // we repeated find, report, and remove element with largest count
-    PositionalList<E> result = new LinkedPositionalList<>();
-    for (int j=0; j < k; j++) {
-      Position<Item<E>> highPos = temp.first();
-      Position<Item<E>> walk = temp.after(highPos);
-      while (walk != null) {
-        if (count(walk) > count(highPos))
-          highPos = walk;
-        walk = temp.after(walk);
+    if (heap.length < k) {                        // grow the scratch arrays
+      heap = Arrays.copyOf(heap, Math.max(k, 2 * heap.length));
+      ranks = new int[heap.length];
+    }
+    int n = 0;
+    int rank = 0;                                 // index of walk in the list
+    for (Position<Item<E>> walk = list.first(); walk != null; walk = list.after(walk), rank++) {
+      if (n < k) {
+        heap[n] = walk.getElement();
+        ranks[n] = rank;
+        siftUp(n++);
+      } else if (k > 0 && worse(0, walk.getElement(), rank)) {
+        heap[0] = walk.getElement();              // replace the worst of the best k
+        ranks[0] = rank;
+        siftDown(0, n);
       }
-      // we have now found element with highest count
-      result.addLast(value(highPos));
-      temp.remove(highPos);
+    }
+    for (int m = n - 1; m > 0; m--) {             // heapsort: worst items move to the back
+      swap(0, m);
+      siftDown(0, m);
+    }
+    PositionalList<E> result = new LinkedPositionalList<>();
+    for (int j = 0; j < n; j++) {
+      result.addLast(heap[j].getValue());
+      heap[j] = null;                             // help garbage collection
     }
     return result;
   }
 
+  // utilities of the scratch heap
+  /** Returns whether the heap item at index i ranks below the given item of the given list index. */
+  private boolean worse(int i, Item<E> item, int rank) {
+    double a = score(heap[i]), b = score(item);
+    return a < b || (a == b && ranks[i] > rank);
+  }
+
+  /** Moves the heap item at index j up until its parent is worse than it. */
+  private void siftUp(int j) {
+    while (j > 0) {
+      int parent = (j - 1) / 2;
+      if (!worse(j, heap[parent], ranks[parent]))
+        break;
+      swap(j, parent);
+      j = parent;
+    }
+  }
+
+  /** Moves the heap item at index j down, within the first n entries, until no child is worse. */
+  private void siftDown(int j, int n) {
+    while (2 * j + 1 < n) {
+      int child = 2 * j + 1;
+      if (child + 1 < n && worse(child + 1, heap[child], ranks[child]))
+        child++;
+      if (!worse(child, heap[j], ranks[j]))
+        break;
+      swap(j, child);
+      j = child;
+    }
+  }
+
+  /** Swaps the heap entries at indices i and j. */
+  private void swap(int i, int j) {
+    Item<E> item = heap[i];
+    heap[i] = heap[j];
+    heap[j] = item;
+    int rank = ranks[i];
+    ranks[i] = ranks[j];
+    ranks[j] = rank;
+  }
+
   // test usage
   public static void main(String[] args) {
     test(new FavoritesListMTF<Character>());
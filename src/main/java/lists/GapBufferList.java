@@ -0,0 +1,225 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Realization of a list by means of a gap buffer: a dynamic array whose unused
+ * cells form a single movable gap, kept at the index of the most recent update.
+ * Elements before the gap are stored at their own index, while elements after
+ * the gap are stored at their index plus the length of the gap.
+ *
+ * <p>Accessing an element by index takes O(1) time, as with {@link ArrayList}.
+ * An update at index i moves the gap there first, which costs time proportional
+ * to the distance between i and the previous update, so a run of insertions or
+ * deletions clustered around one moving index (as in a text editor) takes O(1)
+ * amortized time per operation instead of shifting the whole tail each time.
+ */
+public class GapBufferList<E> implements List<E> {
+  // instance variables
+  /** Default array capacity. */
+  public static final int CAPACITY=16;     // default array capacity
+
+  /** Generic array used for storage of list elements and the gap. */
+  private E[] data;                        // generic array used for storage
+
+  /** Index of the first cell of the gap. */
+  private int gapStart = 0;                // first cell of the gap
+
+  /** Index just past the last cell of the gap. */
+  private int gapEnd;                      // first cell after the gap
+
+  // constructors
+  /** Creates a gap buffer list with default initial capacity. */
+  public GapBufferList() { this(CAPACITY); }   // constructs list with default capacity
+
+  /** Creates a gap buffer list with given initial capacity. */
+  @SuppressWarnings({"unchecked"})
+  public GapBufferList(int capacity) {     // constructs list with given capacity
+    data = (E[]) new Object[capacity];     // safe cast; compiler may give warning
+    gapEnd = capacity;                     // the whole array is gap
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return data.length - (gapEnd - gapStart); }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E get(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size());
+    return data[slot(i)];
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * The gap is not moved.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E set(int i, E e) throws IndexOutOfBoundsException {
+    checkIndex(i, size());
+    int k = slot(i);
+    E temp = data[k];
+    data[k] = e;
+    return temp;
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list. The gap is
+   * first moved to index i, and the element is then stored in its first cell.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  @Override
+  public void add(int i, E e) throws IndexOutOfBoundsException {
+    checkIndex(i, size() + 1);
+    if (gapStart == gapEnd)                // no room left in the gap
+      resize(Math.max(1, 2 * data.length));  // so double the current capacity
+    moveGap(i);
+    data[gapStart++] = e;                  // the gap shrinks from the left
+  }
+
+  /**
+   * Removes and returns the element at the given index. The gap is first moved
+   * to index i, and then absorbs the element that followed it.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E remove(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size());
+    moveGap(i);
+    E temp = data[gapEnd];
+    data[gapEnd++] = null;                 // help garbage collection; gap grows to the right
+    return temp;
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Returns the array cell storing the element at index i. */
+  private int slot(int i) {
+    return (i < gapStart) ? i : i + (gapEnd - gapStart);
+  }
+
+  /** Moves the gap so that it starts at index i, shifting only the elements in between. */
+  private void moveGap(int i) {
+    if (i < gapStart) {                    // elements [i, gapStart) move after the gap
+      int n = gapStart - i;
+      System.arraycopy(data, i, data, gapEnd - n, n);
+      Arrays.fill(data, i, Math.min(gapStart, gapEnd - n), null);
+      gapStart = i;
+      gapEnd -= n;
+    } else if (i > gapStart) {             // elements after the gap move before it
+      int n = i - gapStart;
+      System.arraycopy(data, gapEnd, data, gapStart, n);
+      Arrays.fill(data, Math.max(gapEnd, i), gapEnd + n, null);
+      gapStart = i;
+      gapEnd += n;
+    }
+  }
+
+  /** Resizes internal array to have given capacity >= size, keeping the gap in place. */
+  @SuppressWarnings({"unchecked"})
+  protected void resize(int capacity) {
+    E[] temp = (E[]) new Object[capacity];     // safe cast; compiler may give warning
+    int tail = data.length - gapEnd;           // number of elements after the gap
+    System.arraycopy(data, 0, temp, 0, gapStart);
+    System.arraycopy(data, gapEnd, temp, capacity - tail, tail);
+    gapEnd = capacity - tail;
+    data = temp;                               // start using the new array
+  }
+
+  //---------------- nested GapIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance contains an implicit
+   * reference to the containing list, allowing it to access the list's members.
+   */
+  private class GapIterator implements Iterator<E> {
+    /** Index of the next element to report. */
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size(); }
+
+    /**
+     * Returns the next object in the iterator.
+     *
+     * @return next object
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public E next() throws NoSuchElementException {
+      if (j == size()) throw new NoSuchElementException("No next element");
+      removable = true;   // this element can subsequently be removed
+      return data[slot(j++)];
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      GapBufferList.this.remove(j-1);   // that was the last one returned
+      j--;                              // next element now has the same index
+      removable = false;                // do not allow remove again until next is called
+    }
+  } //------------ end of nested GapIterator class ------------
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new GapIterator();       // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the list
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < size(); j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(data[slot(j)]);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
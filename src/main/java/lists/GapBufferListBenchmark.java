@@ -0,0 +1,76 @@
+package lists;
+
+import java.util.Random;
+
+/**
+ * Compares {@link GapBufferList} with {@link ArrayList} by replaying the same
+ * editor-style trace against both. The trace is recorded once from a seeded
+ * simulation of a user typing, backspacing and occasionally moving the cursor
+ * to a random place in a document, and each list then replays it verbatim.
+ */
+public class GapBufferListBenchmark {
+
+  /** Number of elements in the document before the trace is replayed. */
+  static final int DOCUMENT_SIZE = 50_000;
+
+  /** Number of insertions and deletions in the recorded trace. */
+  static final int TRACE_LENGTH = 200_000;
+
+  /**
+   * Records an edit trace. Each entry k &gt;= 0 means "insert at index k", and
+   * each entry k &lt; 0 means "remove at index -k-1".
+   *
+   * @param seed   seed of the simulated user
+   * @return the recorded trace
+   */
+  static int[] recordTrace(long seed) {
+    Random random = new Random(seed);
+    int[] trace = new int[TRACE_LENGTH];
+    int size = DOCUMENT_SIZE;
+    int cursor = size / 2;
+    for (int k = 0; k < trace.length; k++) {
+      if (random.nextInt(500) == 0)                  // the user jumps elsewhere
+        cursor = random.nextInt(size + 1);
+      if (cursor > 0 && random.nextInt(4) == 0) {    // backspace
+        trace[k] = -cursor;                          // remove at cursor-1
+        cursor--;
+        size--;
+      } else {                                       // type one character
+        trace[k] = cursor++;
+        size++;
+      }
+    }
+    return trace;
+  }
+
+  /**
+   * Fills the list with the initial document and replays the trace on it.
+   *
+   * @param list    an empty list
+   * @param trace   the recorded trace
+   * @return the time taken by the replay, in nanoseconds
+   */
+  static long replay(List<Character> list, int[] trace) {
+    for (int k = 0; k < DOCUMENT_SIZE; k++)
+      list.add(k, (char) ('a' + k % 26));
+    long start = System.nanoTime();
+    for (int op : trace) {
+      if (op >= 0)
+        list.add(op, 'x');
+      else
+        list.remove(-op - 1);
+    }
+    return System.nanoTime() - start;
+  }
+
+  public static void main(String[] args) {
+    int[] trace = recordTrace(254);
+    System.out.printf("Replaying %,d edits on a %,d element document%n%n", TRACE_LENGTH, DOCUMENT_SIZE);
+    System.out.printf("%5s %20s %20s%n", "Round", "ArrayList(ms)", "GapBufferList(ms)");
+    for (int round = 1; round <= 3; round++) {
+      long array = replay(new ArrayList<>(), trace);
+      long gap = replay(new GapBufferList<>(), trace);
+      System.out.printf("%5d %,20d %,20d%n", round, array / 1_000_000, gap / 1_000_000);
+    }
+  }
+}
@@ -0,0 +1,467 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a positional list that also knows the index of every
+ * position. The nodes are threaded into a doubly linked list, exactly as in
+ * {@link LinkedPositionalList}, so that first, last, before and after run in
+ * O(1) time. They are at the same time the nodes of a treap: a binary search
+ * tree in list order, balanced by random priorities, in which every node
+ * records the size of its subtree.
+ *
+ * <p>An insertion next to a position attaches the new node as a leaf beside it
+ * in the tree, and a removal rotates the node down to a leaf and detaches it.
+ * Either takes O(1) expected rotations, plus O(log n) expected time to update
+ * the subtree sizes along the path to the root. {@link #indexOf} climbs from a
+ * node to the root, and {@link #positionAt} descends from the root, so both run
+ * in O(log n) expected time.
+ */
+public class IndexedPositionalList<E> implements PositionalList<E> {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of the list, which is both a link of a doubly linked list and a
+   * node of a treap.
+   */
+  private static class Node<E> implements Position<E> {
+    private E element;               // reference to the element stored at this node
+    private Node<E> prev;            // reference to the previous node in the list
+    private Node<E> next;            // reference to the subsequent node in the list
+    private Node<E> parent;          // parent in the tree (null for the root)
+    private Node<E> left;            // left child in the tree
+    private Node<E> right;           // right child in the tree
+    private int size = 1;            // number of nodes in this subtree
+    private final int priority;      // heap priority; a parent's is never smaller
+
+    /**
+     * Creates a node with the given element and priority.
+     *
+     * @param e          the element to be stored
+     * @param priority   the heap priority of the node
+     */
+    Node(E e, int priority) {
+      element = e;
+      this.priority = priority;
+    }
+
+    /**
+     * Returns the element stored at the node.
+     * @return the stored element
+     * @throws IllegalStateException if node not currently linked to others
+     */
+    public E getElement() throws IllegalStateException {
+      if (next == null)                         // convention for defunct node
+        throw new IllegalStateException("Position no longer valid");
+      return element;
+    }
+  } //----------- end of nested Node class -----------
+
+  // instance variables of the IndexedPositionalList
+  /** Sentinel node at the beginning of the list; not part of the tree */
+  private final Node<E> header = new Node<>(null, 0);
+
+  /** Sentinel node at the end of the list; not part of the tree */
+  private final Node<E> trailer = new Node<>(null, 0);
+
+  /** Root of the tree (null if the list is empty) */
+  private Node<E> root = null;
+
+  /** State of the generator of priorities */
+  private int seed = 0x2545F491;                // any nonzero value
+
+  /** Constructs a new empty list. */
+  public IndexedPositionalList() {
+    header.next = trailer;                      // header is followed by trailer
+    trailer.prev = header;                      // trailer is preceded by header
+  }
+
+  // private utilities
+  /**
+   * Verifies that a Position belongs to the appropriate class, and is
+   * not one that has been previously removed. Note that our current
+   * implementation does not actually verify that the position belongs
+   * to this particular list instance.
+   *
+   * @param p   a Position (that should belong to this list)
+   * @return    the underlying Node instance at that position
+   * @throws IllegalArgumentException if an invalid position is detected
+   */
+  private Node<E> validate(Position<E> p) throws IllegalArgumentException {
+    if (!(p instanceof Node)) throw new IllegalArgumentException("Invalid p");
+    Node<E> node = (Node<E>) p;     // safe cast
+    if (node.next == null)          // convention for defunct node
+      throw new IllegalArgumentException("p is no longer in the list");
+    return node;
+  }
+
+  /**
+   * Returns the given node as a Position, unless it is a sentinel, in which case
+   * null is returned (so as not to expose the sentinels to the user).
+   */
+  private Position<E> position(Node<E> node) {
+    if (node == header || node == trailer)
+      return null;   // do not expose user to the sentinels
+    return node;
+  }
+
+  /** Returns the size of the given subtree. */
+  private static int size(Node<?> node) { return (node == null) ? 0 : node.size; }
+
+  /** Returns the next priority, from a xorshift generator. */
+  private int nextPriority() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 17;
+    seed ^= seed << 5;
+    return seed;
+  }
+
+  /**
+   * Rotates node x above its parent, keeping the list order of the tree and
+   * the sizes of both nodes up to date.
+   */
+  private void rotateUp(Node<E> x) {
+    Node<E> y = x.parent;
+    Node<E> z = y.parent;
+    if (x == y.left) {
+      y.left = x.right;
+      if (x.right != null) x.right.parent = y;
+      x.right = y;
+    } else {
+      y.right = x.left;
+      if (x.left != null) x.left.parent = y;
+      x.left = y;
+    }
+    y.parent = x;
+    x.parent = z;
+    if (z == null) root = x;
+    else if (z.left == y) z.left = x;
+    else z.right = x;
+    x.size = y.size;
+    y.size = 1 + size(y.left) + size(y.right);
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size(root); }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return root == null; }
+
+  /**
+   * Returns the first Position in the list.
+   *
+   * @return the first Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> first() {
+    return position(header.next);
+  }
+
+  /**
+   * Returns the last Position in the list.
+   *
+   * @return the last Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> last() {
+    return position(trailer.prev);
+  }
+
+  /**
+   * Returns the Position immediately before Position p.
+   * @param p   a Position of the list
+   * @return the Position of the preceding element (or null, if p is first)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> before(Position<E> p) throws IllegalArgumentException {
+    return position(validate(p).prev);
+  }
+
+  /**
+   * Returns the Position immediately after Position p.
+   * @param p   a Position of the list
+   * @return the Position of the following element (or null, if p is last)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> after(Position<E> p) throws IllegalArgumentException {
+    return position(validate(p).next);
+  }
+
+  /**
+   * Returns the index of the given position, in O(log n) expected time.
+   * @param p   a Position of the list
+   * @return the index of p (or -1, if p is null)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public int indexOf(Position<E> p) throws IllegalArgumentException {
+    if (p == null) return -1;
+    Node<E> node = validate(p);
+    int index = size(node.left);
+    for (Node<E> walk = node; walk.parent != null; walk = walk.parent)
+      if (walk == walk.parent.right)           // the parent and its left subtree come first
+        index += size(walk.parent.left) + 1;
+    return index;
+  }
+
+  /**
+   * Returns the position of the element at the given index, in O(log n)
+   * expected time.
+   * @param i the index of the element
+   * @return the position of the element at index i
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public Position<E> positionAt(int i) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= size())
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+    Node<E> walk = root;
+    while (true) {
+      int k = size(walk.left);
+      if (i < k)
+        walk = walk.left;
+      else if (i == k)
+        return walk;
+      else {
+        i -= k + 1;
+        walk = walk.right;
+      }
+    }
+  }
+
+  // private utilities
+  /**
+   * Adds an element to the list between the given neighboring nodes. The new
+   * node becomes a leaf of the tree, as the right child of pred or else the
+   * left child of succ (one of which is free), and then rotates up until its
+   * priority is in heap order.
+   *
+   * @param pred     node just before the location where the new element is inserted
+   * @param succ     node just after the location where the new element is inserted
+   * @return the new element's node
+   */
+  private Position<E> addBetween(E e, Node<E> pred, Node<E> succ) {
+    Node<E> newest = new Node<>(e, nextPriority());
+    newest.prev = pred;
+    newest.next = succ;
+    pred.next = newest;
+    succ.prev = newest;
+    if (root == null)
+      root = newest;
+    else {
+      if (pred != header && pred.right == null) {
+        pred.right = newest;
+        newest.parent = pred;
+      } else {                                 // succ is the leftmost node of pred's right subtree
+        succ.left = newest;
+        newest.parent = succ;
+      }
+      for (Node<E> walk = newest.parent; walk != null; walk = walk.parent)
+        walk.size++;
+      while (newest.parent != null && newest.parent.priority < newest.priority)
+        rotateUp(newest);
+    }
+    return newest;
+  }
+
+  // public update methods
+  /**
+   * Inserts an element at the front of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addFirst(E e) {
+    return addBetween(e, header, header.next);       // just after the header
+  }
+
+  /**
+   * Inserts an element at the back of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addLast(E e) {
+    return addBetween(e, trailer.prev, trailer);     // just before the trailer
+  }
+
+  /**
+   * Inserts an element immediately before the given Position.
+   *
+   * @param p the Position before which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    return addBetween(e, node.prev, node);
+  }
+
+  /**
+   * Inserts an element immediately after the given Position.
+   *
+   * @param p the Position after which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    return addBetween(e, node, node.next);
+  }
+
+  /**
+   * Replaces the element stored at the given Position and returns the replaced element.
+   *
+   * @param p the Position of the element to be replaced
+   * @param e the new element
+   * @return the replaced element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E set(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    E answer = node.element;
+    node.element = e;
+    return answer;
+  }
+
+  /**
+   * Removes the element stored at the given Position and returns it.
+   * The given position is invalidated as a result.
+   *
+   * @param p the Position of the element to be removed
+   * @return the removed element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E remove(Position<E> p) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    while (node.left != null && node.right != null)   // rotate down, keeping heap order
+      rotateUp(node.left.priority > node.right.priority ? node.left : node.right);
+    Node<E> child = (node.left != null) ? node.left : node.right;
+    Node<E> parent = node.parent;
+    if (child != null) child.parent = parent;
+    if (parent == null) root = child;
+    else if (parent.left == node) parent.left = child;
+    else parent.right = child;
+    for (Node<E> walk = parent; walk != null; walk = walk.parent)
+      walk.size--;
+    E answer = node.element;
+    node.element = null;             // help with garbage collection
+    node.next = null;                // and convention for defunct node
+    node.prev = node.parent = node.left = node.right = null;
+    return answer;
+  }
+
+  // support for iterating either positions and elements
+  //---------------- nested PositionIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance
+   * contains an implicit reference to the containing list,
+   * allowing us to call the list's methods directly.
+   */
+  private class PositionIterator implements Iterator<Position<E>> {
+
+    /** A Position of the containing list, initialized to the first position. */
+    private Position<E> cursor = first();   // position of the next element to report
+    /** A Position of the most recent element reported (if any). */
+    private Position<E> recent = null;       // position of last reported element
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return (cursor != null);  }
+
+    /**
+     * Returns the next position in the iterator.
+     *
+     * @return next position
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public Position<E> next() throws NoSuchElementException {
+      if (cursor == null) throw new NoSuchElementException("nothing left");
+      recent = cursor;           // element at this position might later be removed
+      cursor = after(cursor);
+      return recent;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (recent == null) throw new IllegalStateException("nothing to remove");
+      IndexedPositionalList.this.remove(recent);         // remove from outer list
+      recent = null;               // do not allow remove again until next is called
+    }
+  } //------------ end of nested PositionIterator class ------------
+
+  //---------------- nested PositionIterable class ----------------
+  private class PositionIterable implements Iterable<Position<E>> {
+    public Iterator<Position<E>> iterator() { return new PositionIterator(); }
+  } //------------ end of nested PositionIterable class ------------
+
+  /**
+   * Returns an iterable representation of the list's positions.
+   * @return iterable representation of the list's positions
+   */
+  @Override
+  public Iterable<Position<E>> positions() {
+    return new PositionIterable();       // create a new instance of the inner class
+  }
+
+  //---------------- nested ElementIterator class ----------------
+  /* This class adapts the iteration produced by positions() to return elements. */
+  private class ElementIterator implements Iterator<E> {
+    Iterator<Position<E>> posIterator = new PositionIterator();
+    public boolean hasNext() { return posIterator.hasNext(); }
+    public E next() { return posIterator.next().getElement(); } // return element!
+    public void remove() { posIterator.remove(); }
+  }
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() { return new ElementIterator(); }
+
+  // Debugging code
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    Node<E> walk = header.next;
+    while (walk != trailer) {
+      sb.append(walk.element);
+      walk = walk.next;
+      if (walk != trailer)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -22,6 +22,7 @@
  */
 package lists;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -331,6 +332,204 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
     return answer;
   }
 
+  // relinking methods, which keep the moved positions valid
+  /**
+   * Moves the element at Position p so that it comes immediately before
+   * Position q. The node of p is relinked rather than recreated, so p remains
+   * a valid position of the element. This method runs in O(1) time.
+   *
+   * @param p the Position of the element to be moved
+   * @param q the Position before which the element is placed
+   * @throws IllegalArgumentException if p or q is not a valid position for this list
+   */
+  public void moveBefore(Position<E> p, Position<E> q) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    Node<E> succ = validate(q);
+    if (node == succ || node.getNext() == succ) return;   // already in place
+    unlink(node, node);
+    linkBetween(node, node, succ.getPrev(), succ);
+  }
+
+  /**
+   * Moves the element at Position p so that it comes immediately after
+   * Position q. The node of p is relinked rather than recreated, so p remains
+   * a valid position of the element. This method runs in O(1) time.
+   *
+   * @param p the Position of the element to be moved
+   * @param q the Position after which the element is placed
+   * @throws IllegalArgumentException if p or q is not a valid position for this list
+   */
+  public void moveAfter(Position<E> p, Position<E> q) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    Node<E> pred = validate(q);
+    if (node == pred || node.getPrev() == pred) return;   // already in place
+    unlink(node, node);
+    linkBetween(node, node, pred, pred.getNext());
+  }
+
+  /**
+   * Moves the run of elements from Position from through Position to, which
+   * must not come before from, so that it comes immediately before Position
+   * before of the target list (or at its end, if before is null). The target
+   * may be this list. The nodes are relinked rather than recreated, so all of
+   * the moved positions remain valid, and now belong to the target list.
+   *
+   * <p>The relinking takes O(1) time, but the run is walked once to count its
+   * elements and to check that it is well formed, so this method runs in time
+   * proportional to the length of the run.
+   *
+   * @param from     the Position of the first element to be moved
+   * @param to       the Position of the last element to be moved
+   * @param target   the list receiving the elements
+   * @param before   the Position of target before which the run is placed (or null)
+   * @throws IllegalArgumentException if a position is not valid, if to does
+   *         not follow from, or if before lies within the run
+   */
+  public void splice(Position<E> from, Position<E> to,
+                     LinkedPositionalList<E> target, Position<E> before)
+                     throws IllegalArgumentException {
+    Node<E> first = validate(from);
+    Node<E> last = validate(to);
+    Node<E> succ = (before == null) ? target.trailer : target.validate(before);
+    int count = 1;
+    for (Node<E> walk = first; walk != last; count++) {
+      if (walk == succ)
+        throw new IllegalArgumentException("before lies within the run");
+      walk = walk.getNext();
+      if (walk.getNext() == null)                 // walked onto a trailer
+        throw new IllegalArgumentException("to does not follow from");
+    }
+    if (last == succ)
+      throw new IllegalArgumentException("before lies within the run");
+    if (last.getNext() == succ) return;           // already in place
+    unlink(first, last);
+    size -= count;
+    linkBetween(first, last, succ.getPrev(), succ);
+    target.size += count;
+  }
+
+  /**
+   * Sorts the list according to the order induced by the given comparator.
+   * The sort is a bottom-up natural merge sort: each pass merges pairs of
+   * adjacent nondecreasing runs, so input that is already sorted takes a
+   * single pass, and n elements in r runs are sorted in O(n log r) time.
+   * The sort is stable. It relinks the existing nodes and allocates nothing,
+   * so every position stays valid and keeps its element.
+   *
+   * @param comp   the comparator that determines the order
+   */
+  public void sort(Comparator<? super E> comp) {
+    if (size < 2) return;
+    trailer.getPrev().setNext(null);            // treat the nodes as a singly linked list
+    boolean merged;
+    do {
+      merged = false;
+      Node<E> tail = header;                    // merged runs are appended after tail
+      Node<E> rest = header.getNext();
+      while (rest != null) {
+        Node<E> a = rest;
+        Node<E> aEnd = runEnd(a, comp);
+        Node<E> b = aEnd.getNext();
+        if (b == null) {                        // a lone run is carried over as it is
+          tail.setNext(a);
+          break;
+        }
+        Node<E> bEnd = runEnd(b, comp);
+        rest = bEnd.getNext();
+        aEnd.setNext(null);
+        bEnd.setNext(null);
+        tail = merge(a, aEnd, b, bEnd, tail, comp);
+        merged = true;
+      }
+    } while (merged);
+    Node<E> walk = header;                      // restore the prev links
+    while (walk.getNext() != null) {
+      walk.getNext().setPrev(walk);
+      walk = walk.getNext();
+    }
+    walk.setNext(trailer);
+    trailer.setPrev(walk);
+  }
+
+  /**
+   * Merges the elements of another list, which like this one must be sorted
+   * according to the given comparator, into this list, leaving the other list
+   * empty. Ties are resolved in favor of the elements of this list, so the
+   * merge is stable. The nodes of the other list are relinked into this one,
+   * so its positions stay valid and now belong to this list. This method runs
+   * in O(n) time and allocates nothing.
+   *
+   * @param other   the sorted list whose elements are merged into this one
+   * @param comp    the comparator by which both lists are sorted
+   * @throws IllegalArgumentException if other is this list
+   */
+  public void merge(LinkedPositionalList<E> other, Comparator<? super E> comp)
+                    throws IllegalArgumentException {
+    if (other == this) throw new IllegalArgumentException("Cannot merge a list with itself");
+    if (other.isEmpty()) return;
+    if (isEmpty()) {
+      other.splice(other.first(), other.last(), this, null);
+      return;
+    }
+    Node<E> a = header.getNext(), aEnd = trailer.getPrev();
+    Node<E> b = other.header.getNext(), bEnd = other.trailer.getPrev();
+    aEnd.setNext(null);                          // treat both runs as singly linked
+    bEnd.setNext(null);
+    Node<E> walk = merge(a, aEnd, b, bEnd, header, comp);
+    walk.setNext(trailer);
+    trailer.setPrev(walk);
+    for (walk = header; walk != trailer; walk = walk.getNext())
+      walk.getNext().setPrev(walk);              // restore the prev links
+    size += other.size;
+    other.header.setNext(other.trailer);         // the other list is left empty
+    other.trailer.setPrev(other.header);
+    other.size = 0;
+  }
+
+  // private utilities
+  /** Returns the last node of the nondecreasing run starting at the given node. */
+  private static <E> Node<E> runEnd(Node<E> node, Comparator<? super E> comp) {
+    while (node.getNext() != null && comp.compare(node.getNext().element, node.element) >= 0)
+      node = node.getNext();
+    return node;
+  }
+
+  /**
+   * Merges the null-terminated runs a through aEnd and b through bEnd, which
+   * follows it, appending the result after tail, and returns the last node.
+   * Ties are taken from run a, which keeps the merge stable.
+   */
+  private static <E> Node<E> merge(Node<E> a, Node<E> aEnd, Node<E> b, Node<E> bEnd,
+                                   Node<E> tail, Comparator<? super E> comp) {
+    while (a != null && b != null) {
+      if (comp.compare(b.element, a.element) < 0) {
+        tail.setNext(b);
+        tail = b;
+        b = b.getNext();
+      } else {
+        tail.setNext(a);
+        tail = a;
+        a = a.getNext();
+      }
+    }
+    tail.setNext((a != null) ? a : b);          // append what is left of either run
+    return (a != null) ? aEnd : bEnd;
+  }
+
+  /** Unlinks the run of nodes from first through last, leaving their inner links intact. */
+  private static <E> void unlink(Node<E> first, Node<E> last) {
+    first.getPrev().setNext(last.getNext());
+    last.getNext().setPrev(first.getPrev());
+  }
+
+  /** Links the run of nodes from first through last between two neighboring nodes. */
+  private static <E> void linkBetween(Node<E> first, Node<E> last, Node<E> pred, Node<E> succ) {
+    first.setPrev(pred);
+    last.setNext(succ);
+    pred.setNext(first);
+    succ.setPrev(last);
+  }
+
   // support for iterating either positions and elements
   //---------------- nested PositionIterator class ----------------
   /**
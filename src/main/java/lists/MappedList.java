@@ -0,0 +1,428 @@
+package lists;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Realization of a persistent list by means of two memory-mapped files. The
+ * data file holds the encodings of the elements, as produced by an
+ * {@link ElementCodec}, and only ever grows at its end. The index file holds a
+ * short header followed by one 16-byte entry per element, in list order, giving
+ * the offset and the length of its encoding in the data file.
+ *
+ * <p>Opening an existing list reads only the header, so it takes O(1) time
+ * however large the list is: the rest of both files is mapped chunk by chunk
+ * on first access, and its pages are loaded by the operating system when they
+ * are touched. Mapping a chunk past the end of a file extends the file, so
+ * both files grow by whole chunks.
+ *
+ * <p>get decodes an element in O(1) time. add and remove shift the index
+ * entries after the given index, much like {@link ArrayList} shifts its array,
+ * but never move any encoding. set and remove leave the old encoding behind in
+ * the data file; copying the list into a new one reclaims that space.
+ *
+ * <p>Updates reach the files through the page cache, and the operating system
+ * may write the changed pages back at any time and in any order. {@link #force}
+ * is a durability point: once it returns, every earlier update is on the
+ * storage device. The list is not crash consistent, however: after a crash
+ * between two calls to force, the header and the index entries may be in any
+ * mixture of their old and new states, and the list may not reopen as it was.
+ */
+public class MappedList<E> implements List<E>, AutoCloseable {
+  // instance variables
+  /** Default number of bytes per mapped chunk. */
+  public static final int CHUNK_BYTES = 1 << 26;   // 64 megabytes
+
+  /** Number of bytes of an index entry. */
+  private static final int ENTRY = 16;
+
+  /** Number of index entries taken by the header. */
+  private static final int HEADER_ENTRIES = 2;
+
+  /** Marks the header of an index file. */
+  private static final int MAGIC = 0x4C495354;     // "LIST"
+
+  /** Codec translating elements to and from their encodings. */
+  private final ElementCodec<E> codec;
+
+  /** Base 2 logarithm of the chunk size. */
+  private final int shift;
+
+  /** Chunk size minus one. */
+  private final long mask;
+
+  /** The data file holding the encodings. */
+  private MappedFile data;
+
+  /** The index file holding the header and the entries. */
+  private MappedFile index;
+
+  /** Current number of elements in the list. */
+  private int size;                        // current number of elements
+
+  /** Offset at which the next encoding will be written. */
+  private long dataEnd;
+
+  // constructors
+  /**
+   * Opens the list stored in the given data file and in the index file of the
+   * same name with an added ".idx" suffix, creating both if they do not exist.
+   * New files are mapped in chunks of CHUNK_BYTES bytes.
+   * @param  path    the path of the data file
+   * @param  codec   the codec of the elements
+   * @throws IOException if the files cannot be opened, or are not a list
+   */
+  public MappedList(Path path, ElementCodec<E> codec) throws IOException {
+    this(path, codec, CHUNK_BYTES);
+  }
+
+  /**
+   * Opens the list stored in the given data file and in the index file of the
+   * same name with an added ".idx" suffix, creating both if they do not exist.
+   * An existing list keeps the chunk size it was created with.
+   * @param  path         the path of the data file
+   * @param  codec        the codec of the elements
+   * @param  chunkBytes   the chunk size of new files, a power of two of at least 64
+   * @throws IOException if the files cannot be opened, or are not a list
+   * @throws IllegalArgumentException if chunkBytes is not a valid chunk size
+   */
+  public MappedList(Path path, ElementCodec<E> codec, int chunkBytes) throws IOException {
+    if (chunkBytes < 4 * ENTRY || Integer.bitCount(chunkBytes) != 1)
+      throw new IllegalArgumentException("Chunk size must be a power of two of at least " + 4 * ENTRY);
+    this.codec = codec;
+    Path indexPath = path.resolveSibling(path.getFileName() + ".idx");
+    FileChannel indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (indexChannel.size() >= HEADER_ENTRIES * ENTRY) {   // an existing list
+      ByteBuffer header = ByteBuffer.allocate(HEADER_ENTRIES * ENTRY);
+      while (header.hasRemaining() && indexChannel.read(header, header.position()) >= 0)
+        ;
+      if (header.getInt(0) != MAGIC || Integer.bitCount(header.getInt(4)) != 1) {
+        indexChannel.close();
+        throw new IOException("Not a list index: " + indexPath);
+      }
+      chunkBytes = header.getInt(4);
+      size = header.getInt(8);
+      dataEnd = header.getLong(16);
+    }
+    shift = Integer.numberOfTrailingZeros(chunkBytes);
+    mask = chunkBytes - 1;
+    index = new MappedFile(indexChannel, chunkBytes);
+    data = new MappedFile(FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE), chunkBytes);
+    writeHeader();
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i, decoding it from the
+   * data file.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E get(int i) throws IndexOutOfBoundsException, IllegalStateException {
+    checkIndex(i, size);
+    long slot = (long) (i + HEADER_ENTRIES) * ENTRY;
+    ByteBuffer entries = index().chunk(slot >>> shift);
+    int o = (int) (slot & mask);
+    long offset = entries.getLong(o);
+    return codec.decode(data.chunk(offset >>> shift), (int) (offset & mask), entries.getInt(o + 8));
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * The new element is appended to the data file.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalArgumentException if the encoding of e is longer than a chunk
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E set(int i, E e) throws IndexOutOfBoundsException {
+    E temp = get(i);
+    writeEntry(i, append(e), codec.encodedSize(e));
+    writeHeader();
+    return temp;
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list, shifting all
+   * subsequent entries of the index file one position further.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   * @throws IllegalArgumentException if the encoding of e is longer than a chunk
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void add(int i, E e) throws IndexOutOfBoundsException {
+    checkIndex(i, size + 1);
+    index();
+    long offset = append(e);
+    moveEntries(i, i + 1, size - i);
+    writeEntry(i, offset, codec.encodedSize(e));
+    size++;
+    writeHeader();
+  }
+
+  /**
+   * Removes and returns the element at the given index, shifting all subsequent
+   * entries of the index file one position closer to the front.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E remove(int i) throws IndexOutOfBoundsException {
+    E temp = get(i);
+    moveEntries(i + 1, i, size - i - 1);
+    size--;
+    writeHeader();
+    return temp;
+  }
+
+  /**
+   * Writes all changes to both files to the storage device.
+   * @throws UncheckedIOException if writing fails
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void force() {
+    index();
+    data.force();
+    index.force();
+  }
+
+  /**
+   * Forces all changes to the storage device and closes both files. Further
+   * operations on the list, other than size, isEmpty and close, throw an
+   * IllegalStateException.
+   * @throws IOException if writing or closing fails
+   */
+  public void close() throws IOException {
+    if (index == null) return;
+    try {
+      force();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      try {
+        data.close();
+      } finally {
+        index.close();
+        data = index = null;
+      }
+    }
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Returns the index file, throwing an IllegalStateException if the list has been closed. */
+  private MappedFile index() throws IllegalStateException {
+    if (index == null) throw new IllegalStateException("List is closed");
+    return index;
+  }
+
+  /**
+   * Appends the encoding of e to the data file, starting a new chunk if it
+   * would not fit in the current one, and returns its offset.
+   */
+  private long append(E e) throws IllegalArgumentException {
+    int length = codec.encodedSize(e);
+    if (length > mask + 1) throw new IllegalArgumentException("Element too large: " + length + " bytes");
+    if ((dataEnd & mask) + length > mask + 1)  // skip to the next chunk boundary
+      dataEnd = (dataEnd | mask) + 1;
+    long offset = dataEnd;
+    codec.encode(e, data.chunk(offset >>> shift), (int) (offset & mask));
+    dataEnd += length;
+    return offset;
+  }
+
+  /** Writes the entry of index i. */
+  private void writeEntry(int i, long offset, int length) {
+    long slot = (long) (i + HEADER_ENTRIES) * ENTRY;
+    ByteBuffer entries = index.chunk(slot >>> shift);
+    int o = (int) (slot & mask);
+    entries.putLong(o, offset);
+    entries.putInt(o + 8, length);
+  }
+
+  /**
+   * Writes the header to the start of the index file: the magic number, the
+   * chunk size and the size as ints, then the end of the data as a long.
+   */
+  private void writeHeader() {
+    ByteBuffer header = index.chunk(0);
+    header.putInt(0, MAGIC);
+    header.putInt(4, (int) (mask + 1));
+    header.putInt(8, size);
+    header.putLong(16, dataEnd);
+  }
+
+  /**
+   * Copies the n entries starting at index from to the n entries starting at
+   * index to, with one block copy per chunk boundary. The ranges may overlap.
+   */
+  private void moveEntries(int from, int to, int n) {
+    if (n <= 0) return;
+    int perChunk = (int) ((mask + 1) / ENTRY);
+    int m = perChunk - 1;
+    int s = Integer.numberOfTrailingZeros(perChunk);
+    from += HEADER_ENTRIES;                    // from here on, slots of the index file
+    to += HEADER_ENTRIES;
+    if (from > to) {                           // copy front to back
+      while (n > 0) {
+        int k = Math.min(n, Math.min(perChunk - (from & m), perChunk - (to & m)));
+        index.chunk(to >>> s).put((to & m) * ENTRY, index.chunk(from >>> s), (from & m) * ENTRY, k * ENTRY);
+        from += k;
+        to += k;
+        n -= k;
+      }
+    } else {                                   // copy back to front
+      int fromEnd = from + n, toEnd = to + n;
+      while (n > 0) {
+        int k = Math.min(n, Math.min(((fromEnd - 1) & m) + 1, ((toEnd - 1) & m) + 1));
+        fromEnd -= k;
+        toEnd -= k;
+        index.chunk(toEnd >>> s).put((toEnd & m) * ENTRY, index.chunk(fromEnd >>> s), (fromEnd & m) * ENTRY, k * ENTRY);
+        n -= k;
+      }
+    }
+  }
+
+  //---------------- nested MappedFile class ----------------
+  /**
+   * A file mapped into memory in chunks of a fixed size, each of which is
+   * mapped on first access.
+   */
+  private static class MappedFile {
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[4];
+
+    MappedFile(FileChannel channel, int chunkBytes) {
+      this.channel = channel;
+      this.chunkBytes = chunkBytes;
+    }
+
+    /** Returns chunk c, mapping it (and extending the file) if necessary. */
+    MappedByteBuffer chunk(long c) {
+      if (c >= chunks.length)
+        chunks = Arrays.copyOf(chunks, (int) Math.max(2 * chunks.length, c + 1));
+      MappedByteBuffer chunk = chunks[(int) c];
+      if (chunk == null) {
+        try {
+          chunk = chunks[(int) c] = channel.map(FileChannel.MapMode.READ_WRITE, c * chunkBytes, chunkBytes);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return chunk;
+    }
+
+    /** Writes the mapped chunks to the storage device. */
+    void force() {
+      for (MappedByteBuffer chunk : chunks)
+        if (chunk != null)
+          chunk.force();
+    }
+
+    /** Closes the channel; the mappings are released when they become unreachable. */
+    void close() throws IOException {
+      chunks = null;
+      channel.close();
+    }
+  } //------------ end of nested MappedFile class ------------
+
+  //---------------- nested MappedIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance contains an implicit
+   * reference to the containing list, allowing it to access the list's members.
+   */
+  private class MappedIterator implements Iterator<E> {
+    /** Index of the next element to report. */
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size; }   // size is field of outer instance
+
+    /**
+     * Returns the next object in the iterator, decoding it from the data file.
+     *
+     * @return next object
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public E next() throws NoSuchElementException {
+      if (j == size) throw new NoSuchElementException("No next element");
+      removable = true;   // this element can subsequently be removed
+      return get(j++);
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      MappedList.this.remove(j-1);    // that was the last one returned
+      j--;                            // next element has shifted one cell to the left
+      removable = false;              // do not allow remove again until next is called
+    }
+  } //------------ end of nested MappedIterator class ------------
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new MappedIterator();    // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the list
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < size; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(get(j));
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,66 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Merge sort of a positional list. A {@link LinkedPositionalList} is sorted in
+ * place by relinking its nodes, which allocates nothing and keeps every
+ * position attached to its element. Any other positional list is sorted by
+ * copying its elements to an array, sorting the array, and storing the
+ * elements back into the positions in order.
+ */
+public class MergeSort {
+
+  /**
+   * Sorts the list into nondecreasing order according to the comparator.
+   * The sort is stable and runs in O(n log n) time.
+   *
+   * @param list   the list to be sorted
+   * @param comp   the comparator that determines the order
+   */
+  public static <E> void sort(PositionalList<E> list, Comparator<? super E> comp) {
+    if (list instanceof LinkedPositionalList) {
+      ((LinkedPositionalList<E>) list).sort(comp);
+      return;
+    }
+    @SuppressWarnings({"unchecked"})
+    E[] data = (E[]) new Object[list.size()];
+    int k = 0;
+    for (E e : list)
+      data[k++] = e;
+    Arrays.sort(data, comp);                     // also a stable, natural merge sort
+    k = 0;
+    for (Position<E> p : list.positions())
+      list.set(p, data[k++]);
+  }
+
+  /**
+   * Sorts a list of comparable elements into nondecreasing order.
+   *
+   * @param list   the list to be sorted
+   */
+  public static <E extends Comparable<? super E>> void sort(PositionalList<E> list) {
+    sort(list, Comparator.naturalOrder());
+  }
+
+  public static void main(String[] args) {
+    int[][] tests = {
+      {},
+      {1},
+      {1, 2},
+      {2, 1},
+      {3, 5, 2, 4, 1, 9, 10, 12, 11, 8, 7, 6},
+    };
+
+    for (int[] raw : tests) {
+      PositionalList<Integer> data = new LinkedPositionalList<>();
+      for (int c : raw)
+        data.addLast(c);
+      System.out.println("Before: " + data);
+      sort(data);
+      System.out.println("After:  " + data);
+      System.out.println();
+    }
+  }
+}
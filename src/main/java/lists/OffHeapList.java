@@ -0,0 +1,433 @@
+package lists;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Realization of a list that keeps its elements outside the Java heap, as
+ * fixed-width binary records in direct byte buffers. A {@link RecordCodec}
+ * translates each element to and from its record, so that the garbage
+ * collector never sees the stored elements: get decodes a record on demand,
+ * and set and add encode it in place. The raw accessors, such as
+ * {@link #getLong}, read and write single fields without decoding the whole
+ * record, and so create no garbage at all.
+ *
+ * <p>Records are stored contiguously in chunks holding a power-of-two number of
+ * records each, so that the list can grow beyond the 2GB limit of a single
+ * buffer without copying. Chunks use the native byte order, which is also the
+ * order of the bytes written by {@link #store} and read by {@link #load}.
+ *
+ * <p>A list should be closed when it is no longer needed. Closing drops the
+ * references to the buffers, even while the list itself is still reachable,
+ * and makes any further use of the list fail with an IllegalStateException.
+ * The direct memory of a buffer is returned only once the garbage collector
+ * has collected the buffer itself.
+ */
+public class OffHeapList<E> implements List<E>, AutoCloseable {
+  // instance variables
+  /** Default number of bytes per chunk. */
+  public static final int CHUNK_BYTES = 1 << 20;   // one megabyte
+
+  /** Codec translating elements to and from records. */
+  private final RecordCodec<E> codec;
+
+  /** Number of bytes of every record. */
+  private final int width;
+
+  /** Base 2 logarithm of the number of records per chunk. */
+  private final int shift;
+
+  /** Number of records per chunk minus one. */
+  private final int mask;
+
+  /** Chunks storing the records; null once the list is closed. */
+  private ByteBuffer[] chunks = new ByteBuffer[4];
+
+  /** Number of chunks allocated. */
+  private int chunkCount = 0;
+
+  /** Current number of elements in the list. */
+  private int size = 0;                    // current number of elements
+
+  // constructors
+  /**
+   * Creates an empty list with chunks of about CHUNK_BYTES bytes.
+   * @param codec   the codec of the records
+   */
+  public OffHeapList(RecordCodec<E> codec) {
+    this(codec, Integer.highestOneBit(Math.max(1, CHUNK_BYTES / codec.width())));
+  }
+
+  /**
+   * Creates an empty list with chunks of the given number of records.
+   * @param codec          the codec of the records
+   * @param chunkRecords   the number of records per chunk, a power of two
+   * @throws IllegalArgumentException if chunkRecords is not a power of two, or
+   *         a chunk would exceed the capacity of a buffer
+   */
+  public OffHeapList(RecordCodec<E> codec, int chunkRecords) throws IllegalArgumentException {
+    if (chunkRecords <= 0 || Integer.bitCount(chunkRecords) != 1)
+      throw new IllegalArgumentException("Chunk size must be a power of two");
+    if (codec.width() <= 0 || (long) chunkRecords * codec.width() > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Illegal chunk size");
+    this.codec = codec;
+    width = codec.width();
+    shift = Integer.numberOfTrailingZeros(chunkRecords);
+    mask = chunkRecords - 1;
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i, decoding its record.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E get(int i) throws IndexOutOfBoundsException, IllegalStateException {
+    ensureOpen();
+    checkIndex(i, size);
+    return codec.decode(chunk(i), offset(i));
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E set(int i, E e) throws IndexOutOfBoundsException, IllegalStateException {
+    ensureOpen();
+    checkIndex(i, size);
+    ByteBuffer chunk = chunk(i);
+    E temp = codec.decode(chunk, offset(i));
+    codec.encode(e, chunk, offset(i));
+    return temp;
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list, shifting all
+   * subsequent records one position further with block copies.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void add(int i, E e) throws IndexOutOfBoundsException, IllegalStateException {
+    ensureOpen();
+    checkIndex(i, size + 1);
+    if (size == chunkCount << shift)           // all chunks are full
+      appendChunk();
+    move(i, i + 1, size - i);
+    size++;
+    codec.encode(e, chunk(i), offset(i));
+  }
+
+  /**
+   * Removes and returns the element at the given index, shifting all subsequent
+   * records one position closer to the front with block copies.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   * @throws IllegalStateException if the list has been closed
+   */
+  public E remove(int i) throws IndexOutOfBoundsException, IllegalStateException {
+    E temp = get(i);
+    move(i + 1, i, size - i - 1);
+    size--;
+    if (chunkCount > 1 && size <= (chunkCount - 2) << shift)   // keep at most one empty chunk
+      chunks[--chunkCount] = null;
+    return temp;
+  }
+
+  // raw field access
+  /**
+   * Returns the long stored at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @return the value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public long getLong(int i, int field)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Long.BYTES);
+    return chunk(i).getLong(offset(i) + field);
+  }
+
+  /**
+   * Returns the int stored at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @return the value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public int getInt(int i, int field)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Integer.BYTES);
+    return chunk(i).getInt(offset(i) + field);
+  }
+
+  /**
+   * Returns the double stored at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @return the value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public double getDouble(int i, int field)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Double.BYTES);
+    return chunk(i).getDouble(offset(i) + field);
+  }
+
+  /**
+   * Stores a long at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @param  value   the new value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void putLong(int i, int field, long value)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Long.BYTES);
+    chunk(i).putLong(offset(i) + field, value);
+  }
+
+  /**
+   * Stores an int at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @param  value   the new value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void putInt(int i, int field, int value)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Integer.BYTES);
+    chunk(i).putInt(offset(i) + field, value);
+  }
+
+  /**
+   * Stores a double at the given byte offset of the record at index i.
+   * @param  i       the index of the record
+   * @param  field   the byte offset of the field within the record
+   * @param  value   the new value of the field
+   * @throws IndexOutOfBoundsException if the index or the field is out of range
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void putDouble(int i, int field, double value)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    checkField(i, field, Double.BYTES);
+    chunk(i).putDouble(offset(i) + field, value);
+  }
+
+  // bulk transfer
+  /**
+   * Appends the records read from the given channel until its end, without
+   * decoding them. The channel must deliver whole records in the native byte
+   * order, as written by {@link #store}.
+   * @param  in   the channel to read from
+   * @throws IOException if reading fails, or the channel ends inside a record
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void load(ReadableByteChannel in) throws IOException, IllegalStateException {
+    ensureOpen();
+    long bytes = 0;                            // bytes read past the last whole record
+    while (true) {
+      if (size == chunkCount << shift)
+        appendChunk();
+      ByteBuffer target = chunks[size >>> shift].duplicate();
+      target.limit((mask + 1) * width).position(offset(size) + (int) bytes);
+      int n = 0;
+      while (target.hasRemaining() && (n = in.read(target)) >= 0)
+        ;
+      bytes = target.position() - offset(size);
+      size += (int) (bytes / width);
+      bytes %= width;
+      if (n < 0) break;                        // end of the channel
+    }
+    if (bytes != 0)
+      throw new IOException("Truncated record");
+  }
+
+  /**
+   * Writes the records of all elements to the given channel, in list order and
+   * without encoding them.
+   * @param  out   the channel to write to
+   * @throws IOException if writing fails
+   * @throws IllegalStateException if the list has been closed
+   */
+  public void store(WritableByteChannel out) throws IOException, IllegalStateException {
+    ensureOpen();
+    for (int c = 0; c << shift < size; c++) {
+      ByteBuffer source = chunks[c].duplicate();
+      source.limit(Math.min(size - (c << shift), mask + 1) * width).position(0);
+      while (source.hasRemaining())
+        out.write(source);
+    }
+  }
+
+  /**
+   * Drops the buffers of the list, whose memory is returned when they are
+   * collected. Further operations on the list, other than size, isEmpty and
+   * close, throw an IllegalStateException.
+   */
+  public void close() {
+    chunks = null;
+    chunkCount = 0;
+    size = 0;
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Checks that a field of the given length at the given offset lies within record i. */
+  private void checkField(int i, int field, int length)
+      throws IndexOutOfBoundsException, IllegalStateException {
+    ensureOpen();
+    checkIndex(i, size);
+    if (field < 0 || field > width - length)
+      throw new IndexOutOfBoundsException("Illegal field offset: " + field);
+  }
+
+  /** Throws an IllegalStateException if the list has been closed. */
+  private void ensureOpen() throws IllegalStateException {
+    if (chunks == null) throw new IllegalStateException("List is closed");
+  }
+
+  /** Returns the chunk holding record i. */
+  private ByteBuffer chunk(int i) throws IllegalStateException {
+    ensureOpen();
+    return chunks[i >>> shift];
+  }
+
+  /** Returns the byte offset of record i within its chunk. */
+  private int offset(int i) { return (i & mask) * width; }
+
+  /** Allocates a new chunk after the last one. */
+  private void appendChunk() {
+    if (chunkCount == chunks.length)
+      chunks = Arrays.copyOf(chunks, 2 * chunkCount);
+    chunks[chunkCount++] = ByteBuffer.allocateDirect((mask + 1) * width).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Copies the n records starting at index from to the n records starting at
+   * index to, with one block copy per chunk boundary. The ranges may overlap.
+   */
+  private void move(int from, int to, int n) {
+    if (n <= 0 || from == to) return;
+    if (from > to) {                           // copy front to back
+      while (n > 0) {
+        int k = Math.min(n, Math.min(mask + 1 - (from & mask), mask + 1 - (to & mask)));
+        chunks[to >>> shift].put(offset(to), chunks[from >>> shift], offset(from), k * width);
+        from += k;
+        to += k;
+        n -= k;
+      }
+    } else {                                   // copy back to front
+      int fromEnd = from + n, toEnd = to + n;
+      while (n > 0) {
+        int k = Math.min(n, Math.min(((fromEnd - 1) & mask) + 1, ((toEnd - 1) & mask) + 1));
+        fromEnd -= k;
+        toEnd -= k;
+        chunks[toEnd >>> shift].put(offset(toEnd), chunks[fromEnd >>> shift], offset(fromEnd), k * width);
+        n -= k;
+      }
+    }
+  }
+
+  //---------------- nested RecordIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance contains an implicit
+   * reference to the containing list, allowing it to access the list's members.
+   */
+  private class RecordIterator implements Iterator<E> {
+    /** Index of the next element to report. */
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size; }   // size is field of outer instance
+
+    /**
+     * Returns the next object in the iterator, decoding its record.
+     *
+     * @return next object
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public E next() throws NoSuchElementException {
+      if (j == size) throw new NoSuchElementException("No next element");
+      removable = true;   // this element can subsequently be removed
+      return get(j++);
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      OffHeapList.this.remove(j-1);   // that was the last one returned
+      j--;                            // next element has shifted one cell to the left
+      removable = false;              // do not allow remove again until next is called
+    }
+  } //------------ end of nested RecordIterator class ------------
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new RecordIterator();    // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the list
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < size; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(get(j));
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,55 @@
+package lists;
+
+/**
+ * Compares the sequential and fork-join bulk operations of {@link ArrayList},
+ * and a parallel stream over its spliterator, on a list of a few million
+ * elements. The speedup depends on the number of cores available to the
+ * common fork-join pool, which is printed first.
+ */
+public class ParallelArrayListBenchmark {
+
+  /** Number of elements in the list. */
+  static final int SIZE = 4_000_000;
+
+  /** Operator doing a little arithmetic per element, so the work is not memory-bound. */
+  static Long mix(Long x) {
+    long h = x;
+    for (int k = 0; k < 8; k++)
+      h = h * 0x9E3779B97F4A7C15L + k;
+    return h >>> 40;
+  }
+
+  /**
+   * Runs the given task and returns the time it took, in milliseconds.
+   *
+   * @param task   the task to be timed
+   * @return the elapsed time, in milliseconds
+   */
+  static long time(Runnable task) {
+    long start = System.nanoTime();
+    task.run();
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  public static void main(String[] args) {
+    ArrayList<Long> list = new ArrayList<>(SIZE);
+    for (int k = 0; k < SIZE; k++)
+      list.add(k, (long) k);
+    System.out.printf("%,d elements, common pool parallelism %d%n%n", SIZE,
+                      java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+    System.out.printf("%5s %16s %16s %16s %16s %16s%n", "Round",
+                      "replaceAll(ms)", "parallel(ms)", "reduce(ms)", "parallel(ms)", "stream(ms)");
+    for (int round = 1; round <= 3; round++) {
+      long seqReplace = time(() -> list.replaceAll(ParallelArrayListBenchmark::mix));
+      long parReplace = time(() -> list.parallelReplaceAll(ParallelArrayListBenchmark::mix));
+      long seqReduce = time(() -> {
+        Long sum = 0L;
+        for (Long x : list) sum += x;
+      });
+      long parReduce = time(() -> list.parallelReduce(0L, Long::sum));
+      long stream = time(() -> list.parallelStream().mapToLong(Long::longValue).sum());
+      System.out.printf("%5d %,16d %,16d %,16d %,16d %,16d%n", round,
+                        seqReplace, parReplace, seqReduce, parReduce, stream);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel merge sort of an {@link ArrayList} or a {@link LinkedPositionalList}
+ * on a fork-join pool. The data is split in halves until the pieces are small
+ * enough to be sorted sequentially, the pieces are sorted as separate tasks,
+ * and then merged pairwise.
+ *
+ * <p>An array is sorted into a scratch array of the same length, and the two
+ * arrays take turns as source and destination from one level of merging to
+ * the next. Each merge is itself split in two by a binary search, so that it
+ * is parallel too. A linked list is split by splicing its second half into a
+ * new list, and the sorted halves are merged by relinking, so that no node is
+ * allocated and every position keeps its element; only the sorts of the pieces
+ * and the smaller merges run in parallel there.
+ *
+ * <p>Inputs of at most threshold elements, or a pool with a parallelism of 1,
+ * fall back to the sequential sort. Pieces are never cut below 2 elements,
+ * whatever the threshold. All sorts are stable.
+ */
+public class ParallelSort {
+
+  /** Default size below which the data is sorted sequentially. */
+  public static final int THRESHOLD = 1 << 13;
+
+  /**
+   * Sorts the list on the common pool.
+   *
+   * @param list   the list to be sorted
+   * @param comp   the comparator that determines the order
+   */
+  public static <E> void sort(ArrayList<E> list, Comparator<? super E> comp) {
+    sort(list, comp, ForkJoinPool.commonPool(), THRESHOLD);
+  }
+
+  /**
+   * Sorts the list on the given pool.
+   *
+   * @param list        the list to be sorted
+   * @param comp        the comparator that determines the order
+   * @param pool        the pool running the tasks
+   * @param threshold   the size below which the data is sorted sequentially
+   */
+  public static <E> void sort(ArrayList<E> list, Comparator<? super E> comp,
+                              ForkJoinPool pool, int threshold) {
+    list.parallelSort(comp, pool, threshold);
+  }
+
+  /**
+   * Sorts the list on the common pool.
+   *
+   * @param list   the list to be sorted
+   * @param comp   the comparator that determines the order
+   */
+  public static <E> void sort(LinkedPositionalList<E> list, Comparator<? super E> comp) {
+    sort(list, comp, ForkJoinPool.commonPool(), THRESHOLD);
+  }
+
+  /**
+   * Sorts the list on the given pool.
+   *
+   * @param list        the list to be sorted
+   * @param comp        the comparator that determines the order
+   * @param pool        the pool running the tasks
+   * @param threshold   the size below which the data is sorted sequentially
+   */
+  public static <E> void sort(LinkedPositionalList<E> list, Comparator<? super E> comp,
+                              ForkJoinPool pool, int threshold) {
+    int p = pool.getParallelism();
+    if (list.size() <= threshold || p == 1)
+      list.sort(comp);
+    else
+      pool.invoke(new LinkedSortTask<>(list, grain(list.size(), p, threshold), comp));
+  }
+
+  /** Sorts the first n elements of the array a on the given pool. */
+  @SuppressWarnings({"unchecked"})
+  static <E> void sortArray(Object[] a, int n, Comparator<? super E> comp,
+                            ForkJoinPool pool, int threshold) {
+    int p = pool.getParallelism();
+    if (n <= threshold || p == 1)
+      Arrays.sort((E[]) a, 0, n, comp);
+    else
+      pool.invoke(new ArraySortTask<>(a, new Object[n], 0, n, false, grain(n, p, threshold), comp));
+  }
+
+  /**
+   * Returns the piece size giving each worker of the pool a few tasks. It is
+   * at least 2, since a smaller piece could be split into itself and nothing.
+   */
+  private static int grain(int n, int parallelism, int threshold) {
+    return Math.max(2, Math.max(threshold, n / (4 * parallelism)));
+  }
+
+  //---------------- nested fork-join task classes ----------------
+  /**
+   * Sorts a[lo..hi), leaving the result in a, or in tmp if intoTmp is set.
+   * The halves are sorted into the other array, and then merged back.
+   */
+  @SuppressWarnings({"serial"})
+  private static class ArraySortTask<E> extends RecursiveAction {
+    private final Object[] a, tmp;
+    private final int lo, hi, grain;
+    private final boolean intoTmp;
+    private final Comparator<? super E> comp;
+
+    ArraySortTask(Object[] a, Object[] tmp, int lo, int hi, boolean intoTmp,
+                  int grain, Comparator<? super E> comp) {
+      this.a = a;
+      this.tmp = tmp;
+      this.lo = lo;
+      this.hi = hi;
+      this.intoTmp = intoTmp;
+      this.grain = grain;
+      this.comp = comp;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    protected void compute() {
+      if (hi - lo <= grain) {
+        Arrays.sort((E[]) a, lo, hi, comp);
+        if (intoTmp)
+          System.arraycopy(a, lo, tmp, lo, hi - lo);
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      invokeAll(new ArraySortTask<>(a, tmp, lo, mid, !intoTmp, grain, comp),
+                new ArraySortTask<>(a, tmp, mid, hi, !intoTmp, grain, comp));
+      Object[] src = intoTmp ? a : tmp;
+      Object[] dst = intoTmp ? tmp : a;
+      new MergeTask<>(src, lo, mid, mid, hi, dst, lo, grain, comp).compute();
+    }
+  }
+
+  /**
+   * Merges the sorted runs src[lo1..hi1) and src[lo2..hi2) into dst starting at
+   * index to. A large merge is split by taking the middle element of the longer
+   * run and finding by binary search where it falls in the shorter one; ties
+   * always go to the first run.
+   */
+  @SuppressWarnings({"serial"})
+  private static class MergeTask<E> extends RecursiveAction {
+    private final Object[] src, dst;
+    private final int lo1, hi1, lo2, hi2, to, grain;
+    private final Comparator<? super E> comp;
+
+    MergeTask(Object[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int to,
+              int grain, Comparator<? super E> comp) {
+      this.src = src;
+      this.lo1 = lo1;
+      this.hi1 = hi1;
+      this.lo2 = lo2;
+      this.hi2 = hi2;
+      this.dst = dst;
+      this.to = to;
+      this.grain = grain;
+      this.comp = comp;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    protected void compute() {
+      int n1 = hi1 - lo1, n2 = hi2 - lo2;
+      if (n1 + n2 <= grain || n1 == 0 || n2 == 0) {
+        merge();
+        return;
+      }
+      int m1, m2;
+      if (n1 >= n2) {                            // split the first run in the middle
+        m1 = (lo1 + hi1) >>> 1;
+        m2 = search(src[m1], lo2, hi2, false);   // elements of run 2 less than the key
+      } else {                                   // split the second run in the middle
+        m2 = (lo2 + hi2) >>> 1;
+        m1 = search(src[m2], lo1, hi1, true);    // elements of run 1 up to the key
+      }
+      int left = (m1 - lo1) + (m2 - lo2);
+      if (left == 0 || left == n1 + n2) {        // the split makes no progress
+        merge();
+        return;
+      }
+      invokeAll(new MergeTask<>(src, lo1, m1, lo2, m2, dst, to, grain, comp),
+                new MergeTask<>(src, m1, hi1, m2, hi2, dst, to + (m1 - lo1) + (m2 - lo2), grain, comp));
+    }
+
+    /** Merges the two runs sequentially. */
+    @SuppressWarnings({"unchecked"})
+    private void merge() {
+      int i = lo1, j = lo2, k = to;
+      while (i < hi1 && j < hi2)
+        dst[k++] = (comp.compare((E) src[j], (E) src[i]) < 0) ? src[j++] : src[i++];
+      System.arraycopy(src, i, dst, k, hi1 - i);
+      System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+    }
+
+    /**
+     * Returns the first index in [lo, hi) whose element is greater than the
+     * key, if inclusive is set, or not less than the key otherwise.
+     */
+    @SuppressWarnings({"unchecked"})
+    private int search(Object key, int lo, int hi, boolean inclusive) {
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        int c = comp.compare((E) src[mid], (E) key);
+        if (c < 0 || (inclusive && c == 0))
+          lo = mid + 1;
+        else
+          hi = mid;
+      }
+      return lo;
+    }
+  }
+
+  /**
+   * Sorts a linked list by splicing its second half into a new list, sorting
+   * both halves in parallel, and merging the second back into the first.
+   */
+  @SuppressWarnings({"serial"})
+  private static class LinkedSortTask<E> extends RecursiveAction {
+    private final LinkedPositionalList<E> list;
+    private final int grain;
+    private final Comparator<? super E> comp;
+
+    LinkedSortTask(LinkedPositionalList<E> list, int grain, Comparator<? super E> comp) {
+      this.list = list;
+      this.grain = grain;
+      this.comp = comp;
+    }
+
+    protected void compute() {
+      if (list.size() <= grain) {
+        list.sort(comp);
+        return;
+      }
+      LinkedPositionalList<E> right = new LinkedPositionalList<>();
+      list.splice(list.positionAt(list.size() / 2), list.last(), right, null);
+      invokeAll(new LinkedSortTask<>(list, grain, comp),
+                new LinkedSortTask<>(right, grain, comp));
+      list.merge(right, comp);
+    }
+  } //------------ end of nested fork-join task classes ------------
+}
@@ -0,0 +1,64 @@
+package lists;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures {@link ParallelSort} of an {@link ArrayList} and of a
+ * {@link LinkedPositionalList} of random integers on pools of increasing
+ * parallelism. A parallelism of 1 takes the sequential path.
+ */
+public class ParallelSortBenchmark {
+
+  /** Number of elements sorted. */
+  static final int SIZE = 5_000_000;
+
+  /** Number of repetitions, of which the fastest is reported. */
+  static final int REPEAT = 3;
+
+  /**
+   * Returns the best time, in milliseconds, of sorting fresh copies of the
+   * random data on the given pool.
+   *
+   * @param data      the elements to be sorted
+   * @param linked    true to sort a linked list, false for an array list
+   * @param pool      the pool running the sort
+   * @return the elapsed milliseconds
+   */
+  static double time(Integer[] data, boolean linked, ForkJoinPool pool) {
+    double best = Double.MAX_VALUE;
+    for (int r = 0; r < REPEAT; r++) {
+      long start;
+      if (linked) {
+        LinkedPositionalList<Integer> list = new LinkedPositionalList<>();
+        for (Integer e : data)
+          list.addLast(e);
+        start = System.nanoTime();
+        ParallelSort.sort(list, Comparator.naturalOrder(), pool, ParallelSort.THRESHOLD);
+      } else {
+        ArrayList<Integer> list = new ArrayList<>(data.length);
+        list.addAll(0, data);
+        start = System.nanoTime();
+        ParallelSort.sort(list, Comparator.naturalOrder(), pool, ParallelSort.THRESHOLD);
+      }
+      best = Math.min(best, (System.nanoTime() - start) / 1e6);
+    }
+    return best;
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(254);
+    Integer[] data = new Integer[SIZE];
+    for (int k = 0; k < SIZE; k++)
+      data[k] = random.nextInt();
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d random elements, %d available cores%n%n", SIZE, cores);
+    System.out.printf("%11s %18s %18s%n", "Parallelism", "ArrayList(ms)", "Linked(ms)");
+    for (int p = 1; p <= Math.max(4, cores); p *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(p);
+      System.out.printf("%11d %,18.1f %,18.1f%n", p, time(data, false, pool), time(data, true, pool));
+      pool.shutdown();
+    }
+  }
+}
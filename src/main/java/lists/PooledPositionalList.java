@@ -0,0 +1,423 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a positional list stored as a doubly linked list whose
+ * nodes are recycled. A removed node is pushed onto a bounded free list, and
+ * the next insertion pops it instead of allocating a new one, so a workload
+ * that keeps adding and removing elements stops allocating nodes once the pool
+ * has warmed up. The pool can also be filled up front by {@link #reserve}.
+ *
+ * <p>Because a node may come back into the list holding another element, the
+ * node itself cannot serve as the Position handed to the user, as it does in
+ * {@link LinkedPositionalList}. Each insertion instead returns a small handle
+ * that refers to the node, and removal clears that reference. A stale handle
+ * is thus rejected even after its node has been reused. An insertion then
+ * allocates only the 16-byte handle, instead of the 24-byte node allocated
+ * by LinkedPositionalList (with compressed references).
+ */
+public class PooledPositionalList<E> implements PositionalList<E> {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a doubly linked list, which stores a reference to its element,
+   * to both the previous and next node in the list, and to the handle that
+   * currently represents it. A pooled node is linked to the next free node
+   * through its next reference.
+   */
+  private static class Node<E> {
+    private E element;               // reference to the element stored at this node
+    private Node<E> prev;            // reference to the previous node in the list
+    private Node<E> next;            // reference to the subsequent node in the list
+    private Handle<E> handle;        // handle of this node, or null while pooled
+  } //----------- end of nested Node class -----------
+
+  //---------------- nested Handle class ----------------
+  /**
+   * The Position of an element, valid from its insertion until its removal.
+   */
+  private static class Handle<E> implements Position<E> {
+    /** The node storing the element, or null once the element is removed. */
+    private Node<E> node;
+
+    /**
+     * Creates a handle of the given node.
+     * @param node   the node storing the element
+     */
+    Handle(Node<E> node) { this.node = node; }
+
+    /**
+     * Returns the element stored at this position.
+     * @return the stored element
+     * @throws IllegalStateException if the element has been removed
+     */
+    public E getElement() throws IllegalStateException {
+      if (node == null)                         // the element has been removed
+        throw new IllegalStateException("Position no longer valid");
+      return node.element;
+    }
+  } //----------- end of nested Handle class -----------
+
+  // instance variables of the PooledPositionalList
+  /** Default maximum number of pooled nodes. */
+  public static final int POOL_LIMIT = 1024;    // default pool bound
+
+  /** Sentinel node at the beginning of the list */
+  private final Node<E> header = new Node<>();  // header sentinel
+
+  /** Sentinel node at the end of the list */
+  private final Node<E> trailer = new Node<>(); // trailer sentinel
+
+  /** Number of elements in the list (not including sentinels) */
+  private int size = 0;                         // number of elements in the list
+
+  /** Top of the free list of pooled nodes */
+  private Node<E> pool = null;                  // free list, linked through next
+
+  /** Number of pooled nodes */
+  private int pooled = 0;                       // length of the free list
+
+  /** Maximum number of pooled nodes */
+  private final int poolLimit;                  // beyond this, nodes are left to the collector
+
+  /** Constructs a new empty list keeping at most POOL_LIMIT spare nodes. */
+  public PooledPositionalList() { this(POOL_LIMIT); }
+
+  /**
+   * Constructs a new empty list keeping at most the given number of spare nodes.
+   * @param poolLimit   the maximum number of pooled nodes
+   */
+  public PooledPositionalList(int poolLimit) {
+    this.poolLimit = poolLimit;
+    header.next = trailer;                      // header is followed by trailer
+    trailer.prev = header;                      // trailer is preceded by header
+  }
+
+  // pool management
+  /**
+   * Fills the pool with newly allocated nodes, so that it holds at least n of
+   * them (or poolLimit, if that is smaller).
+   * @param n   the number of spare nodes wanted
+   */
+  public void reserve(int n) {
+    while (pooled < Math.min(n, poolLimit))
+      release(new Node<>());
+  }
+
+  /**
+   * Returns the number of spare nodes in the pool.
+   * @return the number of pooled nodes
+   */
+  public int pooled() { return pooled; }
+
+  // private utilities
+  /**
+   * Verifies that a Position belongs to the appropriate class, and is
+   * not one that has been previously removed. Note that our current
+   * implementation does not actually verify that the position belongs
+   * to this particular list instance.
+   *
+   * @param p   a Position (that should belong to this list)
+   * @return    the underlying Node instance at that position
+   * @throws IllegalArgumentException if an invalid position is detected
+   */
+  private Node<E> validate(Position<E> p) throws IllegalArgumentException {
+    if (!(p instanceof Handle)) throw new IllegalArgumentException("Invalid p");
+    Node<E> node = ((Handle<E>) p).node;     // safe cast
+    if (node == null)                        // cleared by remove
+      throw new IllegalArgumentException("p is no longer in the list");
+    return node;
+  }
+
+  /**
+   * Returns the handle of the given node, unless it is a sentinel, in which
+   * case null is returned (so as not to expose the sentinels to the user).
+   */
+  private Position<E> position(Node<E> node) {
+    return node.handle;                      // sentinels have no handle
+  }
+
+  /** Returns a spare node from the pool, or a new node if the pool is empty. */
+  private Node<E> acquire() {
+    Node<E> node = pool;
+    if (node == null)
+      return new Node<>();
+    pool = node.next;
+    pooled--;
+    return node;
+  }
+
+  /** Returns an unlinked node to the pool, unless the pool is full. */
+  private void release(Node<E> node) {
+    node.element = null;             // help with garbage collection
+    node.prev = null;
+    node.handle = null;
+    if (pooled < poolLimit) {
+      node.next = pool;
+      pool = node;
+      pooled++;
+    } else {
+      node.next = null;
+    }
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns the first Position in the list.
+   *
+   * @return the first Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> first() {
+    return position(header.next);
+  }
+
+  /**
+   * Returns the last Position in the list.
+   *
+   * @return the last Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> last() {
+    return position(trailer.prev);
+  }
+
+  /**
+   * Returns the Position immediately before Position p.
+   * @param p   a Position of the list
+   * @return the Position of the preceding element (or null, if p is first)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> before(Position<E> p) throws IllegalArgumentException {
+    return position(validate(p).prev);
+  }
+
+  /**
+   * Returns the Position immediately after Position p.
+   * @param p   a Position of the list
+   * @return the Position of the following element (or null, if p is last)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> after(Position<E> p) throws IllegalArgumentException {
+    return position(validate(p).next);
+  }
+
+  // private utilities
+  /**
+   * Adds an element to the linked list between the given nodes, reusing a
+   * pooled node if there is one.
+   *
+   * @param pred     node just before the location where the new element is inserted
+   * @param succ     node just after the location where the new element is inserted
+   * @return the new element's handle
+   */
+  private Position<E> addBetween(E e, Node<E> pred, Node<E> succ) {
+    Node<E> newest = acquire();
+    Handle<E> handle = new Handle<>(newest);
+    newest.element = e;
+    newest.prev = pred;
+    newest.next = succ;
+    newest.handle = handle;
+    pred.next = newest;
+    succ.prev = newest;
+    size++;
+    return handle;
+  }
+
+  // public update methods
+  /**
+   * Inserts an element at the front of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addFirst(E e) {
+    return addBetween(e, header, header.next);       // just after the header
+  }
+
+  /**
+   * Inserts an element at the back of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addLast(E e) {
+    return addBetween(e, trailer.prev, trailer);     // just before the trailer
+  }
+
+  /**
+   * Inserts an element immediately before the given Position.
+   *
+   * @param p the Position before which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    return addBetween(e, node.prev, node);
+  }
+
+  /**
+   * Inserts an element immediately after the given Position.
+   *
+   * @param p the Position after which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    return addBetween(e, node, node.next);
+  }
+
+  /**
+   * Replaces the element stored at the given Position and returns the replaced element.
+   *
+   * @param p the Position of the element to be replaced
+   * @param e the new element
+   * @return the replaced element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E set(Position<E> p, E e) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    E answer = node.element;
+    node.element = e;
+    return answer;
+  }
+
+  /**
+   * Removes the element stored at the given Position and returns it.
+   * The given position is invalidated, and its node returned to the pool.
+   *
+   * @param p the Position of the element to be removed
+   * @return the removed element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public E remove(Position<E> p) throws IllegalArgumentException {
+    Node<E> node = validate(p);
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    size--;
+    E answer = node.element;
+    node.handle.node = null;         // invalidate the handle
+    release(node);
+    return answer;
+  }
+
+  // support for iterating either positions and elements
+  //---------------- nested PositionIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance
+   * contains an implicit reference to the containing list,
+   * allowing us to call the list's methods directly.
+   */
+  private class PositionIterator implements Iterator<Position<E>> {
+
+    /** A Position of the containing list, initialized to the first position. */
+    private Position<E> cursor = first();   // position of the next element to report
+    /** A Position of the most recent element reported (if any). */
+    private Position<E> recent = null;       // position of last reported element
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return (cursor != null);  }
+
+    /**
+     * Returns the next position in the iterator.
+     *
+     * @return next position
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public Position<E> next() throws NoSuchElementException {
+      if (cursor == null) throw new NoSuchElementException("nothing left");
+      recent = cursor;           // element at this position might later be removed
+      cursor = after(cursor);
+      return recent;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (recent == null) throw new IllegalStateException("nothing to remove");
+      PooledPositionalList.this.remove(recent);         // remove from outer list
+      recent = null;               // do not allow remove again until next is called
+    }
+  } //------------ end of nested PositionIterator class ------------
+
+  //---------------- nested PositionIterable class ----------------
+  private class PositionIterable implements Iterable<Position<E>> {
+    public Iterator<Position<E>> iterator() { return new PositionIterator(); }
+  } //------------ end of nested PositionIterable class ------------
+
+  /**
+   * Returns an iterable representation of the list's positions.
+   * @return iterable representation of the list's positions
+   */
+  @Override
+  public Iterable<Position<E>> positions() {
+    return new PositionIterable();       // create a new instance of the inner class
+  }
+
+  //---------------- nested ElementIterator class ----------------
+  /* This class adapts the iteration produced by positions() to return elements. */
+  private class ElementIterator implements Iterator<E> {
+    Iterator<Position<E>> posIterator = new PositionIterator();
+    public boolean hasNext() { return posIterator.hasNext(); }
+    public E next() { return posIterator.next().getElement(); } // return element!
+    public void remove() { posIterator.remove(); }
+  }
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() { return new ElementIterator(); }
+
+  // Debugging code
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    Node<E> walk = header.next;
+    while (walk != trailer) {
+      sb.append(walk.element);
+      walk = walk.next;
+      if (walk != trailer)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,60 @@
+package lists;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the allocation rate of {@link LinkedPositionalList} and
+ * {@link PooledPositionalList} under churn: a list of fixed size repeatedly
+ * loses its first element and gains a new last one. Allocation is measured
+ * with the per-thread allocation counter of the HotSpot virtual machine.
+ */
+public class PooledPositionalListBenchmark {
+
+  /** Number of elements kept in the list. */
+  static final int SIZE = 10_000;
+
+  /** Number of remove and add pairs performed per round. */
+  static final int OPERATIONS = 2_000_000;
+
+  /** Element added by every insertion, so that no element is allocated. */
+  static final Integer ELEMENT = 254;
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread.
+   * @return the allocated bytes
+   */
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Runs the churn on the given list and reports its cost.
+   *
+   * @param list   an empty list
+   * @return the allocated bytes per operation and the elapsed milliseconds
+   */
+  static double[] churn(PositionalList<Integer> list) {
+    for (int k = 0; k < SIZE; k++)
+      list.addLast(ELEMENT);
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    for (int k = 0; k < OPERATIONS; k++) {
+      list.remove(list.first());
+      list.addLast(ELEMENT);
+    }
+    long elapsed = System.nanoTime() - start;
+    return new double[] { (allocatedBytes() - bytes) / (double) OPERATIONS, elapsed / 1e6 };
+  }
+
+  public static void main(String[] args) {
+    System.out.printf("%,d remove and add pairs on a %,d element list%n%n", OPERATIONS, SIZE);
+    System.out.printf("%5s %18s %18s %18s %18s%n", "Round",
+                      "Linked(bytes/op)", "Linked(ms)", "Pooled(bytes/op)", "Pooled(ms)");
+    for (int round = 1; round <= 3; round++) {
+      double[] linked = churn(new LinkedPositionalList<>());
+      double[] pooled = churn(new PooledPositionalList<>());
+      System.out.printf("%5d %18.1f %,18.0f %18.1f %,18.0f%n", round, linked[0], linked[1], pooled[0], pooled[1]);
+    }
+  }
+}
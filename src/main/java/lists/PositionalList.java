@@ -163,4 +163,20 @@ public interface PositionalList<E> extends Iterable<E> {
     return index;
   }
 
+  /**
+   * Returns the position of the element at the given index, walking from the
+   * first position. Implementations may override this with a faster search.
+   * @param i the index of the element
+   * @return the position of the element at index i
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  default Position<E> positionAt(int i) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= size())
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+    Position<E> walk = first();
+    for (int k = 0; k < i; k++)
+      walk = after(walk);
+    return walk;
+  }
+
 }
@@ -0,0 +1,37 @@
+package lists;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Translates elements to and from fixed-width binary records, for lists that
+ * keep their elements outside the Java heap, such as {@link OffHeapList}.
+ *
+ * <p>Both methods use only the absolute get and put operations of the buffer
+ * at the given offset, and must not change its position or limit.
+ */
+public interface RecordCodec<E> {
+
+  /**
+   * Returns the number of bytes of every record.
+   * @return the record width, in bytes
+   */
+  int width();
+
+  /**
+   * Writes element e as a record of width() bytes.
+   *
+   * @param e        the element to be written
+   * @param buffer   the buffer receiving the record
+   * @param offset   the index of the first byte of the record
+   */
+  void encode(E e, ByteBuffer buffer, int offset);
+
+  /**
+   * Reads the record of width() bytes starting at the given offset.
+   *
+   * @param buffer   the buffer holding the record
+   * @param offset   the index of the first byte of the record
+   * @return the decoded element
+   */
+  E decode(ByteBuffer buffer, int offset);
+}
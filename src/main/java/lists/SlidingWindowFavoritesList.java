@@ -0,0 +1,163 @@
+package lists;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Maintains a list of elements ordered by their number of accesses within a
+ * sliding window of time. The time is read from a clock, in any unit, and is
+ * divided into slices of equal length; the window holds the current slice and
+ * the slices-1 before it. An element leaves the list when its last access in
+ * the window expires.
+ *
+ * <p>Each slice of the window records how many times each element was
+ * accessed in it, in a map of its own, and each item holds its count in the
+ * window. An access increments both, and when a slice expires, the counts it
+ * recorded are subtracted from the items. Every entry subtracted was added by
+ * some access, so access runs in O(1) amortized time, apart from a check of
+ * at most slices expired slices whenever time has moved on.
+ *
+ * <p>As in the move-to-front list, getFavorites scans the items with a
+ * bounded heap, here by count in the window, in O(n log k) time.
+ */
+public class SlidingWindowFavoritesList<E> extends FavoritesListMTF<E> {
+  //---------------- nested WindowItem class ----------------
+  /** An item with its number of accesses in the window. */
+  protected static class WindowItem<E> extends Item<E> {
+    private int inWindow = 0;        // number of accesses in the window
+    public WindowItem(E val) { super(val); }
+    public int getWindowCount() { return inWindow; }
+  } //----------- end of nested WindowItem class -----------
+
+  /** Length of a slice, in units of the clock. */
+  private final long slice;
+
+  /** Clock giving the current time. */
+  private final LongSupplier clock;
+
+  /** Accesses of each element in the slices of the window, in a circular array. */
+  private Map<E, Integer>[] slices;
+
+  /** Number of the current slice, that is, the current time divided by the slice length. */
+  private long current;
+
+  /**
+   * Constructs an initially empty list, whose clock is System.nanoTime.
+   *
+   * @param window    the length of the window, in nanoseconds
+   * @param slices    the number of slices in the window
+   * @throws IllegalArgumentException if window or slices is not positive, or slices exceeds window
+   */
+  public SlidingWindowFavoritesList(long window, int slices) throws IllegalArgumentException {
+    this(window, slices, System::nanoTime);
+  }
+
+  /**
+   * Constructs an initially empty list.
+   *
+   * @param window    the length of the window, in units of the clock
+   * @param slices    the number of slices in the window
+   * @param clock     the clock giving the current time, which must never go back
+   * @throws IllegalArgumentException if window or slices is not positive, or slices exceeds window
+   */
+  @SuppressWarnings({"unchecked"})
+  public SlidingWindowFavoritesList(long window, int slices, LongSupplier clock)
+      throws IllegalArgumentException {
+    if (slices <= 0 || window < slices)
+      throw new IllegalArgumentException("Illegal window: " + window + " in " + slices + " slices");
+    this.slice = window / slices;
+    this.clock = clock;
+    this.slices = (Map<E, Integer>[]) new Map<?, ?>[slices];
+    for (int j = 0; j < slices; j++)
+      this.slices[j] = new HashMap<>();
+    this.current = Math.floorDiv(clock.getAsLong(), slice);
+  }
+
+  // nonpublic utilities
+  @Override
+  protected Item<E> newItem(E e) { return new WindowItem<>(e); }
+
+  /** Orders the items by their counts in the window. */
+  @Override
+  protected double score(Item<E> item) { return ((WindowItem<E>) item).inWindow; }
+
+  /** Expires the slices that have left the window by the current time. */
+  private void advance() {
+    long now = Math.floorDiv(clock.getAsLong(), slice);
+    for (long s = Math.max(current + 1, now - slices.length + 1); s <= now; s++)
+      expire(slices[(int) Math.floorMod(s, (long) slices.length)]);
+    if (now > current)
+      current = now;
+  }
+
+  /** Subtracts the accesses recorded by an expired slice, which is cleared. */
+  private void expire(Map<E, Integer> accesses) {
+    for (Map.Entry<E, Integer> entry : accesses.entrySet()) {
+      WindowItem<E> item = (WindowItem<E>) findPosition(entry.getKey()).getElement();
+      item.inWindow -= entry.getValue();
+      if (item.inWindow == 0)
+        super.remove(entry.getKey());
+    }
+    accesses.clear();
+  }
+
+  // public methods
+  /** Returns the number of elements accessed within the window. */
+  @Override
+  public int size() {
+    advance();
+    return super.size();
+  }
+
+  /** Returns true if no element was accessed within the window. */
+  @Override
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Accesses element e, thereby increasing its count in the window.
+   */
+  @Override
+  public void access(E e) {
+    advance();
+    super.access(e);                              // moves the item to the front
+    ((WindowItem<E>) list.first().getElement()).inWindow++;
+    slices[(int) Math.floorMod(current, (long) slices.length)].merge(e, 1, Integer::sum);
+  }
+
+  /** Removes element equal to e from the list of favorites (if found). */
+  @Override
+  public void remove(E e) {
+    for (Map<E, Integer> accesses : slices)
+      accesses.remove(e);
+    super.remove(e);
+  }
+
+  /** Returns the number of accesses of element e within the window. */
+  @Override
+  public int countOf(E e) {
+    advance();
+    Position<Item<E>> p = findPosition(e);
+    return (p == null) ? 0 : ((WindowItem<E>) p.getElement()).inWindow;
+  }
+
+  /** Returns the rank of element e, by count in the window, among the favorites (or -1). */
+  @Override
+  public int rankOf(E e) {
+    advance();
+    return super.rankOf(e);
+  }
+
+  /** Returns the k elements accessed most often within the window. */
+  @Override
+  public Iterable<E> getFavorites(int k) throws IllegalArgumentException {
+    advance();
+    return super.getFavorites(k);
+  }
+
+  // test usage
+  public static void main(String[] args) {
+    long[] time = { 0 };
+    test(new SlidingWindowFavoritesList<Character>(8, 4, () -> time[0]++));
+  }
+}
@@ -0,0 +1,69 @@
+package lists;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares {@link InsertionSort} with the relinking {@link MergeSort} of a
+ * {@link LinkedPositionalList}, on random input and on nearly sorted input,
+ * in which one element in every hundred is up to a hundred places ahead of
+ * where it belongs. Insertion sort of random input takes quadratic time, so
+ * it is only run on the smaller lists.
+ */
+public class SortBenchmark {
+
+  /** Largest list given to insertion sort when the input is random. */
+  static final int INSERTION_LIMIT = 20_000;
+
+  /** Largest list size benchmarked. */
+  static final int MAX_SIZE = 10_000_000;
+
+  /**
+   * Returns a list of n integers, either random or nearly sorted.
+   *
+   * @param n        the number of elements
+   * @param random   true for random elements, false for nearly sorted ones
+   * @return the list
+   */
+  static PositionalList<Integer> input(int n, boolean random) {
+    Random rnd = new Random(254);
+    PositionalList<Integer> list = new LinkedPositionalList<>();
+    for (int k = 0; k < n; k++)
+      if (random)
+        list.addLast(rnd.nextInt());
+      else
+        list.addLast(rnd.nextInt(100) == 0 ? k + rnd.nextInt(100) : k);
+    return list;
+  }
+
+  /**
+   * Returns the milliseconds taken by sorting the given list.
+   *
+   * @param list        the list to be sorted
+   * @param insertion   true for insertion sort, false for merge sort
+   * @return the elapsed milliseconds
+   */
+  static double time(PositionalList<Integer> list, boolean insertion) {
+    long start = System.nanoTime();
+    if (insertion)
+      InsertionSort.insertionSort(list);
+    else
+      MergeSort.sort(list, Comparator.naturalOrder());
+    return (System.nanoTime() - start) / 1e6;
+  }
+
+  public static void main(String[] args) {
+    time(input(100_000, true), false);          // warm up
+    System.out.printf("%12s %16s %16s %16s %16s%n", "Size",
+                      "Insertion(ms)", "Merge(ms)", "Insertion(ms)", "Merge(ms)");
+    System.out.printf("%12s %33s %33s%n", "", "random", "nearly sorted");
+    for (int n = 1_000; n <= MAX_SIZE; n *= 10) {
+      String insertionRandom = (n <= INSERTION_LIMIT) ? String.format("%,.1f", time(input(n, true), true)) : "-";
+      double mergeRandom = time(input(n, true), false);
+      double insertionSorted = time(input(n, false), true);
+      double mergeSorted = time(input(n, false), false);
+      System.out.printf("%,12d %16s %,16.1f %,16.1f %,16.1f%n",
+                        n, insertionRandom, mergeRandom, insertionSorted, mergeSorted);
+    }
+  }
+}
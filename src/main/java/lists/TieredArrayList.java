@@ -0,0 +1,335 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Realization of a list by means of a tiered vector: a sequence of fixed-size
+ * chunks, each of which is a circular array. Every chunk but the last is kept
+ * full, so the chunk and offset of index i are found with a shift and a mask,
+ * and get and set run in O(1) time.
+ *
+ * <p>An insertion or removal at index i shifts elements only within the chunk
+ * containing i, and then passes one element across each boundary between that
+ * chunk and the last one. Because the chunks are circular, each such carry
+ * takes O(1) time by moving a chunk's head. With a chunk size l, an update thus
+ * costs O(l + n/l). The chunk size is a power of two that is kept near
+ * sqrt(n/2) by rebuilding the chunks whenever n leaves the range
+ * [l<sup>2</sup>/8, 2l<sup>2</sup>], which makes add(i, e) and remove(i) run in
+ * O(sqrt(n)) amortized time.
+ */
+public class TieredArrayList<E> implements List<E> {
+  // instance variables
+  /** Base 2 logarithm of the smallest chunk size. */
+  private static final int MIN_SHIFT = 4;  // chunks hold at least 16 elements
+
+  /** Initial length of the array of chunks. */
+  private static final int CHUNKS = 4;     // initial number of chunk slots
+
+  /** Chunks storing the elements; only the first chunkCount are in use. */
+  private Object[][] chunks = new Object[CHUNKS][];
+
+  /** Index of the first element within each chunk. */
+  private int[] heads = new int[CHUNKS];
+
+  /** Number of chunks in use. */
+  private int chunkCount = 0;
+
+  /** Base 2 logarithm of the chunk size. */
+  private int shift = MIN_SHIFT;
+
+  /** Chunk size minus one, used to wrap offsets around a chunk. */
+  private int mask = (1 << MIN_SHIFT) - 1;
+
+  /** Current number of elements in the list. */
+  private int size = 0;                    // current number of elements
+
+  /** Constructs a new empty list. */
+  public TieredArrayList() { }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E get(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    return element(i);
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E set(int i, E e) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    E temp = element(i);
+    int c = i >>> shift;
+    chunks[c][(heads[c] + i) & mask] = e;
+    return temp;
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list, shifting all
+   * subsequent elements in the list one position further to make room.
+   * This method runs in O(sqrt(n)) amortized time.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  @Override
+  public void add(int i, E e) throws IndexOutOfBoundsException {
+    checkIndex(i, size + 1);
+    if (size == chunkCount << shift)           // all chunks are full
+      appendChunk();
+    int c = i >>> shift;
+    int last = chunkCount - 1;
+    for (int k = last; k > c; k--) {           // carry the last element of each full
+      int h = heads[k] = (heads[k] - 1) & mask;   // chunk to the front of the next one
+      int from = (heads[k-1] + mask) & mask;
+      chunks[k][h] = chunks[k-1][from];
+      chunks[k-1][from] = null;
+    }
+    int n = (c == last) ? size - (last << shift) : mask;   // elements left in chunk c
+    insertInChunk(c, i & mask, n, e);
+    size++;
+    if (chunkCount > 2 << shift)               // too many chunks for their size
+      retier(size);
+  }
+
+  /**
+   * Removes and returns the element at the given index, shifting all subsequent
+   * elements in the list one position closer to the front.
+   * This method runs in O(sqrt(n)) amortized time.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  @Override
+  public E remove(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    int c = i >>> shift;
+    int last = chunkCount - 1;
+    int n = (c == last) ? size - (last << shift) : mask + 1;   // elements in chunk c
+    E answer = removeFromChunk(c, i & mask, n);
+    for (int k = c + 1; k <= last; k++) {      // carry the first element of each later
+      int h = heads[k];                        // chunk to the back of the previous one
+      chunks[k-1][(heads[k-1] + mask) & mask] = chunks[k][h];
+      chunks[k][h] = null;
+      heads[k] = (h + 1) & mask;
+    }
+    size--;
+    if (size == last << shift) {               // the last chunk is now empty
+      chunks[last] = null;
+      chunkCount--;
+    }
+    if (shift > MIN_SHIFT && size < (1L << (2 * shift)) / 8)   // too few chunks for their size
+      retier(size);
+    return answer;
+  }
+
+  /**
+   * Appends all of the given elements to the end of the list, in array order.
+   * The elements are copied into the chunks with block copies, so appending n
+   * elements runs in O(n) time.
+   * @param  elements   the new elements to be stored
+   */
+  public void addAll(E[] elements) {
+    int n = elements.length;
+    if (size + n > (2L << (2 * shift)))       // rebuild once for the final size
+      retier(size + n);
+    int pos = 0;
+    if (size < chunkCount << shift) {          // fill the remainder of the last chunk
+      int c = chunkCount - 1;
+      int count = size - (c << shift);
+      int k = Math.min(mask + 1 - count, n);
+      int start = (heads[c] + count) & mask;
+      int first = Math.min(k, mask + 1 - start);
+      System.arraycopy(elements, 0, chunks[c], start, first);
+      System.arraycopy(elements, first, chunks[c], 0, k - first);
+      size += k;
+      pos = k;
+    }
+    while (pos < n) {                          // then append fresh chunks
+      appendChunk();
+      int k = Math.min(mask + 1, n - pos);
+      System.arraycopy(elements, pos, chunks[chunkCount - 1], 0, k);
+      pos += k;
+      size += k;
+    }
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Returns the element at index i, which is assumed to be valid. */
+  @SuppressWarnings({"unchecked"})
+  private E element(int i) {
+    int c = i >>> shift;
+    return (E) chunks[c][(heads[c] + i) & mask];   // i and its offset agree modulo the chunk size
+  }
+
+  /** Adds a new empty chunk after the last one. */
+  private void appendChunk() {
+    if (chunkCount == chunks.length) {         // not enough chunk slots
+      chunks = Arrays.copyOf(chunks, 2 * chunkCount);
+      heads = Arrays.copyOf(heads, 2 * chunkCount);
+    }
+    chunks[chunkCount] = new Object[mask + 1];
+    heads[chunkCount++] = 0;
+  }
+
+  /**
+   * Inserts e at offset o of chunk c, which holds n &lt; chunk size elements,
+   * shifting whichever side of o is shorter.
+   */
+  private void insertInChunk(int c, int o, int n, E e) {
+    Object[] data = chunks[c];
+    int h = heads[c];
+    if (o < n - o) {                           // shift the front one cell to the left
+      h = heads[c] = (h - 1) & mask;
+      for (int j = 0; j < o; j++)
+        data[(h + j) & mask] = data[(h + j + 1) & mask];
+    } else {                                   // shift the back one cell to the right
+      for (int j = n; j > o; j--)
+        data[(h + j) & mask] = data[(h + j - 1) & mask];
+    }
+    data[(h + o) & mask] = e;
+  }
+
+  /**
+   * Removes and returns the element at offset o of chunk c, which holds n
+   * elements, shifting whichever side of o is shorter to close the hole.
+   */
+  @SuppressWarnings({"unchecked"})
+  private E removeFromChunk(int c, int o, int n) {
+    Object[] data = chunks[c];
+    int h = heads[c];
+    E answer = (E) data[(h + o) & mask];
+    if (o < n - 1 - o) {                       // shift the front one cell to the right
+      for (int j = o; j > 0; j--)
+        data[(h + j) & mask] = data[(h + j - 1) & mask];
+      data[h] = null;                          // help garbage collection
+      heads[c] = (h + 1) & mask;
+    } else {                                   // shift the back one cell to the left
+      for (int j = o; j < n - 1; j++)
+        data[(h + j) & mask] = data[(h + j + 1) & mask];
+      data[(h + n - 1) & mask] = null;         // help garbage collection
+    }
+    return answer;
+  }
+
+  /**
+   * Rebuilds the chunks with the power-of-two chunk size closest to
+   * sqrt(capacity/2), which keeps capacity within [l<sup>2</sup>/2, 2l<sup>2</sup>].
+   */
+  private void retier(int capacity) {
+    int target = (int) Math.ceil(Math.sqrt(capacity / 2.0));
+    int newShift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(1, target - 1)));
+    int newSize = 1 << newShift;
+    int newCount = (size + newSize - 1) >>> newShift;
+    Object[][] newChunks = new Object[Math.max(CHUNKS, 2 * newCount)][];
+    for (int c = 0; c < newCount; c++) {
+      newChunks[c] = new Object[newSize];
+      for (int j = 0, i = c << newShift; j < newSize && i < size; j++, i++)
+        newChunks[c][j] = element(i);
+    }
+    chunks = newChunks;
+    heads = new int[newChunks.length];
+    chunkCount = newCount;
+    shift = newShift;
+    mask = newSize - 1;
+  }
+
+  //---------------- nested TieredIterator class ----------------
+  /**
+   * A (nonstatic) inner class. Note well that each instance contains an implicit
+   * reference to the containing list, allowing it to access the list's members.
+   */
+  private class TieredIterator implements Iterator<E> {
+    /** Index of the next element to report. */
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size; }   // size is field of outer instance
+
+    /**
+     * Returns the next object in the iterator.
+     *
+     * @return next object
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public E next() throws NoSuchElementException {
+      if (j == size) throw new NoSuchElementException("No next element");
+      removable = true;   // this element can subsequently be removed
+      return element(j++);
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      TieredArrayList.this.remove(j-1);   // that was the last one returned
+      j--;                                // next element has shifted one cell to the left
+      removable = false;                  // do not allow remove again until next is called
+    }
+  } //------------ end of nested TieredIterator class ------------
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new TieredIterator();    // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the list
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < size; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(element(j));
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
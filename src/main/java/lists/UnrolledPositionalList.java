@@ -0,0 +1,478 @@
+package lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a positional list stored as an unrolled linked list: a
+ * doubly linked list of chunks, each of which holds up to a fixed number of
+ * consecutive elements in an array. Scanning the list reads each array from
+ * start to end, and follows only one link per chunk.
+ *
+ * <p>Every element has a handle, which serves as its Position and records the
+ * chunk and the slot of the element. When elements shift within a chunk, or
+ * move to another chunk, their handles are updated, so a position stays valid
+ * until its element is removed. A full chunk is split in two halves before an
+ * insertion, and a chunk that falls below a quarter full after a removal is
+ * merged with, or refilled from, a neighbor. addBefore, addAfter and remove
+ * thus run in time proportional to the chunk capacity, which is a constant.
+ */
+public class UnrolledPositionalList<E> implements PositionalList<E> {
+  //---------------- nested Chunk class ----------------
+  /** A node of the linked list, holding a run of consecutive elements. */
+  private static class Chunk<E> {
+    private final Object[] elements;   // elements, in slots [0, count)
+    private final Handle<E>[] handles; // handle of the element in each slot
+    private int count = 0;             // number of elements in this chunk
+    private Chunk<E> prev;             // reference to the previous chunk in the list
+    private Chunk<E> next;             // reference to the subsequent chunk in the list
+
+    @SuppressWarnings({"unchecked"})
+    Chunk(int capacity) {
+      elements = new Object[capacity];
+      handles = (Handle<E>[]) new Handle<?>[capacity];   // safe cast; compiler may give warning
+    }
+
+    /** Stores the element and handle at slot s, and points the handle there. */
+    void store(int s, Object e, Handle<E> h) {
+      elements[s] = e;
+      handles[s] = h;
+      h.chunk = this;
+      h.slot = s;
+    }
+  } //----------- end of nested Chunk class -----------
+
+  //---------------- nested Handle class ----------------
+  /** The Position of an element, valid from its insertion until its removal. */
+  private static class Handle<E> implements Position<E> {
+    private Chunk<E> chunk;            // chunk holding the element (null once removed)
+    private int slot;                  // slot of the element within its chunk
+
+    /**
+     * Returns the element stored at this position.
+     * @return the stored element
+     * @throws IllegalStateException if the element has been removed
+     */
+    @SuppressWarnings({"unchecked"})
+    public E getElement() throws IllegalStateException {
+      if (chunk == null)                        // the element has been removed
+        throw new IllegalStateException("Position no longer valid");
+      return (E) chunk.elements[slot];
+    }
+  } //----------- end of nested Handle class -----------
+
+  // instance variables of the UnrolledPositionalList
+  /** Default number of elements per chunk. */
+  public static final int CHUNK_CAPACITY = 64;  // default chunk capacity
+
+  /** Number of elements per chunk. */
+  private final int capacity;
+
+  /** First chunk of the list (null if empty) */
+  private Chunk<E> head = null;
+
+  /** Last chunk of the list (null if empty) */
+  private Chunk<E> tail = null;
+
+  /** Number of elements in the list */
+  private int size = 0;                         // number of elements in the list
+
+  /** Constructs a new empty list with chunks of CHUNK_CAPACITY elements. */
+  public UnrolledPositionalList() { this(CHUNK_CAPACITY); }
+
+  /**
+   * Constructs a new empty list with chunks of the given capacity.
+   * @param capacity   the number of elements per chunk, at least 4
+   * @throws IllegalArgumentException if the capacity is less than 4
+   */
+  public UnrolledPositionalList(int capacity) throws IllegalArgumentException {
+    if (capacity < 4) throw new IllegalArgumentException("Chunk capacity must be at least 4");
+    this.capacity = capacity;
+  }
+
+  // private utilities
+  /**
+   * Verifies that a Position belongs to the appropriate class, and is
+   * not one that has been previously removed. Note that our current
+   * implementation does not actually verify that the position belongs
+   * to this particular list instance.
+   *
+   * @param p   a Position (that should belong to this list)
+   * @return    the underlying Handle instance at that position
+   * @throws IllegalArgumentException if an invalid position is detected
+   */
+  private Handle<E> validate(Position<E> p) throws IllegalArgumentException {
+    if (!(p instanceof Handle)) throw new IllegalArgumentException("Invalid p");
+    Handle<E> handle = (Handle<E>) p;     // safe cast
+    if (handle.chunk == null)             // cleared by remove
+      throw new IllegalArgumentException("p is no longer in the list");
+    return handle;
+  }
+
+  /** Inserts a new chunk after chunk c (or at the front, if c is null). */
+  private Chunk<E> linkAfter(Chunk<E> c) {
+    Chunk<E> fresh = new Chunk<>(capacity);
+    fresh.prev = c;
+    fresh.next = (c == null) ? head : c.next;
+    if (fresh.next == null) tail = fresh; else fresh.next.prev = fresh;
+    if (c == null) head = fresh; else c.next = fresh;
+    return fresh;
+  }
+
+  /** Removes chunk c from the list of chunks. */
+  private void unlink(Chunk<E> c) {
+    if (c.prev == null) head = c.next; else c.prev.next = c.next;
+    if (c.next == null) tail = c.prev; else c.next.prev = c.prev;
+  }
+
+  /**
+   * Moves the elements in slots [from, c.count) of chunk c to the end of
+   * chunk d, updating their handles.
+   */
+  private void transfer(Chunk<E> c, int from, Chunk<E> d) {
+    for (int s = from; s < c.count; s++) {
+      d.store(d.count++, c.elements[s], c.handles[s]);
+      c.elements[s] = null;            // help with garbage collection
+      c.handles[s] = null;
+    }
+    c.count = from;
+  }
+
+  /** Shifts slots [from, c.count) of chunk c by the given distance, updating handles. */
+  private static <E> void shift(Chunk<E> c, int from, int distance) {
+    if (distance > 0)
+      for (int s = c.count - 1; s >= from; s--)
+        c.store(s + distance, c.elements[s], c.handles[s]);
+    else
+      for (int s = from; s < c.count; s++)
+        c.store(s + distance, c.elements[s], c.handles[s]);
+    c.count += distance;
+    for (int s = c.count; s < c.count - distance; s++) {   // clear vacated slots
+      c.elements[s] = null;
+      c.handles[s] = null;
+    }
+  }
+
+  /**
+   * Inserts element e at slot s of chunk c, splitting the chunk first if it
+   * is full.
+   */
+  private Position<E> insert(Chunk<E> c, int s, E e) {
+    if (c.count == capacity) {                 // split into two halves
+      Chunk<E> d = linkAfter(c);
+      transfer(c, capacity / 2, d);
+      if (s > c.count) {                       // the slot is now in the second half
+        s -= c.count;
+        c = d;
+      }
+    }
+    shift(c, s, 1);
+    Handle<E> handle = new Handle<>();
+    c.store(s, e, handle);
+    size++;
+    return handle;
+  }
+
+  /**
+   * Restores the occupancy of chunk c after a removal: an empty chunk is
+   * unlinked, and a chunk less than a quarter full is merged with a neighbor,
+   * or takes elements from it if both would not fit in one chunk.
+   */
+  private void rebalance(Chunk<E> c) {
+    if (c.count == 0) {
+      unlink(c);
+      return;
+    }
+    if (c.count >= capacity / 4) return;
+    Chunk<E> left = (c.next != null) ? c : c.prev;   // merge c with a neighbor
+    if (left == null) return;                        // the only chunk
+    Chunk<E> right = left.next;
+    if (left.count + right.count <= capacity) {
+      transfer(right, 0, left);
+      unlink(right);
+    } else if (left == c) {                          // refill from the front of the right chunk
+      int k = (right.count - left.count) / 2;
+      for (int s = 0; s < k; s++)
+        left.store(left.count++, right.elements[s], right.handles[s]);
+      shift(right, k, -k);
+    } else {                                         // refill from the back of the left chunk
+      int k = (left.count - right.count) / 2;
+      shift(right, 0, k);
+      for (int s = 0; s < k; s++)
+        right.store(s, left.elements[left.count - k + s], left.handles[left.count - k + s]);
+      for (int s = left.count - k; s < left.count; s++) {
+        left.elements[s] = null;
+        left.handles[s] = null;
+      }
+      left.count -= k;
+    }
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  @Override
+  public int size() { return size; }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns the first Position in the list.
+   *
+   * @return the first Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> first() {
+    return (head == null) ? null : head.handles[0];
+  }
+
+  /**
+   * Returns the last Position in the list.
+   *
+   * @return the last Position in the list (or null, if empty)
+   */
+  @Override
+  public Position<E> last() {
+    return (tail == null) ? null : tail.handles[tail.count - 1];
+  }
+
+  /**
+   * Returns the Position immediately before Position p.
+   * @param p   a Position of the list
+   * @return the Position of the preceding element (or null, if p is first)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> before(Position<E> p) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    if (h.slot > 0) return h.chunk.handles[h.slot - 1];
+    Chunk<E> c = h.chunk.prev;
+    return (c == null) ? null : c.handles[c.count - 1];
+  }
+
+  /**
+   * Returns the Position immediately after Position p.
+   * @param p   a Position of the list
+   * @return the Position of the following element (or null, if p is last)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> after(Position<E> p) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    if (h.slot + 1 < h.chunk.count) return h.chunk.handles[h.slot + 1];
+    Chunk<E> c = h.chunk.next;
+    return (c == null) ? null : c.handles[0];
+  }
+
+  /**
+   * Returns the index of the given position, counting whole chunks before
+   * its own.
+   * @param p   a Position of the list
+   * @return the index of p (or -1, if p is null)
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public int indexOf(Position<E> p) throws IllegalArgumentException {
+    if (p == null) return -1;
+    Handle<E> h = validate(p);
+    int index = h.slot;
+    for (Chunk<E> c = h.chunk.prev; c != null; c = c.prev)
+      index += c.count;
+    return index;
+  }
+
+  // public update methods
+  /**
+   * Inserts an element at the front of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addFirst(E e) {
+    return insert((head == null) ? linkAfter(null) : head, 0, e);
+  }
+
+  /**
+   * Inserts an element at the back of the list.
+   *
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   */
+  @Override
+  public Position<E> addLast(E e) {
+    if (tail == null) linkAfter(null);
+    return insert(tail, tail.count, e);
+  }
+
+  /**
+   * Inserts an element immediately before the given Position.
+   *
+   * @param p the Position before which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    return insert(h.chunk, h.slot, e);
+  }
+
+  /**
+   * Inserts an element immediately after the given Position.
+   *
+   * @param p the Position after which the insertion takes place
+   * @param e the new element
+   * @return the Position representing the location of the new element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    return insert(h.chunk, h.slot + 1, e);
+  }
+
+  /**
+   * Replaces the element stored at the given Position and returns the replaced element.
+   *
+   * @param p the Position of the element to be replaced
+   * @param e the new element
+   * @return the replaced element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  @SuppressWarnings({"unchecked"})
+  public E set(Position<E> p, E e) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    E answer = (E) h.chunk.elements[h.slot];
+    h.chunk.elements[h.slot] = e;
+    return answer;
+  }
+
+  /**
+   * Removes the element stored at the given Position and returns it.
+   * The given position is invalidated as a result.
+   *
+   * @param p the Position of the element to be removed
+   * @return the removed element
+   * @throws IllegalArgumentException if p is not a valid position for this list
+   */
+  @Override
+  @SuppressWarnings({"unchecked"})
+  public E remove(Position<E> p) throws IllegalArgumentException {
+    Handle<E> h = validate(p);
+    Chunk<E> c = h.chunk;
+    E answer = (E) c.elements[h.slot];
+    shift(c, h.slot + 1, -1);                  // overwrites the slot and clears the last one
+    h.chunk = null;                            // invalidate the handle
+    size--;
+    rebalance(c);
+    return answer;
+  }
+
+  // support for iterating either positions and elements
+  //---------------- nested ChunkIterator class ----------------
+  /**
+   * A (nonstatic) inner class walking the slots of each chunk in turn. It
+   * reports either the elements or their positions.
+   */
+  private abstract class ChunkIterator {
+    private Chunk<E> chunk = head;       // chunk of the next element to report
+    private int slot = 0;                // slot of the next element to report
+    private Handle<E> recent = null;     // position of last reported element
+    Object recentElement;                // last reported element
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return chunk != null; }
+
+    /** Advances to the next slot, and returns the handle of the slot it leaves. */
+    Handle<E> advance() throws NoSuchElementException {
+      if (chunk == null) throw new NoSuchElementException("nothing left");
+      recent = chunk.handles[slot];
+      recentElement = chunk.elements[slot];
+      if (++slot == chunk.count) {
+        chunk = chunk.next;
+        slot = 0;
+      }
+      return recent;
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (recent == null) throw new IllegalStateException("nothing to remove");
+      Handle<E> following = (chunk == null) ? null : chunk.handles[slot];
+      UnrolledPositionalList.this.remove(recent);   // may move the following elements
+      if (following != null) {                      // so resume from its handle
+        chunk = following.chunk;
+        slot = following.slot;
+      }
+      recent = null;               // do not allow remove again until next is called
+    }
+  } //------------ end of nested ChunkIterator class ------------
+
+  /** Iterator reporting positions. */
+  private class PositionIterator extends ChunkIterator implements Iterator<Position<E>> {
+    public Position<E> next() { return advance(); }
+  }
+
+  /** Iterator reporting elements, read straight from the chunk arrays. */
+  private class ElementIterator extends ChunkIterator implements Iterator<E> {
+    @SuppressWarnings({"unchecked"})
+    public E next() {
+      advance();
+      return (E) recentElement;
+    }
+  }
+
+  //---------------- nested PositionIterable class ----------------
+  private class PositionIterable implements Iterable<Position<E>> {
+    public Iterator<Position<E>> iterator() { return new PositionIterator(); }
+  } //------------ end of nested PositionIterable class ------------
+
+  /**
+   * Returns an iterable representation of the list's positions.
+   * @return iterable representation of the list's positions
+   */
+  @Override
+  public Iterable<Position<E>> positions() {
+    return new PositionIterable();       // create a new instance of the inner class
+  }
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  @Override
+  public Iterator<E> iterator() { return new ElementIterator(); }
+
+  // Debugging code
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (Chunk<E> c = head; c != null; c = c.next)
+      for (int s = 0; s < c.count; s++) {
+        if (sb.length() > 1) sb.append(", ");
+        sb.append(c.elements[s]);
+      }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,62 @@
+package lists;
+
+import java.util.Random;
+
+/**
+ * Compares full scans of {@link LinkedPositionalList} and
+ * {@link UnrolledPositionalList}. Both lists are built by the same sequence of
+ * insertions after random positions, so that list order and allocation order
+ * differ, as they do in a long-lived list. The elements are cached Integer
+ * instances, so the scans measure the list and not the elements.
+ */
+public class UnrolledPositionalListBenchmark {
+
+  /** Number of elements in the list. */
+  static final int SIZE = 2_000_000;
+
+  /** Number of full scans timed per round. */
+  static final int SCANS = 5;
+
+  /**
+   * Builds the list by inserting each element after a random earlier position.
+   *
+   * @param list   an empty list
+   * @param seed   seed of the random positions
+   */
+  static void build(PositionalList<Integer> list, long seed) {
+    Random random = new Random(seed);
+    @SuppressWarnings({"unchecked"})
+    Position<Integer>[] positions = (Position<Integer>[]) new Position<?>[SIZE];
+    positions[0] = list.addFirst(0);
+    for (int k = 1; k < SIZE; k++)
+      positions[k] = list.addAfter(positions[random.nextInt(k)], k & 127);
+  }
+
+  /**
+   * Scans the list SCANS times and returns the average time per scan.
+   *
+   * @param list   the list to be scanned
+   * @return the average time of a scan, in milliseconds
+   */
+  static double scan(PositionalList<Integer> list) {
+    long sum = 0;
+    long start = System.nanoTime();
+    for (int round = 0; round < SCANS; round++)
+      for (Integer e : list)
+        sum += e;
+    long elapsed = System.nanoTime() - start;
+    if (sum == 42) System.out.println();   // keep sum alive
+    return elapsed / 1e6 / SCANS;
+  }
+
+  public static void main(String[] args) {
+    PositionalList<Integer> linked = new LinkedPositionalList<>();
+    PositionalList<Integer> unrolled = new UnrolledPositionalList<>();
+    build(linked, 254);
+    build(unrolled, 254);
+    System.out.printf("Full scans of a %,d element list%n%n", SIZE);
+    System.out.printf("%5s %20s %20s%n", "Round", "Linked(ms/scan)", "Unrolled(ms/scan)");
+    for (int round = 1; round <= 3; round++)
+      System.out.printf("%5d %20.1f %20.1f%n", round, scan(linked), scan(unrolled));
+  }
+}
@@ -22,12 +22,18 @@
  */
 package queues;
 
+import lists.CapacityPolicy;
+
 /**
  * Implementation of the queue ADT using a fixed-length array. All
  * operations are performed in constant time. An exception is thrown
  * if an enqueue operation is attempted when the size of the queue is
  * equal to the length of the array.
  *
+ * The array is only allocated by the first enqueue. A queue may also be
+ * given a {@link CapacityPolicy} that lets the array grow and shrink,
+ * in which case enqueue and dequeue run in amortized constant time.
+ *
  * @author Michael T. Goodrich
  * @author Roberto Tamassia
  * @author Michael H. Goldwasser
@@ -38,9 +44,15 @@ public class ArrayQueue<E> implements Queue<E> {
   /** Default array capacity. */
   public static final int CAPACITY = 1000;      // default array capacity
 
+  /** Shared array used by queues whose storage has not been allocated yet. */
+  private static final Object[] EMPTY = {};
+
   /** Generic array used for storage of queue elements. */
   private E[] data;                             // generic array used for storage
 
+  /** Policy deciding how the array grows and shrinks. */
+  private final CapacityPolicy policy;          // growth and shrink policy
+
   /** Index of the top element of the queue in the array. */
   private int f = 0;                            // index of the front element
 
@@ -55,9 +67,19 @@ public class ArrayQueue<E> implements Queue<E> {
    * Constructs and empty queue with the given array capacity.
    * @param capacity length of the underlying array
    */
-  @SuppressWarnings({"unchecked"})
   public ArrayQueue(int capacity) {             // constructs queue with given capacity
-    data = (E[]) new Object[capacity];          // safe cast; compiler may give warning
+    this(CapacityPolicy.fixed(capacity));
+  }
+
+  /**
+   * Constructs an empty queue whose array grows and shrinks as decided by
+   * the given policy.
+   * @param policy the growth and shrink policy
+   */
+  @SuppressWarnings({"unchecked"})
+  public ArrayQueue(CapacityPolicy policy) {
+    data = (E[]) EMPTY;                         // allocated by the first enqueue
+    this.policy = policy;
   }
 
   // methods
@@ -80,7 +102,11 @@ public class ArrayQueue<E> implements Queue<E> {
    */
   @Override
   public void enqueue(E e) throws IllegalStateException {
-    if (sz == data.length) throw new IllegalStateException("Queue is full");
+    if (sz == data.length) {                    // not enough capacity
+      int capacity = policy.grow(data.length, sz + 1);
+      if (capacity <= sz) throw new IllegalStateException("Queue is full");
+      resize(capacity);
+    }
     //we are adding at the back
     int avail = (f + sz) % data.length;   // use modular arithmetic
     data[avail] = e;
@@ -109,9 +135,57 @@ public class ArrayQueue<E> implements Queue<E> {
     //we are removing from the front
     f = (f + 1) % data.length;
     sz--;
+    int capacity = policy.shrink(data.length, sz);
+    if (capacity < data.length)
+      resize(capacity);
     return answer;
   }
 
+  /**
+   * Increases the capacity of the queue, if necessary, so that it can hold
+   * at least the given number of elements without further resizing. The new
+   * capacity is the one chosen by the capacity policy.
+   * @param minCapacity the desired minimum capacity
+   * @throws IllegalStateException if the policy does not let the queue grow that large
+   */
+  public void ensureCapacity(int minCapacity) throws IllegalStateException {
+    if (minCapacity > data.length) {
+      int capacity = policy.grow(data.length, minCapacity);
+      if (capacity < minCapacity) throw new IllegalStateException("Queue is full");
+      resize(capacity);
+    }
+  }
+
+  /**
+   * Returns the length of the underlying array, which is 0 while no array
+   * has been allocated.
+   * @return the current capacity of the queue
+   */
+  public int capacity() { return data.length; }
+
+  /**
+   * Reduces the capacity of the queue to its current size, releasing the
+   * array altogether if the queue is empty.
+   */
+  public void trimToSize() {
+    if (data.length > sz)
+      resize(sz);
+  }
+
+  /**
+   * Resizes internal array to have given capacity &gt;= size, moving the
+   * front element to index 0.
+   */
+  @SuppressWarnings({"unchecked"})
+  private void resize(int capacity) {
+    E[] temp = (E[]) ((capacity == 0) ? EMPTY : new Object[capacity]);   // safe cast
+    int k = Math.min(sz, data.length - f);      // elements before the wrap-around
+    System.arraycopy(data, f, temp, 0, k);
+    System.arraycopy(data, 0, temp, k, sz - k);
+    data = temp;
+    f = 0;
+  }
+
   /**
    * Returns a string representation of the queue as a list of elements.
    * This method runs in O(n) time, where n is the size of the queue.
@@ -22,12 +22,18 @@
  */
 package stacks;
 
+import lists.CapacityPolicy;
+
 /**
  * Implementation of the stack ADT using a fixed-length array.  All
  * operations are performed in constant time. An exception is thrown
  * if a push operation is attempted when the size of the stack is
  * equal to the length of the array.
  *
+ * The array is only allocated by the first push. A stack may also be
+ * given a {@link CapacityPolicy} that lets the array grow and shrink,
+ * in which case push and pop run in amortized constant time.
+ *
  * @author Michael T. Goodrich
  * @author Roberto Tamassia
  * @author Michael H. Goldwasser
@@ -36,9 +42,15 @@ public class ArrayStack<E> implements Stack<E> {
   /** Default array capacity. */
   public static final int CAPACITY=1000;   // default array capacity
 
+  /** Shared array used by stacks whose storage has not been allocated yet. */
+  private static final Object[] EMPTY = {};
+
   /** Generic array used for storage of stack elements. */
   private E[] data;                        // generic array used for storage
 
+  /** Policy deciding how the array grows and shrinks. */
+  private final CapacityPolicy policy;     // growth and shrink policy
+
   /** Index of the top element of the stack in the array. */
   private int t = -1;                      // index of the top element in stack
 
@@ -49,9 +61,19 @@ public class ArrayStack<E> implements Stack<E> {
    * Constructs and empty stack with the given array capacity.
    * @param capacity length of the underlying array
    */
-  @SuppressWarnings({"unchecked"})
   public ArrayStack(int capacity) {        // constructs stack with given capacity
-    data = (E[]) new Object[capacity];     // safe cast; compiler may give warning
+    this(CapacityPolicy.fixed(capacity));
+  }
+
+  /**
+   * Constructs an empty stack whose array grows and shrinks as decided by
+   * the given policy.
+   * @param policy the growth and shrink policy
+   */
+  @SuppressWarnings({"unchecked"})
+  public ArrayStack(CapacityPolicy policy) {
+    data = (E[]) EMPTY;                    // allocated by the first push
+    this.policy = policy;
   }
 
   /**
@@ -75,7 +97,11 @@ public class ArrayStack<E> implements Stack<E> {
    */
   @Override
   public void push(E e) throws IllegalStateException {
-    if (size() == data.length) throw new IllegalStateException("Stack is full");
+    if (size() == data.length) {             // not enough capacity
+      int capacity = policy.grow(data.length, size() + 1);
+      if (capacity <= size()) throw new IllegalStateException("Stack is full");
+      resize(capacity);
+    }
     data[++t] = e;                           // increment t before storing new item
   }
 
@@ -99,9 +125,51 @@ public class ArrayStack<E> implements Stack<E> {
     E answer = data[t];
     data[t] = null;                        // dereference to help garbage collection
     t--;
+    int capacity = policy.shrink(data.length, size());
+    if (capacity < data.length)
+      resize(capacity);
     return answer;
   }
 
+  /**
+   * Increases the capacity of the stack, if necessary, so that it can hold
+   * at least the given number of elements without further resizing. The new
+   * capacity is the one chosen by the capacity policy.
+   * @param minCapacity the desired minimum capacity
+   * @throws IllegalStateException if the policy does not let the stack grow that large
+   */
+  public void ensureCapacity(int minCapacity) throws IllegalStateException {
+    if (minCapacity > data.length) {
+      int capacity = policy.grow(data.length, minCapacity);
+      if (capacity < minCapacity) throw new IllegalStateException("Stack is full");
+      resize(capacity);
+    }
+  }
+
+  /**
+   * Returns the length of the underlying array, which is 0 while no array
+   * has been allocated.
+   * @return the current capacity of the stack
+   */
+  public int capacity() { return data.length; }
+
+  /**
+   * Reduces the capacity of the stack to its current size, releasing the
+   * array altogether if the stack is empty.
+   */
+  public void trimToSize() {
+    if (data.length > size())
+      resize(size());
+  }
+
+  /** Resizes internal array to have given capacity &gt;= size. */
+  @SuppressWarnings({"unchecked"})
+  private void resize(int capacity) {
+    E[] temp = (E[]) ((capacity == 0) ? EMPTY : new Object[capacity]);   // safe cast
+    System.arraycopy(data, 0, temp, 0, size());
+    data = temp;
+  }
+
   /**
    * Produces a string representation of the contents of the stack.
    * (ordered from top to bottom). This exists for debugging purposes only.
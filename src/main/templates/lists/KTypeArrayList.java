@@ -0,0 +1,213 @@
+package lists;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.@KType@Consumer;
+
+/**
+ * Realization of a list of {@code @ktype@} values by means of a dynamic array.
+ * This is the primitive counterpart of {@link ArrayList}: values are stored
+ * unboxed, so none of the accessor or update methods allocate wrapper objects.
+ *
+ * <p>Generated from {@code src/main/templates/lists/KTypeArrayList.java};
+ * edit the template rather than this file.
+ */
+public class @KType@ArrayList {
+  // instance variables
+  /** Default array capacity. */
+  public static final int CAPACITY=16;     // default array capacity
+
+  /** Primitive array used for storage of list elements. */
+  private @ktype@[] data;                     // primitive array used for storage
+
+  /** Current number of elements in the list. */
+  private int size = 0;                    // current number of elements
+
+  // constructors
+  /** Creates an array list with default initial capacity. */
+  public @KType@ArrayList() { this(CAPACITY); }   // constructs list with default capacity
+
+  /** Creates an array list with given initial capacity. */
+  public @KType@ArrayList(int capacity) {         // constructs list with given capacity
+    data = new @ktype@[capacity];
+  }
+
+  // public methods
+  /**
+   * Returns the number of elements in the list.
+   * @return number of elements in the list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the array list is empty.
+   * @return true if the array list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the element at index i.
+   * @param  i   the index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  public @ktype@ get(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    return data[i];
+  }
+
+  /**
+   * Replaces the element at the specified index, and returns the element previously stored.
+   * @param  i   the index of the element to replace
+   * @param  e   the new element to be stored
+   * @return the previously stored element
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()-1
+   */
+  public @ktype@ set(int i, @ktype@ e) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    @ktype@ temp = data[i];
+    data[i] = e;
+    return temp;
+  }
+
+  /**
+   * Inserts the given element at the specified index of the list, shifting all
+   * subsequent elements in the list one position further to make room.
+   * @param  i   the index at which the new element should be stored
+   * @param  e   the new element to be stored
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  public void add(int i, @ktype@ e) throws IndexOutOfBoundsException {
+    checkIndex(i, size + 1);
+    if (size == data.length)               // not enough capacity
+      resize(Math.max(1, 2 * data.length));  // so double the current capacity
+    System.arraycopy(data, i, data, i + 1, size - i);   // shift rightmost first
+    data[i] = e;                           // ready to place the new element
+    size++;
+  }
+
+  /**
+   * Removes and returns the element at the given index, shifting all subsequent
+   * elements in the list one position closer to the front.
+   * @param  i   the index of the element to be removed
+   * @return the element that had be stored at the given index
+   * @throws IndexOutOfBoundsException if the index is negative or greater than size()
+   */
+  public @ktype@ remove(int i) throws IndexOutOfBoundsException {
+    checkIndex(i, size);
+    @ktype@ temp = data[i];
+    System.arraycopy(data, i + 1, data, i, size - i - 1);   // shift elements to fill hole
+    size--;
+    return temp;
+  }
+
+  /**
+   * Tests whether the list contains the given value.
+   * @param  e   the value to search for
+   * @return true if some element of the list equals e, false otherwise
+   */
+  public boolean contains(@ktype@ e) {
+    for (int k=0; k < size; k++)
+      if (data[k] == e)
+        return true;
+    return false;
+  }
+
+  /**
+   * Performs the given action on each element of the list, in index order.
+   * @param action   the action to be performed
+   */
+  public void forEach(@KType@Consumer action) {
+    for (int k=0; k < size; k++)
+      action.accept(data[k]);
+  }
+
+  /**
+   * Returns a new array containing the elements of the list, in index order.
+   * @return array of the list's elements
+   */
+  public @ktype@[] toArray() {
+    @ktype@[] answer = new @ktype@[size];
+    System.arraycopy(data, 0, answer, 0, size);
+    return answer;
+  }
+
+  // utility methods
+  /** Checks whether the given index is in the range [0, n-1]. */
+  protected void checkIndex(int i, int n) throws IndexOutOfBoundsException {
+    if (i < 0 || i >= n)
+      throw new IndexOutOfBoundsException("Illegal index: " + i);
+  }
+
+  /** Resizes internal array to have given capacity >= size. */
+  protected void resize(int capacity) {
+    @ktype@[] temp = new @ktype@[capacity];
+    System.arraycopy(data, 0, temp, 0, size);
+    data = temp;                               // start using the new array
+  }
+
+  //---------------- nested ArrayIterator class ----------------
+  /**
+   * A (nonstatic) inner class reporting the elements without boxing them,
+   * as long as the caller uses next@KType@() rather than next().
+   */
+  private class ArrayIterator implements PrimitiveIterator.Of@KType@ {
+    /** Index of the next element to report. */
+    private int j = 0;                   // index of the next element to report
+    private boolean removable = false;   // can remove be called at this time?
+
+    /**
+     * Tests whether the iterator has a next object.
+     * @return true if there are further objects, false otherwise
+     */
+    public boolean hasNext() { return j < size; }   // size is field of outer instance
+
+    /**
+     * Returns the next element in the iterator.
+     *
+     * @return next element
+     * @throws NoSuchElementException if there are no further elements
+     */
+    public @ktype@ next@KType@() throws NoSuchElementException {
+      if (j == size) throw new NoSuchElementException("No next element");
+      removable = true;   // this element can subsequently be removed
+      return data[j++];   // post-increment j, so it is ready for future call to next
+    }
+
+    /**
+     * Removes the element returned by most recent call to next.
+     * @throws IllegalStateException if next has not yet been called
+     * @throws IllegalStateException if remove was already called since recent next
+     */
+    public void remove() throws IllegalStateException {
+      if (!removable) throw new IllegalStateException("nothing to remove");
+      @KType@ArrayList.this.remove(j-1);  // that was the last one returned
+      j--;                         // next element has shifted one cell to the left
+      removable = false;           // do not allow remove again until next is called
+    }
+  } //------------ end of nested ArrayIterator class ------------
+
+  /**
+   * Returns an iterator of the elements stored in the list.
+   * @return iterator of the list's elements
+   */
+  public PrimitiveIterator.Of@KType@ iterator() {
+    return new ArrayIterator();     // create a new instance of the inner class
+  }
+
+  /**
+   * Produces a string representation of the contents of the indexed list.
+   * This exists for debugging purposes only.
+   *
+   * @return textual representation of the array list
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = 0; j < size; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(data[j]);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,108 @@
+package queues;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a queue of {@code @ktype@} values using a fixed-length
+ * array. This is the primitive counterpart of {@link ArrayQueue}: values are
+ * stored unboxed, and all operations are performed in constant time without
+ * allocating. An exception is thrown if an enqueue operation is attempted when
+ * the size of the queue is equal to the length of the array.
+ *
+ * <p>Since a primitive value cannot be null, {@link #first()} and
+ * {@link #dequeue()} throw an exception on an empty queue instead of
+ * returning null.
+ *
+ * <p>Generated from {@code src/main/templates/queues/KTypeArrayQueue.java};
+ * edit the template rather than this file.
+ */
+public class @KType@ArrayQueue {
+  // instance variables
+  /** Default array capacity. */
+  public static final int CAPACITY = 1000;      // default array capacity
+
+  /** Primitive array used for storage of queue elements. */
+  private @ktype@[] data;                          // primitive array used for storage
+
+  /** Index of the top element of the queue in the array. */
+  private int f = 0;                            // index of the front element
+
+  /** Current number of elements in the queue. */
+  private int sz = 0;                           // current number of elements
+
+  // constructors
+  /** Constructs an empty queue using the default array capacity. */
+  public @KType@ArrayQueue() {this(CAPACITY);}         // constructs queue with default capacity
+
+  /**
+   * Constructs and empty queue with the given array capacity.
+   * @param capacity length of the underlying array
+   */
+  public @KType@ArrayQueue(int capacity) {             // constructs queue with given capacity
+    data = new @ktype@[capacity];
+  }
+
+  // methods
+  /**
+   * Returns the number of elements in the queue.
+   * @return number of elements in the queue
+   */
+  public int size() { return sz; }
+
+  /** Tests whether the queue is empty. */
+  public boolean isEmpty() { return (sz == 0); }
+
+  /**
+   * Inserts an element at the rear of the queue.
+   * This method runs in O(1) time.
+   * @param e   new element to be inserted
+   * @throws IllegalStateException if the array storing the elements is full
+   */
+  public void enqueue(@ktype@ e) throws IllegalStateException {
+    if (sz == data.length) throw new IllegalStateException("Queue is full");
+    int avail = (f + sz) % data.length;   // use modular arithmetic
+    data[avail] = e;
+    sz++;
+  }
+
+  /**
+   * Returns, but does not remove, the first element of the queue.
+   * @return the first element of the queue
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public @ktype@ first() throws NoSuchElementException {
+    if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+    return data[f];
+  }
+
+  /**
+   * Removes and returns the first element of the queue.
+   * @return element removed
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public @ktype@ dequeue() throws NoSuchElementException {
+    if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+    @ktype@ answer = data[f];
+    f = (f + 1) % data.length;
+    sz--;
+    return answer;
+  }
+
+  /**
+   * Returns a string representation of the queue as a list of elements.
+   * This method runs in O(n) time, where n is the size of the queue.
+   * @return textual representation of the queue.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    int k = f;
+    for (int j=0; j < sz; j++) {
+      if (j > 0)
+        sb.append(", ");
+      sb.append(data[k]);
+      k = (k + 1) % data.length;
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
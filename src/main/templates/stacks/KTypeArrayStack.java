@@ -0,0 +1,96 @@
+package stacks;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a stack of {@code @ktype@} values using a fixed-length
+ * array. This is the primitive counterpart of {@link ArrayStack}: values are
+ * stored unboxed, and all operations are performed in constant time without
+ * allocating. An exception is thrown if a push operation is attempted when the
+ * size of the stack is equal to the length of the array.
+ *
+ * <p>Since a primitive value cannot be null, {@link #top()} and {@link #pop()}
+ * throw an exception on an empty stack instead of returning null.
+ *
+ * <p>Generated from {@code src/main/templates/stacks/KTypeArrayStack.java};
+ * edit the template rather than this file.
+ */
+public class @KType@ArrayStack {
+  /** Default array capacity. */
+  public static final int CAPACITY=1000;   // default array capacity
+
+  /** Primitive array used for storage of stack elements. */
+  private @ktype@[] data;                     // primitive array used for storage
+
+  /** Index of the top element of the stack in the array. */
+  private int t = -1;                      // index of the top element in stack
+
+  /** Constructs an empty stack using the default array capacity. */
+  public @KType@ArrayStack() { this(CAPACITY); }  // constructs stack with default capacity
+
+  /**
+   * Constructs and empty stack with the given array capacity.
+   * @param capacity length of the underlying array
+   */
+  public @KType@ArrayStack(int capacity) {        // constructs stack with given capacity
+    data = new @ktype@[capacity];
+  }
+
+  /**
+   * Returns the number of elements in the stack.
+   * @return number of elements in the stack
+   */
+  public int size() { return (t + 1); }
+
+  /**
+   * Tests whether the stack is empty.
+   * @return true if the stack is empty, false otherwise
+   */
+  public boolean isEmpty() { return (t == -1); }
+
+  /**
+   * Inserts an element at the top of the stack.
+   * @param e   the element to be inserted
+   * @throws IllegalStateException if the array storing the elements is full
+   */
+  public void push(@ktype@ e) throws IllegalStateException {
+    if (size() == data.length) throw new IllegalStateException("Stack is full");
+    data[++t] = e;                           // increment t before storing new item
+  }
+
+  /**
+   * Returns, but does not remove, the element at the top of the stack.
+   * @return top element in the stack
+   * @throws NoSuchElementException if the stack is empty
+   */
+  public @ktype@ top() throws NoSuchElementException {
+    if (isEmpty()) throw new NoSuchElementException("Stack is empty");
+    return data[t];
+  }
+
+  /**
+   * Removes and returns the top element from the stack.
+   * @return element removed
+   * @throws NoSuchElementException if the stack is empty
+   */
+  public @ktype@ pop() throws NoSuchElementException {
+    if (isEmpty()) throw new NoSuchElementException("Stack is empty");
+    return data[t--];
+  }
+
+  /**
+   * Produces a string representation of the contents of the stack.
+   * (ordered from top to bottom). This exists for debugging purposes only.
+   *
+   * @return textual representation of the stack
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int j = t; j >= 0; j--) {
+      sb.append(data[j]);
+      if (j > 0) sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
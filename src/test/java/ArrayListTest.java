@@ -0,0 +1,282 @@
+import lists.ArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test class for the bulk and lookup operations of lists.ArrayList.
+ */
+public class ArrayListTest {
+
+    /**
+     * Helper factory method for creating a list with the given elements.
+     * @param elements the elements to be added to the list
+     * @return a list with the given elements
+     */
+    @SafeVarargs
+    static <E> ArrayList<E> createList(E... elements) {
+        final ArrayList<E> list = new ArrayList<>(2);
+        for (E element : elements) {
+            list.add(list.size(), element);
+        }
+        return list;
+    }
+
+    /**
+     * Asserts that the list contains exactly the expected elements in the
+     * expected order.
+     * @param list the list to be tested
+     * @param elements the expected elements in the expected order
+     */
+    @SafeVarargs
+    static <E> void assertListEquals(ArrayList<E> list, E... elements) {
+        assertEquals(elements.length, list.size());
+        for (int i = 0; i < elements.length; i++) {
+            assertEquals(elements[i], list.get(i));
+        }
+    }
+
+    /**
+     * Test to insert an array of elements into the middle of a list.
+     */
+    @Test
+    void addAllArrayInMiddle() {
+        ArrayList<String> list = createList("a", "b", "e");
+        list.addAll(2, new String[]{"c", "d"});
+        assertListEquals(list, "a", "b", "c", "d", "e");
+    }
+
+    /**
+     * Test to insert an iterable of elements at the front and at the back of
+     * a list, growing the array past its initial capacity.
+     */
+    @Test
+    void addAllIterableAtEnds() {
+        ArrayList<Integer> list = createList(3);
+        list.addAll(0, java.util.List.of(1, 2));
+        list.addAll(list.size(), () -> java.util.List.of(4, 5, 6).iterator());
+        assertListEquals(list, 1, 2, 3, 4, 5, 6);
+    }
+
+    /**
+     * Test to insert a list into itself.
+     */
+    @Test
+    void addAllOfItself() {
+        ArrayList<String> list = createList("x", "y");
+        list.addAll(1, list);
+        assertListEquals(list, "x", "x", "y", "y");
+    }
+
+    /**
+     * Test to insert elements at an index past the end of the list.
+     */
+    @Test
+    void addAllAtIllegalIndex() {
+        ArrayList<String> list = createList("a");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(2, new String[]{"b"}));
+    }
+
+    /**
+     * Test to remove a range of elements, leaving the list iterable.
+     */
+    @Test
+    void removeRange() {
+        ArrayList<Integer> list = createList(0, 1, 2, 3, 4, 5);
+        list.removeRange(1, 4);
+        assertListEquals(list, 0, 4, 5);
+        list.removeRange(0, 0);
+        assertListEquals(list, 0, 4, 5);
+        Iterator<Integer> walk = list.iterator();
+        walk.next();
+        walk.remove();
+        assertListEquals(list, 4, 5);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(2, 1));
+    }
+
+    /**
+     * Test to replace a range of elements.
+     */
+    @Test
+    void setAll() {
+        ArrayList<String> list = createList("a", "b", "c", "d");
+        list.setAll(1, new String[]{"B", "C"});
+        assertListEquals(list, "a", "B", "C", "d");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.setAll(3, new String[]{"D", "E"}));
+    }
+
+    /**
+     * Test to insert many elements after ensuring the capacity up front.
+     */
+    @Test
+    void ensureCapacity() {
+        ArrayList<Integer> list = new ArrayList<>(0);
+        list.ensureCapacity(100);
+        for (int i = 0; i < 100; i++) {
+            list.add(i, i);
+        }
+        assertEquals(100, list.size());
+        assertEquals(99, list.get(99));
+    }
+
+    /**
+     * Test to look up elements, including null, with and without an index.
+     */
+    @Test
+    void lookupsWithNullElements() {
+        for (boolean indexed : new boolean[]{false, true}) {
+            ArrayList<String> list = createList("a", null, "b", "a", null);
+            list.setIndexed(indexed);
+            assertEquals(indexed, list.isIndexed());
+            assertTrue(list.contains(null));
+            assertEquals(1, list.indexOf(null));
+            assertEquals(4, list.lastIndexOf(null));
+            assertEquals(0, list.indexOf("a"));
+            assertEquals(3, list.lastIndexOf("a"));
+            assertEquals(-1, list.indexOf("c"));
+            assertFalse(list.contains("c"));
+        }
+    }
+
+    /**
+     * Test that a deduplication loop over an indexed list keeps the first
+     * occurrence of each element.
+     */
+    @Test
+    void deduplicateWithIndex() {
+        ArrayList<Integer> unique = new ArrayList<>();
+        unique.setIndexed(true);
+        for (int i = 0; i < 1000; i++) {
+            Integer value = (i * 7) % 300;
+            if (!unique.contains(value)) {
+                unique.add(unique.size(), value);
+            }
+        }
+        assertEquals(300, unique.size());
+        assertEquals(0, unique.indexOf(0));
+        assertEquals(1, unique.indexOf(7));
+    }
+
+    /**
+     * Test that the lookups of an indexed list agree with linear scans of an
+     * unindexed copy through a long sequence of random updates, including
+     * shifting ones that force the index to be rebuilt.
+     */
+    @Test
+    void indexAgreesWithLinearScan() {
+        ArrayList<Integer> indexed = new ArrayList<>();
+        ArrayList<Integer> linear = new ArrayList<>();
+        indexed.setIndexed(true);
+        Random random = new Random(254);
+        for (int op = 0; op < 2000; op++) {
+            Integer value = random.nextInt(20) == 0 ? null : random.nextInt(50);
+            int choice = random.nextInt(10);
+            if (choice < 4 || linear.isEmpty()) {
+                int i = random.nextInt(3) == 0 ? random.nextInt(linear.size() + 1) : linear.size();
+                indexed.add(i, value);
+                linear.add(i, value);
+            } else if (choice < 6) {
+                int i = random.nextInt(3) == 0 ? random.nextInt(linear.size()) : linear.size() - 1;
+                assertEquals(linear.remove(i), indexed.remove(i));
+            } else if (choice < 8) {
+                int i = random.nextInt(linear.size());
+                assertEquals(linear.set(i, value), indexed.set(i, value));
+            } else if (choice < 9 && linear.size() > 4) {
+                int from = random.nextInt(linear.size() - 3);
+                int to = random.nextBoolean() ? from + 3 : linear.size();
+                indexed.removeRange(from, to);
+                linear.removeRange(from, to);
+            } else {
+                Integer[] block = {value, value, random.nextInt(50)};
+                int i = random.nextBoolean() ? linear.size() : random.nextInt(linear.size() + 1);
+                indexed.addAll(i, block);
+                linear.addAll(i, block);
+            }
+            Integer probe = random.nextInt(10) == 0 ? null : random.nextInt(50);
+            assertEquals(linear.indexOf(probe), indexed.indexOf(probe));
+            assertEquals(linear.lastIndexOf(probe), indexed.lastIndexOf(probe));
+        }
+    }
+
+    /**
+     * Test that the spliterator reports exact sizes and splits the list into
+     * halves that together cover every element in order.
+     */
+    @Test
+    void spliteratorSplitsByIndexRange() {
+        ArrayList<Integer> list = createList(0, 1, 2, 3, 4);
+        Spliterator<Integer> right = list.spliterator();
+        list.add(5, 5);                        // late-binding: seen by the spliterator
+        assertTrue(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> left = right.trySplit();
+        assertEquals(3, left.estimateSize());
+        assertEquals(3, right.estimateSize());
+        java.util.List<Integer> seen = new java.util.ArrayList<>();
+        left.forEachRemaining(seen::add);
+        while (right.tryAdvance(seen::add)) { }
+        assertEquals(java.util.List.of(0, 1, 2, 3, 4, 5), seen);
+        Spliterator<Integer> single = createList(7).spliterator();
+        assertNull(single.trySplit());
+    }
+
+    /**
+     * Test that sequential and parallel streams report the elements in order.
+     */
+    @Test
+    void streams() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i, i);
+        }
+        assertEquals(4_999_950_000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(java.util.List.of(0, 1, 2), list.stream().limit(3).collect(Collectors.toList()));
+        assertEquals(list.size(), list.parallelStream().map(i -> i + 1).collect(Collectors.toList()).size());
+        assertEquals(99_999, list.parallelStream().skip(99_999).findFirst().orElseThrow());
+    }
+
+    /**
+     * Test that the fork-join bulk operations agree with their sequential
+     * counterparts, and that a non-commutative reduction keeps the order.
+     */
+    @Test
+    void parallelBulkOperations() {
+        ArrayList<Integer> list = new ArrayList<>();
+        ArrayList<Integer> reference = new ArrayList<>();
+        list.setIndexed(true);
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i, i);
+            reference.add(i, i);
+        }
+        list.parallelReplaceAll(x -> x * 3 % 1000);
+        reference.replaceAll(x -> x * 3 % 1000);
+        for (int i = 0; i < reference.size(); i++) {
+            assertEquals(reference.get(i), list.get(i));
+        }
+        assertEquals(reference.indexOf(999), list.indexOf(999));
+        LongAdder total = new LongAdder();
+        list.parallelForEach(total::add);
+        long expected = 0;
+        for (Integer x : reference) {
+            expected += x;
+        }
+        assertEquals(expected, total.sum());
+        ArrayList<String> words = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            words.add(i, String.valueOf((char) ('a' + i % 26)));
+        }
+        String concatenated = words.parallelReduce("", String::concat);
+        assertEquals(words.stream().collect(Collectors.joining()), concatenated);
+        assertEquals("", new ArrayList<String>().parallelReduce("", String::concat));
+    }
+}
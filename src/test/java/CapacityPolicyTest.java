@@ -0,0 +1,167 @@
+import lists.ArrayList;
+import lists.CapacityPolicy;
+import org.junit.jupiter.api.Test;
+import queues.ArrayQueue;
+import stacks.ArrayStack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test class for the capacity policies of the array-based list, stack and
+ * queue.
+ */
+public class CapacityPolicyTest {
+
+    /**
+     * Test that the default constructors allocate no array until the first
+     * insertion.
+     */
+    @Test
+    void lazyAllocation() {
+        ArrayList<String> list = new ArrayList<>();
+        ArrayStack<String> stack = new ArrayStack<>();
+        ArrayQueue<String> queue = new ArrayQueue<>();
+        assertEquals(0, list.capacity());
+        assertEquals(0, stack.capacity());
+        assertEquals(0, queue.capacity());
+        list.add(0, "a");
+        stack.push("a");
+        queue.enqueue("a");
+        assertEquals(ArrayList.CAPACITY, list.capacity());
+        assertEquals(ArrayStack.CAPACITY, stack.capacity());
+        assertEquals(ArrayQueue.CAPACITY, queue.capacity());
+    }
+
+    /**
+     * Test that a stack and a queue with a fixed capacity still refuse to
+     * grow.
+     */
+    @Test
+    void fixedCapacityIsRefused() {
+        ArrayStack<Integer> stack = new ArrayStack<>(2);
+        ArrayQueue<Integer> queue = new ArrayQueue<>(2);
+        for (int i = 0; i < 2; i++) {
+            stack.push(i);
+            queue.enqueue(i);
+        }
+        assertThrows(IllegalStateException.class, () -> stack.push(2));
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(2));
+        ArrayList<Integer> list = new ArrayList<>(CapacityPolicy.fixed(1));
+        list.add(0, 0);
+        assertThrows(IllegalStateException.class, () -> list.add(1, 1));
+        assertEquals(1, list.size());
+    }
+
+    /**
+     * Test that an elastic stack halves its array at quarter occupancy, and
+     * that alternating pushes and pops at that boundary do not resize it.
+     */
+    @Test
+    void elasticStackShrinksWithHysteresis() {
+        ArrayStack<Integer> stack = new ArrayStack<>(CapacityPolicy.elastic(4));
+        for (int i = 0; i < 64; i++) {
+            stack.push(i);
+        }
+        assertEquals(64, stack.capacity());
+        while (stack.size() > 16) {
+            stack.pop();
+        }
+        assertEquals(32, stack.capacity());
+        for (int k = 0; k < 10; k++) {
+            stack.push(-1);
+            stack.pop();
+            assertEquals(32, stack.capacity());
+        }
+        while (!stack.isEmpty()) {
+            assertEquals(stack.size() - 1, stack.pop());
+        }
+        assertEquals(4, stack.capacity());
+    }
+
+    /**
+     * Test that an elastic queue keeps its order while its array grows and
+     * shrinks around the wrap-around point.
+     */
+    @Test
+    void elasticQueueKeepsOrder() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(CapacityPolicy.elastic(4));
+        java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+        java.util.Random random = new java.util.Random(254);
+        for (int op = 0; op < 5000; op++) {
+            if (reference.isEmpty() || random.nextInt(op % 1000 < 500 ? 3 : 2) != 0) {
+                queue.enqueue(op);
+                reference.addLast(op);
+            } else {
+                assertEquals(reference.removeFirst(), queue.dequeue());
+            }
+            assertEquals(reference.size(), queue.size());
+            assertEquals(reference.peekFirst(), queue.first());
+            assertTrue(queue.capacity() <= Math.max(4, 4 * queue.size()));
+        }
+    }
+
+    /**
+     * Test that trimToSize releases unused cells, and that ensureCapacity
+     * reserves them, for each of the three containers.
+     */
+    @Test
+    void trimAndEnsureCapacity() {
+        ArrayList<Integer> list = new ArrayList<>();
+        ArrayStack<Integer> stack = new ArrayStack<>(CapacityPolicy.doubling(8));
+        ArrayQueue<Integer> queue = new ArrayQueue<>(CapacityPolicy.doubling(8));
+        for (int i = 0; i < 5; i++) {
+            list.add(i, i);
+            stack.push(i);
+            queue.enqueue(i);
+        }
+        queue.dequeue();
+        queue.enqueue(5);
+        list.trimToSize();
+        stack.trimToSize();
+        queue.trimToSize();
+        assertEquals(5, list.capacity());
+        assertEquals(5, stack.capacity());
+        assertEquals(5, queue.capacity());
+        assertEquals(1, queue.first());
+        list.ensureCapacity(100);
+        stack.ensureCapacity(100);
+        queue.ensureCapacity(100);
+        assertTrue(list.capacity() >= 100);
+        assertTrue(stack.capacity() >= 100);
+        assertTrue(queue.capacity() >= 100);
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+        assertEquals(4, stack.pop());
+        assertEquals(4, list.get(4));
+        queue.trimToSize();
+        assertEquals(0, queue.capacity());
+        queue.enqueue(6);
+        assertEquals(6, queue.first());
+    }
+
+    /**
+     * Test that ensureCapacity respects a fixed capacity, refusing to grow
+     * beyond it, for each of the three containers.
+     */
+    @Test
+    void ensureCapacityRespectsFixedPolicy() {
+        ArrayList<Integer> list = new ArrayList<>(CapacityPolicy.fixed(10));
+        ArrayStack<Integer> stack = new ArrayStack<>(CapacityPolicy.fixed(10));
+        ArrayQueue<Integer> queue = new ArrayQueue<>(CapacityPolicy.fixed(10));
+        list.ensureCapacity(4);
+        stack.ensureCapacity(4);
+        queue.ensureCapacity(4);
+        assertEquals(10, list.capacity());
+        assertEquals(10, stack.capacity());
+        assertEquals(10, queue.capacity());
+        assertThrows(IllegalStateException.class, () -> list.ensureCapacity(100));
+        assertThrows(IllegalStateException.class, () -> stack.ensureCapacity(100));
+        assertThrows(IllegalStateException.class, () -> queue.ensureCapacity(100));
+        assertEquals(10, list.capacity());
+        assertEquals(10, stack.capacity());
+        assertEquals(10, queue.capacity());
+    }
+}
@@ -1,11 +1,22 @@
+import lists.CompactPositionalList;
+import lists.ConcurrentPositionalList;
+import lists.IndexedPositionalList;
 import lists.LinkedPositionalList;
+import lists.PooledPositionalList;
+import lists.UnrolledPositionalList;
 import lists.Position;
 import lists.PositionalList;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test class for testing the functionality of PositionalList.
@@ -25,6 +36,409 @@ public class Exercise1Test {
         protected <E> PositionalList<E> createList() {
             return new LinkedPositionalList<>();
         }
+
+        /**
+         * Asserts that moving single positions relinks them in place and
+         * keeps them valid.
+         */
+        @Test
+        void moveBeforeAndAfter() {
+            LinkedPositionalList<String> linked = (LinkedPositionalList<String>) list;
+            Position<String> a = list.addLast("a");
+            Position<String> b = list.addLast("b");
+            Position<String> c = list.addLast("c");
+            linked.moveBefore(c, a);
+            assertEquals("(c, a, b)", list.toString());
+            linked.moveAfter(c, b);
+            assertEquals("(a, b, c)", list.toString());
+            linked.moveBefore(a, b);
+            linked.moveAfter(c, b);
+            linked.moveBefore(b, b);
+            assertEquals("(a, b, c)", list.toString());
+            linked.moveAfter(a, c);
+            assertEquals("a", a.getElement());
+            assertEquals(a, list.last());
+            assertEquals(c, list.before(a));
+            assertEquals(b, list.first());
+            assertEquals(3, list.size());
+        }
+
+        /**
+         * Asserts that splicing a run within a list and into another list
+         * keeps the moved positions valid and both sizes right, and that
+         * malformed runs are rejected.
+         */
+        @Test
+        void splice() {
+            LinkedPositionalList<Integer> source = new LinkedPositionalList<>();
+            LinkedPositionalList<Integer> target = new LinkedPositionalList<>();
+            java.util.List<Position<Integer>> p = new java.util.ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                p.add(source.addLast(i));
+            }
+            source.splice(p.get(4), p.get(5), source, p.get(1));
+            assertEquals("(0, 4, 5, 1, 2, 3)", source.toString());
+            source.splice(p.get(1), p.get(2), source, null);
+            assertEquals("(0, 4, 5, 3, 1, 2)", source.toString());
+            assertThrows(IllegalArgumentException.class, () -> source.splice(p.get(5), p.get(1), source, p.get(3)));
+            assertThrows(IllegalArgumentException.class, () -> source.splice(p.get(2), p.get(4), source, null));
+            assertEquals("(0, 4, 5, 3, 1, 2)", source.toString());
+            Position<Integer> x = target.addLast(10);
+            source.splice(p.get(4), p.get(3), target, x);
+            source.splice(p.get(2), p.get(2), target, null);
+            assertEquals("(0, 1)", source.toString());
+            assertEquals("(4, 5, 3, 10, 2)", target.toString());
+            assertEquals(2, source.size());
+            assertEquals(5, target.size());
+            assertEquals(p.get(5), target.after(p.get(4)));
+            assertEquals(p.get(2), target.last());
+            target.remove(p.get(3));
+            assertEquals(p.get(5), target.before(x));
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of a PooledPositionalList.
+     */
+    @Nested
+    class PooledPositionalListTest extends PositionalListTest {
+
+        @Override
+        protected <E> PositionalList<E> createList() {
+            return new PooledPositionalList<>(2);
+        }
+
+        /**
+         * Asserts that a removed position stays invalid after its node has
+         * been reused by a later insertion, and that the pool is bounded.
+         */
+        @Test
+        void stalePositionRejectedAfterReuse() {
+            Position<String> a = list.addLast("a");
+            Position<String> b = list.addLast("b");
+            Position<String> c = list.addLast("c");
+            list.remove(a);
+            list.remove(b);
+            list.remove(c);
+            assertEquals(2, ((PooledPositionalList<String>) list).pooled());
+            Position<String> d = list.addLast("d");
+            Position<String> e = list.addFirst("e");
+            assertEquals(0, ((PooledPositionalList<String>) list).pooled());
+            assertThrows(IllegalStateException.class, a::getElement);
+            assertThrows(IllegalArgumentException.class, () -> list.after(b));
+            assertThrows(IllegalArgumentException.class, () -> list.remove(c));
+            assertEquals("d", d.getElement());
+            assertEquals(e, list.before(d));
+            assertEquals("(e, d)", list.toString());
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of an IndexedPositionalList.
+     */
+    @Nested
+    class IndexedPositionalListTest extends PositionalListTest {
+
+        @Override
+        protected <E> PositionalList<E> createList() {
+            return new IndexedPositionalList<>();
+        }
+
+        /**
+         * Asserts that indexOf and positionAt agree with a java.util.ArrayList
+         * of positions through a long sequence of random updates.
+         */
+        @Test
+        void ranksMatchReference() {
+            java.util.List<Position<String>> reference = new java.util.ArrayList<>();
+            Random random = new Random(254);
+            for (int op = 0; op < 3000; op++) {
+                int choice = random.nextInt(10);
+                if (choice < 6 || reference.isEmpty()) {
+                    int i = random.nextInt(reference.size() + 1);
+                    String e = "e" + op;
+                    Position<String> p;
+                    if (i == reference.size()) {
+                        p = random.nextBoolean() || i == 0 ? list.addLast(e) : list.addAfter(reference.get(i - 1), e);
+                    } else {
+                        p = i == 0 && random.nextBoolean() ? list.addFirst(e) : list.addBefore(reference.get(i), e);
+                    }
+                    reference.add(i, p);
+                } else {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.get(i).getElement(), list.remove(reference.remove(i)));
+                }
+                int i = random.nextInt(reference.size() + 1) - 1;
+                if (i >= 0) {
+                    assertEquals(i, list.indexOf(reference.get(i)));
+                    assertEquals(reference.get(i), list.positionAt(i));
+                }
+                assertEquals(reference.size(), list.size());
+            }
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of an UnrolledPositionalList.
+     */
+    @Nested
+    class UnrolledPositionalListTest extends PositionalListTest {
+
+        @Override
+        protected <E> PositionalList<E> createList() {
+            return new UnrolledPositionalList<>(4);
+        }
+
+        /**
+         * Asserts that positions stay valid, and that navigation, iteration
+         * and indexOf agree with a java.util.ArrayList of positions, while
+         * random updates split, merge and refill the chunks.
+         */
+        @Test
+        void positionsSurviveSplitsAndMerges() {
+            java.util.List<Position<String>> reference = new java.util.ArrayList<>();
+            Random random = new Random(254);
+            for (int op = 0; op < 3000; op++) {
+                boolean grow = (op / 500) % 2 == 0;
+                if (reference.isEmpty() || random.nextInt(10) < (grow ? 7 : 3)) {
+                    int i = random.nextInt(reference.size() + 1);
+                    String e = "e" + op;
+                    Position<String> p;
+                    if (i == reference.size()) {
+                        p = i == 0 || random.nextBoolean() ? list.addLast(e) : list.addAfter(reference.get(i - 1), e);
+                    } else {
+                        p = i == 0 && random.nextBoolean() ? list.addFirst(e) : list.addBefore(reference.get(i), e);
+                    }
+                    reference.add(i, p);
+                } else {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.get(i).getElement(), list.remove(reference.remove(i)));
+                }
+                if (!reference.isEmpty()) {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(i, list.indexOf(reference.get(i)));
+                    assertEquals(i == 0 ? null : reference.get(i - 1), list.before(reference.get(i)));
+                    assertEquals(i == reference.size() - 1 ? null : reference.get(i + 1), list.after(reference.get(i)));
+                }
+            }
+            Iterator<String> walk = list.iterator();
+            for (Position<String> p : reference) {
+                assertEquals(p.getElement(), walk.next());
+            }
+            Iterator<Position<String>> positions = list.positions().iterator();
+            while (positions.hasNext()) {
+                positions.next();
+                positions.remove();
+                if (positions.hasNext()) {
+                    positions.next();
+                }
+            }
+            for (int i = 0; i < reference.size(); i++) {
+                if (i % 2 == 0) {
+                    assertThrows(IllegalStateException.class, reference.get(i)::getElement);
+                } else {
+                    assertEquals(reference.get(i), list.positionAt(i / 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of a CompactPositionalList.
+     */
+    @Nested
+    class CompactPositionalListTest extends PositionalListTest {
+
+        @Override
+        protected <E> PositionalList<E> createList() {
+            return new CompactPositionalList<>(1);
+        }
+
+        /**
+         * Asserts that handles of a reused slot are told apart by their
+         * generation, in both the long and the Position form.
+         */
+        @Test
+        void staleHandlesRejectedAfterReuse() {
+            CompactPositionalList<String> compact = (CompactPositionalList<String>) list;
+            long a = compact.addLastHandle("a");
+            Position<String> b = list.addLast("b");
+            assertEquals("a", compact.remove(a));
+            long c = compact.addFirstHandle("c");       // reuses the slot of a
+            assertThrows(IllegalArgumentException.class, () -> compact.getElement(a));
+            assertThrows(IllegalArgumentException.class, () -> compact.remove(a));
+            assertEquals("c", compact.getElement(c));
+            assertEquals(compact.positionOf(c), list.before(b));
+            assertEquals(c, compact.handleOf(list.first()));
+            list.remove(b);
+            assertThrows(IllegalStateException.class, b::getElement);
+            assertEquals("(c)", list.toString());
+        }
+
+        /**
+         * Asserts that churning through the long handles allocates nothing
+         * once the arrays are large enough.
+         */
+        @Test
+        void handleChurnDoesNotAllocate() {
+            CompactPositionalList<String> compact = new CompactPositionalList<>(100);
+            long[] handles = new long[100];
+            for (int i = 0; i < handles.length; i++) {
+                handles[i] = compact.addLastHandle("x");
+            }
+            long before = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+            for (int op = 0; op < 100_000; op++) {
+                int i = op % handles.length;
+                compact.remove(handles[i]);
+                handles[i] = (op & 1) == 0 ? compact.addLastHandle("y") : compact.addFirstHandle("z");
+            }
+            long allocated = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes() - before;
+            assertTrue(allocated < 4096, allocated + " bytes allocated");
+            assertEquals(100, compact.size());
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of a ConcurrentPositionalList.
+     */
+    @Nested
+    class ConcurrentPositionalListTest extends PositionalListTest {
+
+        @Override
+        protected <E> PositionalList<E> createList() {
+            return new ConcurrentPositionalList<>();
+        }
+
+        /**
+         * Asserts that threads inserting and removing around their own
+         * positions, including at the boundaries between their regions, leave
+         * the list linked consistently in both directions, while a reader
+         * iterates it concurrently.
+         */
+        @Test
+        void concurrentEditsKeepListConsistent() throws InterruptedException {
+            ConcurrentPositionalList<Integer> shared = new ConcurrentPositionalList<>();
+            Thread[] writers = new Thread[4];
+            java.util.List<java.util.List<Position<Integer>>> regions = new java.util.ArrayList<>();
+            for (int t = 0; t < writers.length; t++) {
+                java.util.List<Position<Integer>> region = new java.util.ArrayList<>();
+                for (int k = 0; k < 8; k++) {
+                    region.add(shared.addLast(t));
+                }
+                regions.add(region);
+            }
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            for (int t = 0; t < writers.length; t++) {
+                java.util.List<Position<Integer>> region = regions.get(t);
+                writers[t] = new Thread(() -> {
+                    Random random = new Random(region.hashCode());
+                    try {
+                        for (int op = 0; op < 20_000; op++) {
+                            int i = random.nextInt(region.size());
+                            Position<Integer> p = region.get(i);
+                            Integer e = p.getElement();
+                            if (region.size() < 4 || random.nextBoolean()) {
+                                region.add(i + 1, shared.addAfter(p, e));
+                            } else if (random.nextBoolean()) {
+                                region.add(i, shared.addBefore(p, e));
+                            } else {
+                                assertEquals(e, shared.remove(region.remove(i)));
+                            }
+                        }
+                    } catch (Throwable x) {
+                        failure.set(x);
+                    }
+                });
+            }
+            Thread reader = new Thread(() -> {
+                try {
+                    while (writers[0].isAlive()) {
+                        int previous = 0;
+                        for (Integer e : shared) {
+                            assertTrue(e >= previous);
+                            previous = e;
+                        }
+                    }
+                } catch (Throwable x) {
+                    failure.set(x);
+                }
+            });
+            for (Thread writer : writers) {
+                writer.start();
+            }
+            reader.start();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            reader.join();
+            assertEquals(null, failure.get());
+            java.util.List<Position<Integer>> expected = new java.util.ArrayList<>();
+            regions.forEach(expected::addAll);
+            assertEquals(expected.size(), shared.size());
+            Position<Integer> p = shared.first();
+            for (Position<Integer> q : expected) {
+                assertEquals(q, p);
+                p = shared.after(p);
+            }
+            assertEquals(null, p);
+            p = shared.last();
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                assertEquals(expected.get(i), p);
+                p = shared.before(p);
+            }
+            assertEquals(null, p);
+        }
+
+        /**
+         * Asserts that iterating the elements while other positions are
+         * removed reports only elements in the list, skipping removed ones
+         * and never reporting null, and still visits every stable element.
+         */
+        @Test
+        void iterationOverlappingRemovalSkipsRemovedElements() throws InterruptedException {
+            ConcurrentPositionalList<Integer> shared = new ConcurrentPositionalList<>();
+            java.util.List<Position<Integer>> stable = new java.util.ArrayList<>();
+            for (int k = 0; k < 16; k++) {
+                stable.add(shared.addLast(0));
+            }
+            Position<Integer> doomed = shared.addAfter(stable.get(0), 1);
+            Iterator<Integer> iter = shared.iterator();
+            assertEquals(0, iter.next());
+            assertTrue(iter.hasNext());
+            shared.remove(doomed);
+            assertEquals(1, iter.next());          // read before it was removed
+            shared.remove(stable.remove(1));
+            assertEquals(0, iter.next());          // skips the removed one
+            iter.remove();                         // removes the element just reported
+            stable.remove(1);
+            assertEquals(stable.get(1), shared.after(stable.get(0)));
+            assertEquals(stable.size(), shared.size());
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread remover = new Thread(() -> {
+                Random random = new Random(254);
+                try {
+                    for (int op = 0; op < 50_000; op++) {
+                        Position<Integer> p = stable.get(random.nextInt(stable.size()));
+                        shared.remove(shared.addAfter(p, 1));
+                    }
+                } catch (Throwable x) {
+                    failure.set(x);
+                }
+            });
+            remover.start();
+            while (remover.isAlive()) {
+                int zeros = 0;
+                for (Integer e : shared) {
+                    assertTrue(e != null && (e == 0 || e == 1), "reported " + e);
+                    zeros += (e == 0) ? 1 : 0;
+                }
+                assertEquals(stable.size(), zeros);
+            }
+            remover.join();
+            assertEquals(null, failure.get());
+        }
     }
 }
 
@@ -136,5 +550,20 @@ abstract class PositionalListTest {
         // Assert that the index of a null position is -1
         assertEquals(-1, list.indexOf(null));
     }
-}
 
+    /**
+     * Asserts that positionAt finds the position at each index and rejects
+     * illegal indices.
+     */
+    @Test
+    void positionAt() {
+        Position<String> b = list.addFirst("b");
+        Position<String> a = list.addFirst("a");
+        Position<String> c = list.addLast("c");
+        assertEquals(a, list.positionAt(0));
+        assertEquals(b, list.positionAt(1));
+        assertEquals(c, list.positionAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.positionAt(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.positionAt(-1));
+    }
+}
@@ -0,0 +1,257 @@
+import lists.ArrayList;
+import lists.ElementCodec;
+import lists.ExternalSort;
+import lists.LinkedPositionalList;
+import lists.PositionalList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test class for lists.ExternalSort.
+ */
+public class ExternalSortTest {
+
+    /**
+     * Codec storing a string as its UTF-8 bytes.
+     */
+    static final ElementCodec<String> UTF8 = new ElementCodec<>() {
+        public int encodedSize(String e) { return e.getBytes(StandardCharsets.UTF_8).length; }
+        public void encode(String e, ByteBuffer buffer, int offset) {
+            buffer.put(offset, e.getBytes(StandardCharsets.UTF_8));
+        }
+        public String decode(ByteBuffer buffer, int offset, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /** Orders strings by their first character only, so that stability can be observed. */
+    static final Comparator<String> BY_FIRST = Comparator.comparing(s -> s.charAt(0));
+
+    /** Directory holding the run files and other files of each test. */
+    @TempDir
+    Path directory;
+
+    /**
+     * Returns n random strings of varying length, each starting with one of a
+     * few letters and ending with its sequence number.
+     * @param n the number of strings
+     * @return the strings
+     */
+    static java.util.List<String> words(int n) {
+        Random random = new Random(n);
+        java.util.List<String> words = new java.util.ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            words.add((char) ('a' + random.nextInt(6)) + "x".repeat(random.nextInt(40)) + k);
+        }
+        return words;
+    }
+
+    /**
+     * Asserts that the directory holds no files.
+     */
+    void assertNoFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Test that inputs of many runs are sorted stably, both with a single merge
+     * pass and with intermediate passes, and that the run files are deleted.
+     */
+    @Test
+    void sortsManyRunsStably() throws IOException {
+        java.util.List<String> input = words(5000);
+        java.util.List<String> expected = new java.util.ArrayList<>(input);
+        expected.sort(BY_FIRST);
+        for (int fanIn : new int[]{2, 3, 64}) {
+            ExternalSort<String> sort = new ExternalSort<>(UTF8, BY_FIRST, directory, 4096, fanIn);
+            java.util.List<String> output = new java.util.ArrayList<>();
+            sort.sort(input, output::add);
+            assertEquals(expected, output);
+            assertTrue(sort.runCount() > 9);                    // more than two passes at fan-in 3
+            assertNoFilesLeft();
+        }
+    }
+
+    /**
+     * Test that an input within the budget is sorted in memory, including an
+     * empty input.
+     */
+    @Test
+    void sortsSmallInputInMemory() throws IOException {
+        ExternalSort<String> sort = new ExternalSort<>(UTF8, BY_FIRST, directory, 1 << 20);
+        java.util.List<String> output = new java.util.ArrayList<>();
+        sort.sort(java.util.List.of("c1", "a1", "c2", "b1"), output::add);
+        assertEquals(java.util.List.of("a1", "b1", "c1", "c2"), output);
+        assertEquals(1, sort.runCount());
+        output.clear();
+        sort.sort(java.util.List.of(), output::add);
+        assertEquals(java.util.List.of(), output);
+        assertNoFilesLeft();
+    }
+
+    /**
+     * Test that positional lists and array lists are sorted in place.
+     */
+    @Test
+    void sortsListsInPlace() throws IOException {
+        java.util.List<String> input = words(2000);
+        java.util.List<String> expected = new java.util.ArrayList<>(input);
+        expected.sort(BY_FIRST);
+        ExternalSort<String> sort = new ExternalSort<>(UTF8, BY_FIRST, directory, 2048, 4);
+        PositionalList<String> linked = new LinkedPositionalList<>();
+        ArrayList<String> array = new ArrayList<>();
+        for (String s : input) {
+            linked.addLast(s);
+            array.add(array.size(), s);
+        }
+        sort.sort(linked);
+        sort.sort(array);
+        assertEquals(expected.size(), linked.size());
+        assertEquals(expected.size(), array.size());
+        java.util.Iterator<String> walk = linked.iterator();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), walk.next());
+            assertEquals(expected.get(i), array.get(i));
+        }
+        assertNoFilesLeft();
+    }
+
+    /**
+     * Test that a file of records, including one larger than the buffers, is
+     * sorted into an output stream, and that a truncated file is rejected.
+     */
+    @Test
+    void sortsFileOfRecords() throws IOException {
+        java.util.List<String> input = new java.util.ArrayList<>(words(3000));
+        input.add(1000, "b" + "y".repeat(100_000));
+        ExternalSort<String> sort = new ExternalSort<>(UTF8, BY_FIRST, directory, 8192, 8);
+        Path in = Files.createFile(directory.resolve("in.dat"));
+        Path out = Files.createFile(directory.resolve("out.dat"));
+        try (OutputStream stream = Files.newOutputStream(in)) {
+            sort.write(input, stream);
+        }
+        try (OutputStream stream = Files.newOutputStream(out)) {
+            sort.sort(in, stream);
+        }
+        java.util.List<String> output = new java.util.ArrayList<>();
+        sort.read(out, output::add);
+        input.sort(BY_FIRST);
+        assertEquals(input, output);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sort.write(java.util.List.of("abc", "de"), bytes);
+        Files.write(in, java.util.Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1));
+        assertThrows(EOFException.class, () -> sort.sort(in, new ByteArrayOutputStream()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    /**
+     * Returns a codec like UTF8 that fails, as a full or damaged disk would,
+     * once it has encoded or decoded the given number of elements.
+     * @param encodes the number of encodings that succeed
+     * @param decodes the number of decodings that succeed
+     * @return the codec
+     */
+    static ElementCodec<String> failing(int encodes, int decodes) {
+        return new ElementCodec<>() {
+            private int encoded = 0, decoded = 0;
+            public int encodedSize(String e) { return UTF8.encodedSize(e); }
+            public void encode(String e, ByteBuffer buffer, int offset) {
+                if (encoded++ == encodes) {
+                    throw new UncheckedIOException(new IOException("No space left on device"));
+                }
+                UTF8.encode(e, buffer, offset);
+            }
+            public String decode(ByteBuffer buffer, int offset, int length) {
+                if (decoded++ == decodes) {
+                    throw new UncheckedIOException(new IOException("Bad record"));
+                }
+                return UTF8.decode(buffer, offset, length);
+            }
+        };
+    }
+
+    /**
+     * Test that a sort failing while forming runs, during an intermediate
+     * merge pass or during the final pass leaves the sorted lists with all
+     * their elements, and deletes every run file.
+     */
+    @Test
+    void failedSortKeepsListsAndDeletesRuns() throws IOException {
+        java.util.List<String> input = words(2000);
+        int[][] failures = {{500, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 1000},
+                            {Integer.MAX_VALUE, 3000}, {Integer.MAX_VALUE, 9500}};
+        for (int[] failure : failures) {
+            PositionalList<String> linked = new LinkedPositionalList<>();
+            ArrayList<String> array = new ArrayList<>();
+            for (String s : input) {
+                linked.addLast(s);
+                array.add(array.size(), s);
+            }
+            assertThrows(UncheckedIOException.class, () ->
+                new ExternalSort<>(failing(failure[0], failure[1]), BY_FIRST, directory, 2048, 2).sort(linked));
+            assertThrows(UncheckedIOException.class, () ->
+                new ExternalSort<>(failing(failure[0], failure[1]), BY_FIRST, directory, 2048, 2).sort(array));
+            java.util.List<String> expected = new java.util.ArrayList<>(input);
+            java.util.List<String> linkedElements = new java.util.ArrayList<>();
+            java.util.List<String> arrayElements = new java.util.ArrayList<>();
+            linked.forEach(linkedElements::add);
+            array.forEach(arrayElements::add);
+            expected.sort(null);
+            linkedElements.sort(null);
+            arrayElements.sort(null);
+            assertEquals(expected, linkedElements);
+            assertEquals(expected, arrayElements);
+            assertNoFilesLeft();
+        }
+    }
+
+    /**
+     * Test that a batch is written as a run before an element would take it
+     * over the budget, rather than after.
+     */
+    @Test
+    void batchesStayWithinBudget() throws IOException {
+        java.util.List<String> input = new java.util.ArrayList<>();
+        for (int k = 0; k < 110; k++) {
+            input.add(String.format("a%05d", k));               // records of 4 + 6 bytes
+        }
+        ExternalSort<String> sort = new ExternalSort<>(UTF8, BY_FIRST, directory, 105);
+        java.util.List<String> output = new java.util.ArrayList<>();
+        sort.sort(input, output::add);
+        assertEquals(input, output);
+        assertEquals(11, sort.runCount());                        // 10 records of each run fit
+        assertNoFilesLeft();
+    }
+
+    /**
+     * Test that an illegal budget or fan-in is rejected.
+     */
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort<>(UTF8, BY_FIRST, directory, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort<>(UTF8, BY_FIRST, directory, 100, 1));
+    }
+}
@@ -0,0 +1,412 @@
+import lists.ApproximateFavoritesList;
+import lists.ConcurrentFavoritesList;
+import lists.CountMinSketch;
+import lists.DecayingFavoritesList;
+import lists.FavoritesList;
+import lists.FavoritesListMTF;
+import lists.SlidingWindowFavoritesList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test class for lists.FavoritesList, lists.FavoritesListMTF,
+ * lists.ConcurrentFavoritesList, lists.ApproximateFavoritesList,
+ * lists.DecayingFavoritesList and lists.SlidingWindowFavoritesList.
+ */
+public class FavoritesListTest {
+
+    /**
+     * Returns the elements reported by getFavorites(size()), in order.
+     * @param favorites the favorites list
+     * @return the elements, most favored first
+     */
+    static <E> java.util.List<E> favorites(FavoritesList<E> favorites) {
+        java.util.List<E> result = new java.util.ArrayList<>();
+        favorites.getFavorites(favorites.size()).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Simulates the original favorites list, which keeps its items in a
+     * java.util.List ordered by count and moves an accessed item ahead of
+     * every item with a smaller count.
+     * @param accesses the accessed elements, where a negative one is removed
+     * @return the elements in their final order
+     */
+    static java.util.List<Integer> reference(java.util.List<Integer> accesses) {
+        java.util.List<int[]> items = new java.util.ArrayList<>();
+        for (int a : accesses) {
+            int j = 0;
+            int key = Math.abs(a);
+            while (j < items.size() && items.get(j)[0] != key) {
+                j++;
+            }
+            if (a < 0) {
+                if (j < items.size()) {
+                    items.remove(j);
+                }
+                continue;
+            }
+            if (j == items.size()) {
+                items.add(new int[]{key, 0});
+            }
+            int[] item = items.get(j);
+            item[1]++;
+            int walk = j;
+            while (walk > 0 && items.get(walk - 1)[1] < item[1]) {
+                walk--;
+            }
+            items.add(walk, items.remove(j));
+        }
+        java.util.List<Integer> order = new java.util.ArrayList<>();
+        for (int[] item : items) {
+            order.add(item[0]);
+        }
+        return order;
+    }
+
+    /**
+     * Returns a random sequence of accesses to a few hundred keys, skewed
+     * towards the small ones, with occasional removals.
+     * @param n the number of accesses
+     * @return the accesses
+     */
+    static java.util.List<Integer> accesses(int n) {
+        Random random = new Random(254);
+        java.util.List<Integer> accesses = new java.util.ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            int key = 1 + (int) Math.pow(random.nextInt(300), 2) / 300;
+            accesses.add(random.nextInt(30) == 0 ? -key : key);
+        }
+        return accesses;
+    }
+
+    /**
+     * Test that the favorites list orders its items exactly as the original
+     * implementation did, and that counts and ranks agree with that order.
+     */
+    @Test
+    void orderMatchesReference() {
+        java.util.List<Integer> accesses = accesses(20_000);
+        FavoritesList<Integer> favorites = new FavoritesList<>();
+        java.util.Map<Integer, Integer> counts = new java.util.HashMap<>();
+        for (int a : accesses) {
+            if (a < 0) {
+                favorites.remove(-a);
+                counts.remove(-a);
+            } else {
+                favorites.access(a);
+                counts.merge(a, 1, Integer::sum);
+            }
+        }
+        java.util.List<Integer> order = reference(accesses);
+        assertEquals(order, favorites(favorites));
+        assertEquals(order.size(), favorites.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, favorites.rankOf(order.get(i)));
+            assertEquals(counts.get(order.get(i)), favorites.countOf(order.get(i)));
+        }
+        assertEquals(-1, favorites.rankOf(1000));
+        assertEquals(0, favorites.countOf(1000));
+    }
+
+    /**
+     * Test that the move-to-front list reports the same favorites as the
+     * counts imply, and that its ranks agree with getFavorites.
+     */
+    @Test
+    void moveToFrontRanksMatchFavorites() {
+        FavoritesListMTF<Integer> favorites = new FavoritesListMTF<>();
+        for (int a : accesses(5000)) {
+            if (a < 0) {
+                favorites.remove(-a);
+            } else {
+                favorites.access(a);
+            }
+        }
+        java.util.List<Integer> order = favorites(favorites);
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, favorites.rankOf(order.get(i)));
+            if (i > 0) {
+                assertTrue(favorites.countOf(order.get(i - 1)) >= favorites.countOf(order.get(i)));
+            }
+        }
+        favorites.access(999);
+        assertEquals(1, favorites.countOf(999));
+        favorites.remove(999);
+        assertEquals(-1, favorites.rankOf(999));
+        assertThrows(IllegalArgumentException.class, () -> favorites.getFavorites(favorites.size() + 1));
+    }
+
+    /**
+     * Test that the move-to-front top k agrees with sorting the whole list by
+     * decreasing count, ties going to the front of the list, for every k, and
+     * that a repeated call allocates only its result.
+     */
+    @Test
+    void moveToFrontTopKMatchesSort() {
+        FavoritesListMTF<Integer> favorites = new FavoritesListMTF<>();
+        for (int a : accesses(20_000)) {
+            favorites.access(Math.abs(a));
+        }
+        java.util.List<Integer> front = new java.util.ArrayList<>();
+        favorites.getFavorites(0).forEach(front::add);
+        assertEquals(0, front.size());
+        java.util.List<Integer> listOrder = new java.util.ArrayList<>();
+        for (int e = 0; e < 1000; e++) {
+            if (favorites.countOf(e) > 0) {
+                listOrder.add(e);
+            }
+        }
+        listOrder.sort(java.util.Comparator.comparingInt(favorites::rankOf));
+        for (int k = 0; k <= favorites.size(); k += 7) {
+            java.util.List<Integer> top = new java.util.ArrayList<>();
+            favorites.getFavorites(k).forEach(top::add);
+            assertEquals(listOrder.subList(0, k), top);
+        }
+        favorites.getFavorites(50);
+        long before = ((com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean())
+            .getCurrentThreadAllocatedBytes();
+        favorites.getFavorites(50);
+        long allocated = ((com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean())
+            .getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < 4096, allocated + " bytes allocated");
+    }
+
+    /**
+     * Test that accesses from several threads are all counted, and that with
+     * no staleness the merged top k is ordered by decreasing count.
+     */
+    @Test
+    void concurrentAccessesAreCountedAndMerged() throws InterruptedException {
+        ConcurrentFavoritesList<Integer> favorites = new ConcurrentFavoritesList<>(8, 0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int first = t;
+            threads[t] = new Thread(() -> {
+                for (int key = first; key < 200; key += threads.length) {
+                    for (int j = 0; j < key; j++) {
+                        favorites.access(key);
+                        favorites.access(-1 - j % 3);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(202, favorites.size());
+        for (int key = 1; key < 200; key++) {
+            assertEquals(key, favorites.countOf(key));
+        }
+        assertEquals(0, favorites.countOf(0));
+        java.util.List<Integer> expected = new java.util.ArrayList<>(java.util.List.of(-1, -2, -3));
+        for (int key = 199; key > 189; key--) {
+            expected.add(key);
+        }
+        java.util.List<Integer> top = new java.util.ArrayList<>();
+        favorites.getFavorites(13).forEach(top::add);
+        assertEquals(expected, top);
+        top.clear();
+        favorites.getFavorites(500).forEach(top::add);
+        assertEquals(202, top.size());
+    }
+
+    /**
+     * Test that the cached top k of each shard is reported while it is within
+     * the staleness bound, and recomputed when more elements are asked for.
+     */
+    @Test
+    void concurrentTopKIsStaleWithinBound() {
+        ConcurrentFavoritesList<String> favorites = new ConcurrentFavoritesList<>(1, Long.MAX_VALUE);
+        for (String e : new String[]{"a", "a", "a", "b", "b"}) {
+            favorites.access(e);
+        }
+        java.util.List<String> top = new java.util.ArrayList<>();
+        favorites.getFavorites(2).forEach(top::add);
+        assertEquals(java.util.List.of("a", "b"), top);
+        for (int j = 0; j < 5; j++) {
+            favorites.access("c");
+        }
+        favorites.remove("a");
+        top.clear();
+        favorites.getFavorites(2).forEach(top::add);
+        assertEquals(java.util.List.of("a", "b"), top);
+        top.clear();
+        favorites.getFavorites(3).forEach(top::add);
+        assertEquals(java.util.List.of("c", "b"), top);
+        assertEquals(0, favorites.countOf("a"));
+        assertThrows(IllegalArgumentException.class, () -> favorites.getFavorites(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentFavoritesList<String>(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentFavoritesList<String>(1, -1));
+    }
+
+    /**
+     * Test that the approximate list tracks at most its capacity, that every
+     * element lies within its bounds, and that every element accessed more
+     * than n/m times is tracked.
+     */
+    @Test
+    void approximateBoundsHold() {
+        ApproximateFavoritesList<Integer> favorites =
+            new ApproximateFavoritesList<>(40, new CountMinSketch<>(64, 4));
+        java.util.Map<Integer, Integer> counts = new java.util.HashMap<>();
+        java.util.List<Integer> accesses = accesses(30_000);
+        for (int a : accesses) {
+            favorites.access(Math.abs(a));
+            counts.merge(Math.abs(a), 1, Integer::sum);
+            assertTrue(favorites.size() <= 40);
+        }
+        int n = accesses.size();
+        for (int key = 0; key <= 300; key++) {
+            int count = counts.getOrDefault(key, 0);
+            assertTrue(favorites.lowerBound(key) <= count, "lower bound of " + key);
+            assertTrue(count <= favorites.upperBound(key), "upper bound of " + key);
+            assertTrue(favorites.errorOf(key) <= n / 40);
+            if (count > n / 40) {
+                assertTrue(favorites.countOf(key) > 0, key + " is not tracked");
+            }
+        }
+        java.util.List<Integer> order = favorites(favorites);
+        for (int i = 1; i < order.size(); i++) {
+            assertTrue(favorites.countOf(order.get(i - 1)) >= favorites.countOf(order.get(i)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateFavoritesList<Integer>(0));
+    }
+
+    /**
+     * Test that the rows of a sketch hash independently, so that keys whose
+     * hash codes differ only in their high bits do not share every counter
+     * with a heavy key.
+     */
+    @Test
+    void countMinSketchSeparatesStructuredKeys() {
+        CountMinSketch<Integer> sketch = new CountMinSketch<>(1024, 8);
+        for (int j = 0; j < 1000; j++) {
+            sketch.add(0);
+        }
+        assertEquals(1000, sketch.estimate(0));
+        for (int shift = 10; shift < 32; shift++) {
+            for (int k = 1; k < 64; k++) {
+                int key = k << shift;
+                if (key != 0) {
+                    assertEquals(0, sketch.estimate(key), "estimate of " + k + " << " + shift);
+                }
+            }
+        }
+        for (int key = 1; key <= 500; key++) {
+            sketch.add(key << 20);
+        }
+        for (int key = 1; key <= 500; key++) {
+            assertTrue(sketch.estimate(key << 20) <= 2, "estimate of " + key + " << 20");
+        }
+        assertEquals(1500, sketch.total());
+    }
+
+    /**
+     * Test that the approximate list is exact while it tracks every element.
+     */
+    @Test
+    void approximateIsExactWithinCapacity() {
+        java.util.List<Integer> accesses = accesses(20_000);
+        ApproximateFavoritesList<Integer> favorites = new ApproximateFavoritesList<>(1000);
+        for (int a : accesses) {
+            if (a < 0) {
+                favorites.remove(-a);
+            } else {
+                favorites.access(a);
+            }
+        }
+        assertEquals(reference(accesses), favorites(favorites));
+        for (int e : favorites(favorites)) {
+            assertEquals(0, favorites.errorOf(e));
+            assertEquals(favorites.countOf(e), favorites.upperBound(e));
+        }
+    }
+
+    /**
+     * Test that the decayed counts agree with summing the decayed weight of
+     * every access, across rescales, and that getFavorites orders by them.
+     */
+    @Test
+    void decayingMatchesDecayedSums() {
+        long[] time = {0};
+        DecayingFavoritesList<Integer> favorites = new DecayingFavoritesList<>(100, () -> time[0]);
+        java.util.Map<Integer, java.util.List<Long>> times = new java.util.HashMap<>();
+        Random random = new Random(254);
+        for (int a : accesses(20_000)) {
+            time[0] += random.nextInt(10);
+            favorites.access(Math.abs(a));
+            times.computeIfAbsent(Math.abs(a), key -> new java.util.ArrayList<>()).add(time[0]);
+        }
+        for (java.util.Map.Entry<Integer, java.util.List<Long>> entry : times.entrySet()) {
+            double expected = 0;
+            for (long t : entry.getValue()) {
+                expected += Math.pow(2, -(time[0] - t) / 100.0);
+            }
+            double weight = favorites.weightOf(entry.getKey());
+            assertTrue(Math.abs(weight - expected) <= 1e-9 * expected + 0x1p-64, entry.getKey() + ": " + weight);
+        }
+        java.util.List<Integer> order = favorites(favorites);
+        for (int i = 1; i < order.size(); i++) {
+            assertTrue(favorites.weightOf(order.get(i - 1)) >= favorites.weightOf(order.get(i)));
+            assertEquals(i, favorites.rankOf(order.get(i)));
+        }
+        time[0] += 100 * 600;
+        favorites.access(-1);
+        assertEquals(1, favorites.size());
+        assertEquals(1.0, favorites.weightOf(-1));
+        time[0] += 100;
+        assertEquals(0.5, favorites.weightOf(-1));
+        assertThrows(IllegalArgumentException.class, () -> new DecayingFavoritesList<Integer>(0));
+    }
+
+    /**
+     * Test that the counts in a sliding window agree with counting the
+     * accesses of the unexpired slices, and that expired elements leave.
+     */
+    @Test
+    void slidingWindowMatchesRecount() {
+        long[] time = {0};
+        SlidingWindowFavoritesList<Integer> favorites = new SlidingWindowFavoritesList<>(100, 10, () -> time[0]);
+        java.util.List<long[]> log = new java.util.ArrayList<>();
+        Random random = new Random(254);
+        for (int a : accesses(20_000)) {
+            time[0] += random.nextInt(random.nextInt(50) == 0 ? 300 : 3);
+            if (a < 0) {
+                favorites.remove(-a);
+                log.removeIf(entry -> entry[0] == -a);
+            } else {
+                favorites.access(a);
+                log.add(new long[]{a, time[0]});
+            }
+            if (random.nextInt(500) == 0) {
+                java.util.Map<Integer, Integer> counts = new java.util.HashMap<>();
+                for (long[] entry : log) {
+                    if (entry[1] / 10 > time[0] / 10 - 10) {
+                        counts.merge((int) entry[0], 1, Integer::sum);
+                    }
+                }
+                assertEquals(counts.size(), favorites.size());
+                for (int key = 0; key <= 300; key++) {
+                    assertEquals(counts.getOrDefault(key, 0), favorites.countOf(key), "count of " + key);
+                }
+                java.util.List<Integer> order = favorites(favorites);
+                for (int i = 1; i < order.size(); i++) {
+                    assertTrue(favorites.countOf(order.get(i - 1)) >= favorites.countOf(order.get(i)));
+                }
+            }
+        }
+        time[0] += 100;
+        assertTrue(favorites.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowFavoritesList<Integer>(5, 10));
+    }
+}
@@ -0,0 +1,248 @@
+import lists.ConcurrentArrayList;
+import lists.GapBufferList;
+import lists.List;
+import lists.TieredArrayList;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the alternative implementations of lists.List.
+ */
+public class ListImplementationsTest {
+
+    /**
+     * Test class for testing the functionality of a GapBufferList.
+     */
+    @Nested
+    class GapBufferListTest extends ListTest {
+        @Override
+        <E> List<E> createList() {
+            return new GapBufferList<>(2);
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of a ConcurrentArrayList.
+     */
+    @Nested
+    class ConcurrentArrayListTest extends ListTest {
+        @Override
+        <E> List<E> createList() {
+            return new ConcurrentArrayList<>(1);
+        }
+
+        /**
+         * Asserts that readers running alongside a writer always see the
+         * elements the writer published, including across resizes.
+         */
+        @Test
+        void readersSeePublishedElements() throws InterruptedException {
+            ConcurrentArrayList<Integer> list = new ConcurrentArrayList<>(1);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread[] readers = new Thread[3];
+            for (int t = 0; t < readers.length; t++) {
+                readers[t] = new Thread(() -> {
+                    Random random = new Random();
+                    try {
+                        while (list.size() < 20_000) {
+                            int n = list.size();
+                            if (n > 0) {
+                                int i = random.nextInt(n);
+                                assertEquals(i, list.get(i));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                });
+                readers[t].start();
+            }
+            for (int i = 0; i < 20_000; i++) {
+                list.add(i, i);
+                list.set(i / 2, i / 2);            // a write that keeps every element in place
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertEquals(null, failure.get());
+            assertEquals(19_999, list.get(19_999));
+        }
+    }
+
+    /**
+     * Test class for testing the functionality of a TieredArrayList.
+     */
+    @Nested
+    class TieredArrayListTest extends ListTest {
+        @Override
+        <E> List<E> createList() {
+            return new TieredArrayList<>();
+        }
+
+        /**
+         * Asserts that bulk appends fill the chunks in order, and that the
+         * list stays consistent while it is rebuilt with larger and then
+         * smaller chunks.
+         */
+        @Test
+        void bulkAppendThenShrink() {
+            TieredArrayList<Integer> list = new TieredArrayList<>();
+            java.util.List<Integer> reference = new java.util.ArrayList<>();
+            for (int round = 0; round < 3; round++) {
+                Integer[] block = new Integer[1000 + 7 * round];
+                for (int i = 0; i < block.length; i++) {
+                    block[i] = reference.size() + i;
+                }
+                list.addAll(block);
+                reference.addAll(java.util.Arrays.asList(block));
+                list.add(list.size() / 3, -round);
+                reference.add(reference.size() / 3, -round);
+            }
+            assertListEquals(reference, list);
+            while (reference.size() > 5) {
+                int i = reference.size() / 2;
+                assertEquals(reference.remove(i), list.remove(i));
+            }
+            assertListEquals(reference, list);
+        }
+    }
+}
+
+/**
+ * An abstract test class for testing the functionality of a lists.List.
+ */
+abstract class ListTest {
+
+    /**
+     * Factory method for creating an empty list to be used for testing.
+     *
+     * @return an empty list to be used for testing
+     */
+    abstract <E> List<E> createList();
+
+    /**
+     * Asserts that the list contains exactly the elements of the expected
+     * java.util.List, in the same order, both by index and by iteration.
+     *
+     * @param expected the expected elements in the expected order
+     * @param list the list to be tested
+     */
+    static <E> void assertListEquals(java.util.List<E> expected, List<E> list) {
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected.isEmpty(), list.isEmpty());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        Iterator<E> walk = list.iterator();
+        for (E e : expected) {
+            assertEquals(e, walk.next());
+        }
+        assertFalse(walk.hasNext());
+    }
+
+    /**
+     * Asserts that elements added at the front, back and middle are reported
+     * in index order.
+     */
+    @Test
+    void addAndGet() {
+        List<String> list = createList();
+        list.add(0, "b");
+        list.add(0, "a");
+        list.add(2, "d");
+        list.add(2, "c");
+        assertListEquals(java.util.List.of("a", "b", "c", "d"), list);
+    }
+
+    /**
+     * Asserts that set and remove return the previously stored elements.
+     */
+    @Test
+    void setAndRemove() {
+        List<String> list = createList();
+        list.add(0, "a");
+        list.add(1, "b");
+        list.add(2, "c");
+        assertEquals("b", list.set(1, "B"));
+        assertEquals("a", list.remove(0));
+        assertEquals("c", list.remove(1));
+        assertListEquals(java.util.List.of("B"), list);
+        assertEquals("B", list.remove(0));
+        assertTrue(list.isEmpty());
+    }
+
+    /**
+     * Asserts that illegal indices are rejected by every indexed operation.
+     */
+    @Test
+    void illegalIndices() {
+        List<String> list = createList();
+        list.add(0, "a");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(1, "b"));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(2, "b"));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(1));
+    }
+
+    /**
+     * Asserts that the iterator reports all elements and supports removal.
+     */
+    @Test
+    void iteratorRemove() {
+        List<Integer> list = createList();
+        for (int i = 0; i < 10; i++) {
+            list.add(i, i);
+        }
+        Iterator<Integer> walk = list.iterator();
+        assertThrows(IllegalStateException.class, walk::remove);
+        while (walk.hasNext()) {
+            if (walk.next() % 2 == 0) {
+                walk.remove();
+            }
+        }
+        assertThrows(NoSuchElementException.class, walk::next);
+        assertListEquals(java.util.List.of(1, 3, 5, 7, 9), list);
+    }
+
+    /**
+     * Asserts that a long sequence of random updates, clustered around a
+     * moving cursor with occasional jumps, leaves the list in the same state
+     * as a java.util.ArrayList receiving the same updates.
+     */
+    @Test
+    void randomUpdatesMatchReference() {
+        List<Integer> list = createList();
+        java.util.List<Integer> reference = new java.util.ArrayList<>();
+        Random random = new Random(254);
+        int cursor = 0;
+        for (int op = 0; op < 3000; op++) {
+            if (random.nextInt(10) == 0) {
+                cursor = random.nextInt(reference.size() + 1);
+            }
+            int choice = random.nextInt(10);
+            if (choice < 6 || reference.isEmpty()) {
+                list.add(cursor, op);
+                reference.add(cursor, op);
+                cursor++;
+            } else if (choice < 9) {
+                cursor = Math.min(cursor, reference.size() - 1);
+                assertEquals(reference.remove(cursor), list.remove(cursor));
+            } else {
+                int i = random.nextInt(reference.size());
+                assertEquals(reference.set(i, -op), list.set(i, -op));
+            }
+        }
+        assertListEquals(reference, list);
+    }
+}
@@ -0,0 +1,108 @@
+import lists.ElementCodec;
+import lists.MappedList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A test class for lists.MappedList.
+ */
+public class MappedListTest {
+
+    /**
+     * Codec storing a string as its UTF-8 bytes.
+     */
+    static final ElementCodec<String> UTF8 = new ElementCodec<>() {
+        public int encodedSize(String e) { return e.getBytes(StandardCharsets.UTF_8).length; }
+        public void encode(String e, ByteBuffer buffer, int offset) {
+            buffer.put(offset, e.getBytes(StandardCharsets.UTF_8));
+        }
+        public String decode(ByteBuffer buffer, int offset, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /** Directory holding the files of each test. */
+    @TempDir
+    Path directory;
+
+    /**
+     * Asserts that the list contains exactly the elements of the expected list.
+     * @param expected the expected elements in the expected order
+     * @param list the list to be tested
+     */
+    static void assertListEquals(java.util.List<String> expected, MappedList<String> list) {
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+    }
+
+    /**
+     * Test that random updates of variable-length elements, with chunks small
+     * enough that both files span many of them, match a java.util.ArrayList,
+     * and that the list survives being closed and reopened.
+     */
+    @Test
+    void randomUpdatesSurviveReopen() throws IOException {
+        Path path = directory.resolve("words.dat");
+        java.util.List<String> reference = new java.util.ArrayList<>();
+        Random random = new Random(254);
+        try (MappedList<String> list = new MappedList<>(path, UTF8, 64)) {
+            for (int op = 0; op < 2000; op++) {
+                String word = "w" + "x".repeat(random.nextInt(20)) + op;
+                int choice = random.nextInt(10);
+                if (choice < 6 || reference.isEmpty()) {
+                    int i = random.nextInt(reference.size() + 1);
+                    list.add(i, word);
+                    reference.add(i, word);
+                } else if (choice < 9) {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.remove(i), list.remove(i));
+                } else {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.set(i, word), list.set(i, word));
+                }
+            }
+            assertListEquals(reference, list);
+        }
+        try (MappedList<String> list = new MappedList<>(path, UTF8, 1 << 20)) {
+            assertListEquals(reference, list);       // keeps its original chunk size
+            list.add(0, "first");
+            list.force();
+        }
+        try (MappedList<String> list = new MappedList<>(path, UTF8)) {
+            assertEquals("first", list.get(0));
+            assertEquals(reference.size() + 1, list.size());
+        }
+    }
+
+    /**
+     * Test that invalid elements, files and uses are rejected.
+     */
+    @Test
+    void rejectsInvalidUse() throws IOException {
+        Path path = directory.resolve("strings.dat");
+        MappedList<String> list = new MappedList<>(path, UTF8, 64);
+        assertThrows(IllegalArgumentException.class, () -> list.add(0, "y".repeat(65)));
+        list.add(0, "a");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        list.close();
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalArgumentException.class, () -> new MappedList<>(path, UTF8, 100));
+        Path other = directory.resolve("other.dat");
+        Files.write(directory.resolve("other.dat.idx"), new byte[64]);
+        assertThrows(IOException.class, () -> new MappedList<>(other, UTF8));
+    }
+}
@@ -0,0 +1,110 @@
+import lists.IndexedPositionalList;
+import lists.LinkedPositionalList;
+import lists.MergeSort;
+import lists.Position;
+import lists.PositionalList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * A test class for sorting positional lists with lists.MergeSort.
+ */
+public class MergeSortTest {
+
+    /**
+     * Asserts that the list holds the same elements as the sorted reference,
+     * in the same order, both forward and backward.
+     * @param expected the sorted elements
+     * @param list the list to be tested
+     */
+    static <E> void assertSorted(java.util.List<E> expected, PositionalList<E> list) {
+        assertEquals(expected.size(), list.size());
+        Position<E> walk = list.first();
+        for (E e : expected) {
+            assertEquals(e, walk.getElement());
+            walk = list.after(walk);
+        }
+        assertEquals(null, walk);
+        walk = list.last();
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            assertEquals(expected.get(i), walk.getElement());
+            walk = list.before(walk);
+        }
+        assertEquals(null, walk);
+    }
+
+    /**
+     * Test that random, sorted, reversed and run-structured inputs of various
+     * sizes are sorted, including the empty and single element lists.
+     */
+    @Test
+    void sortsInputsOfManyShapes() {
+        Random random = new Random(254);
+        for (int n : new int[]{0, 1, 2, 3, 10, 257, 5000}) {
+            for (int shape = 0; shape < 4; shape++) {
+                java.util.List<Integer> reference = new java.util.ArrayList<>();
+                PositionalList<Integer> list = new LinkedPositionalList<>();
+                for (int k = 0; k < n; k++) {
+                    int e = switch (shape) {
+                        case 0 -> random.nextInt(100);
+                        case 1 -> k;
+                        case 2 -> n - k;
+                        default -> k % 37;
+                    };
+                    reference.add(e);
+                    list.addLast(e);
+                }
+                MergeSort.sort(list);
+                reference.sort(Comparator.naturalOrder());
+                assertSorted(reference, list);
+            }
+        }
+    }
+
+    /**
+     * Test that sorting a linked list keeps every position attached to its
+     * element, and that equal keys keep their order.
+     */
+    @Test
+    void relinkingIsStableAndKeepsPositions() {
+        LinkedPositionalList<String> list = new LinkedPositionalList<>();
+        java.util.List<Position<String>> positions = new java.util.ArrayList<>();
+        String[] words = {"pear", "fig", "apple", "kiwi", "plum", "date", "lime", "sloe"};
+        for (String w : words) {
+            positions.add(list.addLast(w));
+        }
+        MergeSort.sort(list, Comparator.comparingInt(String::length));
+        assertEquals("(fig, pear, kiwi, plum, date, lime, sloe, apple)", list.toString());
+        for (int i = 0; i < words.length; i++) {
+            assertEquals(words[i], positions.get(i).getElement());
+        }
+        assertSame(positions.get(1), list.first());
+        assertSame(positions.get(2), list.last());
+        list.remove(positions.get(0));
+        list.addBefore(positions.get(6), "x");
+        assertEquals("(fig, kiwi, plum, date, x, lime, sloe, apple)", list.toString());
+    }
+
+    /**
+     * Test that a list of another implementation is sorted through an array.
+     */
+    @Test
+    void sortsOtherImplementations() {
+        PositionalList<Integer> list = new IndexedPositionalList<>();
+        java.util.List<Integer> reference = new java.util.ArrayList<>();
+        Random random = new Random(254);
+        for (int k = 0; k < 1000; k++) {
+            int e = random.nextInt();
+            reference.add(e);
+            list.addLast(e);
+        }
+        MergeSort.sort(list, Comparator.reverseOrder());
+        reference.sort(Comparator.reverseOrder());
+        assertSorted(reference, list);
+    }
+}
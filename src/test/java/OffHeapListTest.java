@@ -0,0 +1,147 @@
+import lists.OffHeapList;
+import lists.RecordCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A test class for lists.OffHeapList.
+ */
+public class OffHeapListTest {
+
+    /**
+     * A fixed-width record used for testing.
+     */
+    record Trade(long id, long timestamp, double price) { }
+
+    /**
+     * Codec storing a trade as three 8-byte fields.
+     */
+    static final RecordCodec<Trade> TRADES = new RecordCodec<>() {
+        public int width() { return 24; }
+        public void encode(Trade t, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, t.id());
+            buffer.putLong(offset + 8, t.timestamp());
+            buffer.putDouble(offset + 16, t.price());
+        }
+        public Trade decode(ByteBuffer buffer, int offset) {
+            return new Trade(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getDouble(offset + 16));
+        }
+    };
+
+    /**
+     * Codec storing an integer as a 4-byte record.
+     */
+    static final RecordCodec<Integer> INTS = new RecordCodec<>() {
+        public int width() { return 4; }
+        public void encode(Integer e, ByteBuffer buffer, int offset) { buffer.putInt(offset, e); }
+        public Integer decode(ByteBuffer buffer, int offset) { return buffer.getInt(offset); }
+    };
+
+    /**
+     * Test that a long sequence of random updates, with small chunks so that
+     * shifts cross many chunk boundaries, matches a java.util.ArrayList.
+     */
+    @Test
+    void randomUpdatesMatchReference() {
+        try (OffHeapList<Integer> list = new OffHeapList<>(INTS, 8)) {
+            java.util.List<Integer> reference = new java.util.ArrayList<>();
+            Random random = new Random(254);
+            for (int op = 0; op < 3000; op++) {
+                int choice = random.nextInt(10);
+                if (choice < 6 || reference.isEmpty()) {
+                    int i = random.nextInt(reference.size() + 1);
+                    list.add(i, op);
+                    reference.add(i, op);
+                } else if (choice < 9) {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.remove(i), list.remove(i));
+                } else {
+                    int i = random.nextInt(reference.size());
+                    assertEquals(reference.set(i, -op), list.set(i, -op));
+                }
+            }
+            assertEquals(reference.size(), list.size());
+            Iterator<Integer> walk = list.iterator();
+            for (Integer e : reference) {
+                assertEquals(e, walk.next());
+            }
+            assertFalse(walk.hasNext());
+        }
+    }
+
+    /**
+     * Test that the raw accessors read and write single fields of a record.
+     */
+    @Test
+    void rawFieldAccess() {
+        try (OffHeapList<Trade> list = new OffHeapList<>(TRADES)) {
+            list.add(0, new Trade(1, 1000, 9.5));
+            list.add(1, new Trade(2, 2000, 10.25));
+            assertEquals(2, list.getLong(1, 0));
+            assertEquals(9.5, list.getDouble(0, 16));
+            list.putDouble(1, 16, 11.0);
+            list.putLong(0, 8, 1500);
+            assertEquals(new Trade(2, 2000, 11.0), list.get(1));
+            assertEquals(new Trade(1, 1500, 9.5), list.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.getLong(0, 17));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(2, 0));
+        }
+    }
+
+    /**
+     * Test that records stored to a channel are loaded back unchanged, and
+     * that a truncated record is detected.
+     */
+    @Test
+    void storeAndLoad() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OffHeapList<Trade> list = new OffHeapList<>(TRADES, 4)) {
+            for (int i = 0; i < 10; i++) {
+                list.add(i, new Trade(i, 100L * i, i / 4.0));
+            }
+            list.store(Channels.newChannel(bytes));
+        }
+        assertEquals(240, bytes.size());
+        try (OffHeapList<Trade> copy = new OffHeapList<>(TRADES, 4)) {
+            copy.add(0, new Trade(-1, 0, 0));
+            copy.load(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+            assertEquals(11, copy.size());
+            assertEquals(new Trade(-1, 0, 0), copy.get(0));
+            assertEquals(new Trade(9, 900, 2.25), copy.get(10));
+        }
+        byte[] truncated = java.util.Arrays.copyOf(bytes.toByteArray(), 30);
+        try (OffHeapList<Trade> copy = new OffHeapList<>(TRADES, 4)) {
+            assertThrows(IOException.class,
+                    () -> copy.load(Channels.newChannel(new ByteArrayInputStream(truncated))));
+        }
+    }
+
+    /**
+     * Test that a closed list rejects further use, even at an index that was
+     * valid before it was closed.
+     */
+    @Test
+    void closedListIsUnusable() {
+        OffHeapList<Integer> list = new OffHeapList<>(INTS);
+        list.add(0, 1);
+        list.close();
+        assertEquals(0, list.size());
+        assertThrows(IllegalStateException.class, () -> list.add(0, 2));
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalStateException.class, () -> list.set(0, 2));
+        assertThrows(IllegalStateException.class, () -> list.remove(0));
+        assertThrows(IllegalStateException.class, () -> list.getInt(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapList<>(INTS, 3));
+    }
+}
@@ -0,0 +1,154 @@
+import lists.ArrayList;
+import lists.LinkedPositionalList;
+import lists.ParallelSort;
+import lists.Position;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * A test class for lists.ParallelSort, run on a small dedicated pool with a
+ * low threshold so that the parallel paths are taken.
+ */
+public class ParallelSortTest {
+
+    /** Pool running the sorts, independent of the number of cores. */
+    static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /** Orders pairs by their key only, so that stability can be observed. */
+    static final Comparator<int[]> BY_KEY = Comparator.comparingInt(pair -> pair[0]);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    /**
+     * Returns n pairs of a random key below the given bound and a sequence
+     * number.
+     * @param n the number of pairs
+     * @param bound the bound on the keys
+     * @return the pairs
+     */
+    static java.util.List<int[]> pairs(int n, int bound) {
+        Random random = new Random(n);
+        java.util.List<int[]> pairs = new java.util.ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            pairs.add(new int[]{random.nextInt(bound), k});
+        }
+        return pairs;
+    }
+
+    /**
+     * Test that array lists of sizes around and well above the threshold are
+     * sorted stably, with many and with few distinct keys.
+     */
+    @Test
+    void sortsArrayListsStably() {
+        for (int n : new int[]{0, 1, 63, 64, 65, 1000, 20_011}) {
+            for (int bound : new int[]{5, Integer.MAX_VALUE}) {
+                java.util.List<int[]> reference = pairs(n, bound);
+                ArrayList<int[]> list = new ArrayList<>();
+                list.addAll(0, reference);
+                ParallelSort.sort(list, BY_KEY, POOL, 64);
+                reference.sort(BY_KEY);
+                assertEquals(reference.size(), list.size());
+                for (int i = 0; i < n; i++) {
+                    assertSame(reference.get(i), list.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that linked lists are sorted stably, keeping every position
+     * attached to its element.
+     */
+    @Test
+    void sortsLinkedListsStably() {
+        for (int n : new int[]{0, 1, 65, 1000, 20_011}) {
+            for (int bound : new int[]{5, Integer.MAX_VALUE}) {
+                java.util.List<int[]> reference = pairs(n, bound);
+                LinkedPositionalList<int[]> list = new LinkedPositionalList<>();
+                java.util.List<Position<int[]>> positions = new java.util.ArrayList<>();
+                for (int[] pair : reference) {
+                    positions.add(list.addLast(pair));
+                }
+                ParallelSort.sort(list, BY_KEY, POOL, 64);
+                for (int i = 0; i < n; i++) {
+                    assertSame(reference.get(i), positions.get(i).getElement());
+                }
+                reference.sort(BY_KEY);
+                assertEquals(reference.size(), list.size());
+                Position<int[]> walk = list.first();
+                for (int[] pair : reference) {
+                    assertSame(pair, walk.getElement());
+                    walk = list.after(walk);
+                }
+                walk = list.last();
+                for (int i = n - 1; i >= 0; i--) {
+                    assertSame(reference.get(i), walk.getElement());
+                    walk = list.before(walk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that thresholds of 0, 1 and 2 still sort, both array lists and
+     * linked lists, rather than splitting pieces into themselves forever.
+     */
+    @Test
+    void sortsWithTinyThresholds() {
+        for (int threshold : new int[]{0, 1, 2}) {
+            for (int n : new int[]{0, 1, 2, 3, 17, 500}) {
+                java.util.List<int[]> reference = pairs(n, 7);
+                ArrayList<int[]> array = new ArrayList<>();
+                array.addAll(0, reference);
+                LinkedPositionalList<int[]> linked = new LinkedPositionalList<>();
+                reference.forEach(linked::addLast);
+                ParallelSort.sort(array, BY_KEY, POOL, threshold);
+                ParallelSort.sort(linked, BY_KEY, POOL, threshold);
+                reference.sort(BY_KEY);
+                Position<int[]> walk = linked.first();
+                for (int i = 0; i < n; i++) {
+                    assertSame(reference.get(i), array.get(i));
+                    assertSame(reference.get(i), walk.getElement());
+                    walk = linked.after(walk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that merging two sorted linked lists relinks the nodes of the
+     * second into the first, resolving ties in favor of the first.
+     */
+    @Test
+    void mergeLinkedLists() {
+        LinkedPositionalList<String> left = new LinkedPositionalList<>();
+        LinkedPositionalList<String> right = new LinkedPositionalList<>();
+        for (String s : new String[]{"a1", "c1", "d1"}) {
+            left.addLast(s);
+        }
+        Position<String> b = right.addLast("b2");
+        for (String s : new String[]{"c2", "e2"}) {
+            right.addLast(s);
+        }
+        left.merge(right, Comparator.comparing(s -> s.charAt(0)));
+        assertEquals("(a1, b2, c1, c2, d1, e2)", left.toString());
+        assertEquals(6, left.size());
+        assertEquals(0, right.size());
+        assertEquals("()", right.toString());
+        assertEquals("c1", left.after(b).getElement());
+        right.merge(left, Comparator.comparing(s -> s.charAt(0)));
+        assertEquals("(a1, b2, c1, c2, d1, e2)", right.toString());
+        assertEquals(6, right.size());
+    }
+}
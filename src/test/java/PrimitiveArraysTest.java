@@ -0,0 +1,173 @@
+import lists.DoubleArrayList;
+import lists.IntArrayList;
+import lists.LongArrayList;
+import org.junit.jupiter.api.Test;
+import queues.IntArrayQueue;
+import stacks.IntArrayStack;
+import stacks.LongArrayStack;
+
+import java.lang.management.ManagementFactory;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test class for the primitive specializations generated from the
+ * templates under src/main/templates.
+ */
+public class PrimitiveArraysTest {
+
+    /**
+     * Number of operations executed when measuring allocations; large enough
+     * that boxing even a single value per operation would be obvious.
+     */
+    static final int OPERATIONS = 100_000;
+
+    /**
+     * Upper bound on the bytes a measured loop may allocate, which leaves room
+     * for the measurement itself but not for one allocation per operation.
+     */
+    static final long ALLOCATION_SLACK = 4096;
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     * @return the bytes allocated by the current thread
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Asserts that the list behaves like lists.ArrayList for inserts, removals
+     * and replacements at arbitrary indices.
+     */
+    @Test
+    void intArrayListAddRemoveSet() {
+        IntArrayList list = new IntArrayList(1);
+        list.add(0, 2);
+        list.add(0, 1);
+        list.add(2, 4);
+        list.add(2, 3);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, list.toArray());
+        assertEquals(3, list.set(2, 30));
+        assertEquals(2, list.remove(1));
+        assertArrayEquals(new int[]{1, 30, 4}, list.toArray());
+        assertTrue(list.contains(30));
+        assertFalse(list.contains(3));
+        assertEquals("(1, 30, 4)", list.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(4, 0));
+    }
+
+    /**
+     * Asserts that the primitive iterator reports and removes elements in
+     * index order.
+     */
+    @Test
+    void longArrayListIterator() {
+        LongArrayList list = new LongArrayList();
+        for (int i = 0; i < 5; i++)
+            list.add(i, i * 10L);
+        PrimitiveIterator.OfLong walk = list.iterator();
+        while (walk.hasNext())
+            if (walk.nextLong() % 20 == 0)
+                walk.remove();
+        assertArrayEquals(new long[]{10L, 30L}, list.toArray());
+    }
+
+    /**
+     * Asserts that the stack reports elements in last-in first-out order and
+     * signals an empty stack with an exception.
+     */
+    @Test
+    void longArrayStackPushPop() {
+        LongArrayStack stack = new LongArrayStack(2);
+        stack.push(1L);
+        stack.push(2L);
+        assertThrows(IllegalStateException.class, () -> stack.push(3L));
+        assertEquals(2L, stack.top());
+        assertEquals(2L, stack.pop());
+        assertEquals(1L, stack.pop());
+        assertTrue(stack.isEmpty());
+        assertThrows(NoSuchElementException.class, stack::pop);
+    }
+
+    /**
+     * Asserts that the queue reports elements in first-in first-out order when
+     * its contents wrap around the end of the array.
+     */
+    @Test
+    void intArrayQueueWrapsAround() {
+        IntArrayQueue queue = new IntArrayQueue(3);
+        queue.enqueue(1);
+        queue.enqueue(2);
+        assertEquals(1, queue.dequeue());
+        queue.enqueue(3);
+        queue.enqueue(4);
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(5));
+        assertEquals("(2, 3, 4)", queue.toString());
+        assertEquals(2, queue.dequeue());
+        assertEquals(3, queue.first());
+        assertEquals(3, queue.dequeue());
+        assertEquals(4, queue.dequeue());
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+    }
+
+    /**
+     * Asserts that reading elements of a populated list allocates nothing.
+     */
+    @Test
+    void getDoesNotAllocate() {
+        DoubleArrayList list = new DoubleArrayList(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++)
+            list.add(i, i + 0.5);
+        double sum = 0;
+        allocatedBytes();                       // warm up the measurement itself
+        final long before = allocatedBytes();
+        for (int i = 0; i < OPERATIONS; i++)
+            sum += list.get(i);
+        final long allocated = allocatedBytes() - before;
+        assertEquals(OPERATIONS * (OPERATIONS / 2.0), sum);
+        assertTrue(allocated < ALLOCATION_SLACK, "get allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Asserts that pushing and popping values outside the Integer cache
+     * allocates nothing.
+     */
+    @Test
+    void pushDoesNotAllocate() {
+        IntArrayStack stack = new IntArrayStack(OPERATIONS);
+        allocatedBytes();
+        final long before = allocatedBytes();
+        for (int i = 0; i < OPERATIONS; i++)
+            stack.push(1_000_000 + i);
+        while (!stack.isEmpty())
+            stack.pop();
+        final long allocated = allocatedBytes() - before;
+        assertTrue(allocated < ALLOCATION_SLACK, "push allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Asserts that enqueueing and dequeuing values outside the Integer cache
+     * allocates nothing.
+     */
+    @Test
+    void enqueueDoesNotAllocate() {
+        IntArrayQueue queue = new IntArrayQueue(16);
+        allocatedBytes();
+        final long before = allocatedBytes();
+        for (int i = 0; i < OPERATIONS; i++) {
+            queue.enqueue(1_000_000 + i);
+            queue.dequeue();
+        }
+        final long allocated = allocatedBytes() - before;
+        assertTrue(allocated < ALLOCATION_SLACK, "enqueue allocated " + allocated + " bytes");
+    }
+}